@@ -0,0 +1,38 @@
+package com.example.springdartsgame.config;
+
+import com.example.springdartsgame.model.AuditReport;
+import com.example.springdartsgame.service.AuditService;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+/**
+ * This actuator endpoint runs the integrity audit of all games with a POST request to {@code /actuator/audit}. A GET
+ * request returns the report of the last audit. A POST request while an audit is running is answered with 409
+ * (Conflict), the report of the running audit follows with a GET request when it is done.
+ */
+@Component
+@Endpoint(id = "audit")
+public class AuditEndpoint {
+    private final AuditService auditService;
+
+    public AuditEndpoint(AuditService auditService) {
+        this.auditService = auditService;
+    }
+
+    @ReadOperation
+    public AuditReport lastReport() {
+        return auditService.getLastReport();
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<AuditReport> audit() {
+        AuditReport report = auditService.audit();
+        return report == null
+                ? new WebEndpointResponse<>(HttpStatus.CONFLICT.value())
+                : new WebEndpointResponse<>(report);
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.springdartsgame.config;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * This listener stops the application as soon as it is ready. It is used by the Gradle task cdsArchive, which starts
+ * the application once to record the loaded classes in a class data sharing (AppCDS) archive.
+ */
+@Component
+@ConditionalOnProperty(name = "darts.cds.training-run", havingValue = "true")
+public class CdsTrainingRun implements ApplicationListener<ApplicationReadyEvent> {
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        System.exit(SpringApplication.exit(event.getApplicationContext()));
+    }
+}
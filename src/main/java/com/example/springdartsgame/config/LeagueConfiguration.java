@@ -0,0 +1,82 @@
+package com.example.springdartsgame.config;
+
+import com.example.springdartsgame.util.LeagueContext;
+import org.hibernate.boot.Metadata;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.hibernate.tool.schema.spi.SchemaManagementToolCoordinator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This configuration shards the games by league: every league has its own database, the data source routes to the
+ * database of the league of the current thread (see {@link LeagueRoutingDataSource}). The databases share the
+ * settings of spring.datasource, only the url of the other leagues comes from the url template.
+ * <p>
+ * Hibernate creates (or updates or validates, see ddl-auto) the schema of the default league at startup, the schema of
+ * the other leagues is processed the same way right after. The id sequence of a league starts at the range of the
+ * league, so that an id stays unique across the leagues (the locks, the caches and the read model use the ids).
+ */
+@Configuration
+public class LeagueConfiguration {
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties properties, Leagues leagues,
+                                 @Value("${darts.leagues.url-template:jdbc:h2:file:../service_db_{league}}")
+                                 String urlTemplate) {
+        Map<String, DataSource> databases = new LinkedHashMap<>();
+        for (String league : leagues.names()) {
+            String url = LeagueContext.DEFAULT_LEAGUE.equals(league) ? properties.determineUrl()
+                    : urlTemplate.replace("{league}", league);
+            databases.put(league, properties.initializeDataSourceBuilder().url(url).build());
+        }
+        return new LeagueRoutingDataSource(databases);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer leagueSchemas(Leagues leagues, DataSource dataSource) {
+        Integrator integrator = new LeagueSchemas(leagues, new JdbcTemplate(dataSource));
+        return properties -> properties.put("hibernate.integrator_provider",
+                (IntegratorProvider) () -> List.of(integrator));
+    }
+
+    private record LeagueSchemas(Leagues leagues, JdbcTemplate jdbcTemplate) implements Integrator {
+
+        @Override
+        public void integrate(Metadata metadata, SessionFactoryImplementor sessionFactory,
+                              SessionFactoryServiceRegistry serviceRegistry) {
+            Map<String, Object> settings = serviceRegistry.getService(ConfigurationService.class).getSettings();
+            for (String league : leagues.names()) {
+                if (LeagueContext.DEFAULT_LEAGUE.equals(league)) continue;
+                LeagueContext.run(league, () -> {
+                    // The schema isn't dropped on shutdown (create-drop), it is dropped by the next create
+                    SchemaManagementToolCoordinator.process(metadata, serviceRegistry, settings, action -> {
+                    });
+
+                    long firstId = leagues.firstId(league);
+                    Long nextId = jdbcTemplate.queryForObject("select next value for hibernate_sequence", Long.class);
+                    if (nextId != null && nextId < firstId) {
+                        jdbcTemplate.execute("alter sequence hibernate_sequence restart with " + firstId);
+                    }
+                });
+            }
+        }
+
+        @Override
+        public void disintegrate(SessionFactoryImplementor sessionFactory,
+                                 SessionFactoryServiceRegistry serviceRegistry) {
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.springdartsgame.config;
+
+import com.example.springdartsgame.model.Result;
+import com.example.springdartsgame.util.LeagueContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.security.Principal;
+
+/**
+ * This interceptor selects the league (and so the database) of a request: the league of the X-League header, otherwise
+ * the league of the authenticated player. A request for an unknown league is rejected with 400 (Bad Request).
+ */
+public class LeagueInterceptor implements HandlerInterceptor {
+    public static final String HEADER = "X-League";
+
+    private final Leagues leagues;
+    private final ObjectMapper objectMapper;
+
+    public LeagueInterceptor(Leagues leagues, ObjectMapper objectMapper) {
+        this.leagues = leagues;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        String league = request.getHeader(HEADER);
+        if (league == null) {
+            Principal principal = request.getUserPrincipal();
+            league = principal == null ? LeagueContext.DEFAULT_LEAGUE : leagues.leagueOf(principal.getName());
+        } else if (!leagues.contains(league)) {
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), new Result("Unknown league!"));
+            return false;
+        }
+        LeagueContext.set(league);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        LeagueContext.clear();
+    }
+}
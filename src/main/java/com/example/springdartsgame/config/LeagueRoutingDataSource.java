@@ -0,0 +1,38 @@
+package com.example.springdartsgame.config;
+
+import com.example.springdartsgame.util.LeagueContext;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This data source routes each connection to the database of the league of the current thread (see
+ * {@link LeagueContext}). The repositories, the transactions and the JDBC queries work unchanged with the database of
+ * the league.
+ */
+public class LeagueRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+    private final Map<String, DataSource> databases;
+
+    public LeagueRoutingDataSource(Map<String, DataSource> databases) {
+        this.databases = Map.copyOf(databases);
+        setTargetDataSources(new HashMap<>(databases));
+        setDefaultTargetDataSource(databases.get(LeagueContext.DEFAULT_LEAGUE));
+        setLenientFallback(false); // A league without a database is an error, not the default league
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return LeagueContext.current();
+    }
+
+    // Closes the connection pools of all leagues on shutdown
+    @Override
+    public void close() throws Exception {
+        for (DataSource database : databases.values()) {
+            if (database instanceof AutoCloseable closeable) closeable.close();
+        }
+    }
+}
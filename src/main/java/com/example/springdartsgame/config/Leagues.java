@@ -0,0 +1,97 @@
+package com.example.springdartsgame.config;
+
+import com.example.springdartsgame.util.LeagueContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class holds the configured leagues. Each league has its own database (a shard), the default league uses the
+ * database of spring.datasource. The ids of a league are taken from its own range (the position of the league times
+ * {@link #ID_RANGE}), so that the ids of games and moves are unique across all leagues.
+ */
+@Component
+public class Leagues {
+    public static final long ID_RANGE = 1L << 40;
+
+    private final List<String> names = new ArrayList<>();
+    private final Map<String, String> playerLeagues = new HashMap<>();
+
+    /**
+     * This constructor reads the leagues and the leagues of the players.
+     *
+     * @param leagues - The leagues besides the default league (new leagues have to be appended, the position of a
+     *                league sets the range of its ids)
+     * @param players - The league of players that don't send a league header, as player:league
+     */
+    public Leagues(@Value("${darts.leagues.names:}") List<String> leagues,
+                   @Value("${darts.leagues.players:}") List<String> players) {
+        names.add(LeagueContext.DEFAULT_LEAGUE);
+        for (String league : leagues) {
+            if (league.isBlank()) continue;
+            if (names.contains(league.trim())) throw new IllegalArgumentException("Duplicate league " + league);
+            names.add(league.trim());
+        }
+        for (String player : players) {
+            if (player.isBlank()) continue;
+            int separator = player.lastIndexOf(':');
+            String league = player.substring(separator + 1).trim();
+            if (separator < 0 || !names.contains(league)) {
+                throw new IllegalArgumentException("Unknown league of player " + player);
+            }
+            playerLeagues.put(player.substring(0, separator).trim(), league);
+        }
+    }
+
+    /**
+     * This method returns the names of all leagues, the default league first.
+     *
+     * @return - The names
+     */
+    public List<String> names() {
+        return List.copyOf(names);
+    }
+
+    public boolean contains(String league) {
+        return names.contains(league);
+    }
+
+    /**
+     * This method returns the league of a player.
+     *
+     * @param player - The name of the player
+     * @return - The league of the player, the default league if the player isn't assigned to a league
+     */
+    public String leagueOf(String player) {
+        return playerLeagues.getOrDefault(player, LeagueContext.DEFAULT_LEAGUE);
+    }
+
+    /**
+     * This method returns the lowest id of a league.
+     *
+     * @param league - The name of the league
+     * @return - The id
+     */
+    public long firstId(String league) {
+        return Math.max(1, names.indexOf(league) * ID_RANGE);
+    }
+
+    public long lastId(String league) {
+        return (names.indexOf(league) + 1) * ID_RANGE - 1;
+    }
+
+    /**
+     * This method checks if an id was taken from the range of a league.
+     *
+     * @param league - The name of the league
+     * @param id     - The id of a game or move
+     * @return - True if the id belongs to the league
+     */
+    public boolean ownsId(String league, long id) {
+        return names.contains(league) && id >= firstId(league) && id <= lastId(league);
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.springdartsgame.config;
+
+import com.example.springdartsgame.model.MoveStoreStatistics;
+import com.example.springdartsgame.persistence.MappedMoveStore;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * This actuator endpoint returns the statistics of the memory-mapped move store with a GET request to
+ * {@code /actuator/movestore}. A POST request compacts the store. It only exists with {@code darts.move-store=mapped}.
+ */
+@Component
+@Endpoint(id = "movestore")
+@ConditionalOnProperty(name = "darts.move-store", havingValue = "mapped")
+public class MoveStoreEndpoint {
+    private final MappedMoveStore moveStore;
+
+    public MoveStoreEndpoint(MappedMoveStore moveStore) {
+        this.moveStore = moveStore;
+    }
+
+    @ReadOperation
+    public MoveStoreStatistics statistics() {
+        return moveStore.statistics();
+    }
+
+    @WriteOperation
+    public MoveStoreStatistics compact() {
+        return moveStore.compact();
+    }
+}
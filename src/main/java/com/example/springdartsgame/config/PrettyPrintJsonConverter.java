@@ -0,0 +1,41 @@
+package com.example.springdartsgame.config;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.util.MimeType;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * This converter writes compact JSON by default. Clients that want a human-readable response (e.g. when debugging
+ * with Postman) can request pretty printing with the query parameter {@code ?pretty=true}.
+ */
+public class PrettyPrintJsonConverter extends MappingJackson2HttpMessageConverter {
+    public static final String PRETTY_PARAMETER = "pretty";
+
+    public PrettyPrintJsonConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected ObjectWriter customizeWriter(ObjectWriter writer, MimeType mimeType, JavaType javaType) {
+        return isPrettyPrintRequested() ? writer.withDefaultPrettyPrinter() : writer;
+    }
+
+    /**
+     * This method checks if the current request asks for a pretty printed response.
+     *
+     * @return - True if the request contains the pretty parameter (and it is not "false"), false otherwise
+     */
+    public static boolean isPrettyPrintRequested() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            String pretty = servletAttributes.getRequest().getParameter(PRETTY_PARAMETER);
+            return pretty != null && !"false".equalsIgnoreCase(pretty);
+        }
+        return false;
+    }
+}
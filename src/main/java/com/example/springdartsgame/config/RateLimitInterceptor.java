@@ -0,0 +1,49 @@
+package com.example.springdartsgame.config;
+
+import com.example.springdartsgame.model.Result;
+import com.example.springdartsgame.service.RateLimitService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.security.Principal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This interceptor applies the rate limit of an endpoint class to the authenticated player. If the bucket of the
+ * player is empty, the request is rejected with 429 (Too Many Requests) and a Retry-After header.
+ */
+public class RateLimitInterceptor implements HandlerInterceptor {
+    private final RateLimitService rateLimitService;
+    private final RateLimitService.EndpointClass endpointClass;
+    private final ObjectMapper objectMapper;
+
+    public RateLimitInterceptor(RateLimitService rateLimitService, RateLimitService.EndpointClass endpointClass,
+                                ObjectMapper objectMapper) {
+        this.rateLimitService = rateLimitService;
+        this.endpointClass = endpointClass;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        Principal principal = request.getUserPrincipal();
+        if (principal == null) return true; // Nothing to limit, the security configuration decides
+
+        long waitNanos = rateLimitService.tryAcquire(principal.getName(), endpointClass);
+        if (waitNanos == 0) return true;
+
+        long retryAfterSeconds = TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1;
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new Result("Too many requests!"));
+        return false;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.springdartsgame.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * This configuration counts the SQL statements of the application by wrapping the data source.
+ */
+@Configuration
+public class SqlStatementConfiguration {
+
+    // Static, so that the post processor doesn't initialize this configuration early
+    @Bean
+    public static SqlStatementStatistics sqlStatementStatistics() {
+        return new SqlStatementStatistics();
+    }
+
+    @Bean
+    public static BeanPostProcessor statementCountingDataSourcePostProcessor(SqlStatementStatistics statistics) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource && !(bean instanceof StatementCountingDataSource)
+                        ? new StatementCountingDataSource(dataSource, statistics)
+                        : bean;
+            }
+        };
+    }
+}
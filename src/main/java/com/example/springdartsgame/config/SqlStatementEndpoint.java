@@ -0,0 +1,32 @@
+package com.example.springdartsgame.config;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * This actuator endpoint shows the SQL statements per API endpoint at {@code /actuator/sqlstatements}. A DELETE
+ * request clears the statistics.
+ */
+@Component
+@Endpoint(id = "sqlstatements")
+public class SqlStatementEndpoint {
+    private final SqlStatementStatistics statistics;
+
+    public SqlStatementEndpoint(SqlStatementStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    @ReadOperation
+    public Map<String, SqlStatementStatistics.Summary> statements() {
+        return statistics.summaries();
+    }
+
+    @DeleteOperation
+    public void reset() {
+        statistics.reset();
+    }
+}
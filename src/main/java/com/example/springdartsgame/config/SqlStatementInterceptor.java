@@ -0,0 +1,32 @@
+package com.example.springdartsgame.config;
+
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * This interceptor adds the SQL statements executed during a request to the statistics of its endpoint. The endpoint
+ * is the HTTP method and the matched path pattern, e.g. "GET /api/history/{gameId}".
+ */
+public class SqlStatementInterceptor implements HandlerInterceptor {
+    private final SqlStatementStatistics statistics;
+
+    public SqlStatementInterceptor(SqlStatementStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        statistics.startCounting();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        statistics.finish(request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI()));
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.springdartsgame.config;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class keeps track of the SQL statements executed by the application. The statements of the current thread are
+ * counted (and timed) by {@link StatementCountingDataSource}. At the end of a request the count is added to the
+ * statistics of its endpoint by {@link SqlStatementInterceptor}.
+ */
+public class SqlStatementStatistics {
+    // Statements and nanoseconds spent executing them on the current thread
+    private static final ThreadLocal<long[]> CURRENT = ThreadLocal.withInitial(() -> new long[2]);
+
+    private final Map<String, EndpointCounters> endpoints = new ConcurrentHashMap<>();
+
+    /**
+     * The statistics of an endpoint.
+     *
+     * @param requests             - The number of requests
+     * @param statements           - The number of statements of all requests
+     * @param maxStatements        - The highest number of statements of a single request
+     * @param statementsPerRequest - The average number of statements per request
+     * @param millis               - The time spent executing the statements of all requests
+     * @param millisPerRequest     - The average time spent executing statements per request
+     */
+    public record Summary(long requests, long statements, long maxStatements, double statementsPerRequest,
+                          double millis, double millisPerRequest) {
+    }
+
+    private static final class EndpointCounters {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final AtomicLong maxStatements = new AtomicLong();
+
+        private Summary summary() {
+            long count = requests.sum();
+            long total = statements.sum();
+            double millis = nanos.sum() / (double) TimeUnit.MILLISECONDS.toNanos(1);
+            return new Summary(count, total, maxStatements.get(),
+                    count == 0 ? 0 : total / (double) count, millis, count == 0 ? 0 : millis / count);
+        }
+    }
+
+    /**
+     * This method records a statement executed on the current thread.
+     *
+     * @param nanos - The time it took to execute the statement
+     */
+    public void record(long nanos) {
+        long[] current = CURRENT.get();
+        current[0]++;
+        current[1] += nanos;
+    }
+
+    /**
+     * This method starts counting the statements of the current thread from zero.
+     */
+    public void startCounting() {
+        long[] current = CURRENT.get();
+        current[0] = 0;
+        current[1] = 0;
+    }
+
+    /**
+     * This method returns the number of statements executed on the current thread since counting started.
+     *
+     * @return - The number of statements
+     */
+    public long currentStatements() {
+        return CURRENT.get()[0];
+    }
+
+    /**
+     * This method adds the statements of the current thread to the statistics of an endpoint.
+     *
+     * @param endpoint - The endpoint, e.g. "POST /api/game/throws"
+     */
+    public void finish(String endpoint) {
+        long[] current = CURRENT.get();
+        EndpointCounters counters = endpoints.computeIfAbsent(endpoint, e -> new EndpointCounters());
+        counters.requests.increment();
+        counters.statements.add(current[0]);
+        counters.nanos.add(current[1]);
+        counters.maxStatements.accumulateAndGet(current[0], Math::max);
+        startCounting();
+    }
+
+    /**
+     * This method returns the statistics of all endpoints.
+     *
+     * @return - The statistics by endpoint, sorted by endpoint
+     */
+    public Map<String, Summary> summaries() {
+        Map<String, Summary> summaries = new TreeMap<>();
+        endpoints.forEach((endpoint, counters) -> summaries.put(endpoint, counters.summary()));
+        return summaries;
+    }
+
+    /**
+     * This method clears the statistics of all endpoints.
+     */
+    public void reset() {
+        endpoints.clear();
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.springdartsgame.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * This data source counts and times the statements executed through its connections. Every execution is one round
+ * trip to the database, so a batch counts as a single statement.
+ */
+public class StatementCountingDataSource extends DelegatingDataSource implements AutoCloseable {
+    private final SqlStatementStatistics statistics;
+
+    public StatementCountingDataSource(DataSource target, SqlStatementStatistics statistics) {
+        super(target);
+        this.statistics = statistics;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy(Connection.class, super.getConnection(), this::invokeOnConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxy(Connection.class, super.getConnection(username, password), this::invokeOnConnection);
+    }
+
+    // Closes the connection pool on shutdown (the destroy method of the data source bean is inferred from close)
+    @Override
+    public void close() throws Exception {
+        if (obtainTargetDataSource() instanceof AutoCloseable closeable) closeable.close();
+    }
+
+    private Object invokeOnConnection(Object connection, Method method, Object[] args) throws Throwable {
+        Object result = invoke(connection, method, args);
+        return switch (method.getName()) {
+            case "createStatement" -> proxy(Statement.class, (Statement) result, this::invokeOnStatement);
+            case "prepareStatement" -> proxy(PreparedStatement.class, (PreparedStatement) result, this::invokeOnStatement);
+            case "prepareCall" -> proxy(CallableStatement.class, (CallableStatement) result, this::invokeOnStatement);
+            default -> result;
+        };
+    }
+
+    private Object invokeOnStatement(Object statement, Method method, Object[] args) throws Throwable {
+        if (!method.getName().startsWith("execute")) return invoke(statement, method, args);
+
+        long start = System.nanoTime();
+        try {
+            return invoke(statement, method, args);
+        } finally {
+            statistics.record(System.nanoTime() - start);
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private interface Invocation {
+        Object invoke(Object target, Method method, Object[] args) throws Throwable;
+    }
+
+    private static <T> T proxy(Class<T> type, T target, Invocation invocation) {
+        InvocationHandler handler = (proxy, method, args) -> switch (method.getName()) {
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "unwrap" -> ((Class<?>) args[0]).isInstance(proxy) ? proxy : invoke(target, method, args);
+            default -> invocation.invoke(target, method, args);
+        };
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.springdartsgame.config;
+
+import com.example.springdartsgame.service.RateLimitService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * This configuration sets up the wire formats of the API. JSON stays the default (compact unless requested
+ * otherwise), CBOR is available for clients that send {@code Accept: application/cbor}. It also registers the rate
+ * limits per endpoint class, the SQL statement statistics per endpoint and the league of each request.
+ */
+@Configuration
+public class WebConfiguration implements WebMvcConfigurer {
+    private final Jackson2ObjectMapperBuilder objectMapperBuilder;
+    private final RateLimitService rateLimitService;
+    private final ObjectMapper objectMapper;
+    private final SqlStatementStatistics sqlStatementStatistics;
+    private final Leagues leagues;
+
+    public WebConfiguration(Jackson2ObjectMapperBuilder objectMapperBuilder, RateLimitService rateLimitService,
+                            ObjectMapper objectMapper, SqlStatementStatistics sqlStatementStatistics,
+                            Leagues leagues) {
+        this.objectMapperBuilder = objectMapperBuilder;
+        this.rateLimitService = rateLimitService;
+        this.objectMapper = objectMapper;
+        this.sqlStatementStatistics = sqlStatementStatistics;
+        this.leagues = leagues;
+    }
+
+    // Replaces the default JSON converter of Spring Boot (same position in the converter list)
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter() {
+        return new PrettyPrintJsonConverter(objectMapper);
+    }
+
+    // Replaces the default CBOR converter of Spring MVC with one that uses the mapper customised by Spring Boot. It
+    // keeps its position after JSON, so that clients accepting */* still get JSON.
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        ObjectMapper cborMapper = objectMapperBuilder.factory(new CBORFactory()).build();
+        HttpMessageConverter<?> cbor = new MappingJackson2CborHttpMessageConverter(cborMapper);
+        converters.replaceAll(
+                converter -> converter instanceof MappingJackson2CborHttpMessageConverter ? cbor : converter);
+        if (!converters.contains(cbor)) converters.add(cbor);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // The league has to be known before the first statement
+        registry.addInterceptor(new LeagueInterceptor(leagues, objectMapper))
+                .addPathPatterns("/api/**");
+        // Registered first, so that requests rejected by the rate limits are counted as well
+        registry.addInterceptor(new SqlStatementInterceptor(sqlStatementStatistics))
+                .addPathPatterns("/api/**");
+        registry.addInterceptor(rateLimit(RateLimitService.EndpointClass.READ))
+                .addPathPatterns("/api/game/status", "/api/game/list", "/api/history/**", "/api/player/**");
+        registry.addInterceptor(rateLimit(RateLimitService.EndpointClass.THROWS))
+                .addPathPatterns("/api/game/throws", "/api/game/dart");
+        registry.addInterceptor(rateLimit(RateLimitService.EndpointClass.REFEREE))
+                .addPathPatterns("/api/game/cancel", "/api/game/revert", "/api/game/redo");
+    }
+
+    private RateLimitInterceptor rateLimit(RateLimitService.EndpointClass endpointClass) {
+        return new RateLimitInterceptor(rateLimitService, endpointClass, objectMapper);
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.springdartsgame.controller;
+
+import com.example.springdartsgame.model.GameStatus;
+import com.example.springdartsgame.service.ExportService;
+import com.example.springdartsgame.util.GameValidator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/export")
+@SuppressWarnings("unused")
+public class ExportController {
+    private static final String NDJSON = "application/x-ndjson";
+
+    @Autowired
+    private ExportService exportService;
+    @Autowired
+    private GameValidator gameValidator;
+
+    /**
+     * This method allows referees and admins to export all games as newline-delimited JSON. The games are streamed
+     * straight to the response.
+     *
+     * @param fromId   - The lowest game id (optional)
+     * @param toId     - The highest game id (optional)
+     * @param status   - The status of the games, e.g. USER_WINS (optional)
+     * @param response - The response the games are written to
+     * @return - An error response, or null if the games have been written to the response
+     */
+    @GetMapping("/games")
+    public ResponseEntity<?> exportGames(@RequestParam(defaultValue = "0") long fromId,
+                                         @RequestParam(defaultValue = "" + Long.MAX_VALUE) long toId,
+                                         @RequestParam(required = false) String status,
+                                         HttpServletResponse response) throws IOException {
+        var invalidStatus = gameValidator.validateExportStatus(status);
+        if (invalidStatus != null) return invalidStatus;
+
+        response.setContentType(NDJSON);
+        GameStatus gameStatus = status == null ? null : GameStatus.valueOf(status);
+        exportService.exportGames(fromId, toId, gameStatus, response.getOutputStream());
+        return null; // The games have been written to the response
+    }
+
+    /**
+     * This method allows referees and admins to export the moves of all games as newline-delimited JSON. The moves
+     * are streamed straight to the response.
+     *
+     * @param fromId   - The lowest game id (optional)
+     * @param toId     - The highest game id (optional)
+     * @param status   - The status of the games, e.g. USER_WINS (optional)
+     * @param response - The response the moves are written to
+     * @return - An error response, or null if the moves have been written to the response
+     */
+    @GetMapping("/moves")
+    public ResponseEntity<?> exportMoves(@RequestParam(defaultValue = "0") long fromId,
+                                         @RequestParam(defaultValue = "" + Long.MAX_VALUE) long toId,
+                                         @RequestParam(required = false) String status,
+                                         HttpServletResponse response) throws IOException {
+        var invalidStatus = gameValidator.validateExportStatus(status);
+        if (invalidStatus != null) return invalidStatus;
+
+        response.setContentType(NDJSON);
+        GameStatus gameStatus = status == null ? null : GameStatus.valueOf(status);
+        exportService.exportMoves(fromId, toId, gameStatus, response.getOutputStream());
+        return null; // The moves have been written to the response
+    }
+}
@@ -1,13 +1,19 @@
 package com.example.springdartsgame.controller;
 
+import com.example.springdartsgame.model.Dart;
 import com.example.springdartsgame.model.Score;
 import com.example.springdartsgame.model.Throws;
+import com.example.springdartsgame.service.DartService;
 import com.example.springdartsgame.service.GameService;
+import com.example.springdartsgame.service.IdempotencyService;
+import com.example.springdartsgame.service.PlayerGameService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Instant;
+
 @RestController
 @RequestMapping("/api")
 @SuppressWarnings("unused")
@@ -15,6 +21,12 @@ public class GameController {
 
     @Autowired
     private GameService gameService;
+    @Autowired
+    private IdempotencyService idempotencyService;
+    @Autowired
+    private DartService dartService;
+    @Autowired
+    private PlayerGameService playerGameService;
 
     /**
      * Users can create a game, view the current game status, view games and join a game. There are the following
@@ -25,11 +37,16 @@ public class GameController {
      *
      * @param authentication - The authentication object from the Spring Security
      * @param targetScore    - The target score for the game
+     * @param idempotencyKey - The optional key that makes retries of the request safe
      * @return - the ResponseEntity object (in this case the Game pojo as JSON)
      */
     @PostMapping("/game/create")
-    public ResponseEntity<?> createGame(Authentication authentication, @RequestBody Score targetScore) {
-        return gameService.createGame(authentication.getName(), targetScore.targetScore());
+    public ResponseEntity<?> createGame(Authentication authentication, @RequestBody Score targetScore,
+                                        @RequestHeader(value = IdempotencyService.HEADER, required = false)
+                                        String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey, "create " + authentication.getName(), targetScore,
+                () -> gameService.createGame(authentication.getName(), targetScore.targetScore(),
+                        targetScore.variant()));
     }
 
     /**
@@ -48,11 +65,15 @@ public class GameController {
      *
      * @param authentication - The authentication object from the Spring Security
      * @param gameId         - The id of the game to join
+     * @param idempotencyKey - The optional key that makes retries of the request safe
      * @return - The ResponseEntity object (in this case the Game pojo as JSON)
      */
     @GetMapping("/game/join/{gameId}")
-    public ResponseEntity<?> joinGame(Authentication authentication, @PathVariable long gameId) {
-        return gameService.joinGame(authentication.getName(), gameId);
+    public ResponseEntity<?> joinGame(Authentication authentication, @PathVariable long gameId,
+                                      @RequestHeader(value = IdempotencyService.HEADER, required = false)
+                                      String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey, "join " + authentication.getName(), gameId,
+                () -> gameService.joinGame(authentication.getName(), gameId));
     }
 
     /**
@@ -73,21 +94,75 @@ public class GameController {
      * This method allows players to throw darts.
      *
      * @param authentication - The authentication object from the Spring Security
+     * @param throwsInfo     - The three darts of the throw
+     * @param idempotencyKey - The optional key that makes retries of the request safe
      * @return - The ResponseEntity object (in this case the Game pojo as JSON)
      */
     @PostMapping("/game/throws")
-    public ResponseEntity<?> setThrows(Authentication authentication, @RequestBody Throws throwsInfo) {
-        return gameService.setThrows(authentication.getName(), throwsInfo);
+    public ResponseEntity<?> setThrows(Authentication authentication, @RequestBody Throws throwsInfo,
+                                       @RequestHeader(value = IdempotencyService.HEADER, required = false)
+                                       String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey, "throws " + authentication.getName(), throwsInfo,
+                () -> gameService.setThrows(authentication.getName(), throwsInfo));
     }
 
     /**
-     * This method returns the history for a game with the given id.
+     * This method allows electronic boards to send the darts of a player one by one. The visit is committed like a
+     * throw when the third dart lands, on a bust or on a checkout.
+     *
+     * @param authentication - The authentication object from the Spring Security
+     * @param dart           - The dart
+     * @param idempotencyKey - The optional key that makes retries of the request safe
+     * @return - The ResponseEntity object (the progress of the visit, or the Game pojo once the visit is committed)
+     */
+    @PostMapping("/game/dart")
+    public ResponseEntity<?> throwDart(Authentication authentication, @RequestBody Dart dart,
+                                       @RequestHeader(value = IdempotencyService.HEADER, required = false)
+                                       String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey, "dart " + authentication.getName(), dart,
+                () -> dartService.throwDart(authentication.getName(), dart.dart()));
+    }
+
+    /**
+     * This method returns the history for a game with the given id, or a range of it.
      *
      * @param gameId - The id of the game
+     * @param from   - The first move (optional)
+     * @param to     - The last move (optional)
+     * @param limit  - The maximum number of moves (optional)
      * @return - The ResponseEntity object (in this case the Game pojo as JSON)
      */
     @GetMapping("/history/{gameId}")
-    public ResponseEntity<?> getGameHistory(@PathVariable String gameId) {
-        return gameService.getGameHistory(gameId);
+    public ResponseEntity<?> getGameHistory(@PathVariable String gameId,
+                                            @RequestParam(defaultValue = "0") int from,
+                                            @RequestParam(required = false) Integer to,
+                                            @RequestParam(required = false) Integer limit) {
+        return gameService.getGameHistory(gameId, from, to, limit);
+    }
+
+    /**
+     * This method returns the games of a player, newest first, a page at a time. The next page starts below the
+     * nextBefore of the page.
+     *
+     * @param name        - The name of the player
+     * @param before      - The page starts below this game id (optional)
+     * @param limit       - The maximum number of games (optional)
+     * @param opponent    - The opponent (optional)
+     * @param status      - The status of the games, e.g. USER_WINS (optional)
+     * @param targetScore - The target score of the games (optional)
+     * @param from        - The games created at or after this time, e.g. 2024-01-01T00:00:00Z (optional)
+     * @param to          - The games created before this time (optional)
+     * @return - The ResponseEntity object (in this case the page of games as JSON)
+     */
+    @GetMapping("/player/{name}/games")
+    public ResponseEntity<?> getPlayerGames(@PathVariable String name,
+                                            @RequestParam(defaultValue = "" + Long.MAX_VALUE) long before,
+                                            @RequestParam(defaultValue = "20") int limit,
+                                            @RequestParam(required = false) String opponent,
+                                            @RequestParam(required = false) String status,
+                                            @RequestParam(required = false) Integer targetScore,
+                                            @RequestParam(required = false) Instant from,
+                                            @RequestParam(required = false) Instant to) {
+        return playerGameService.getPlayerGames(name, before, limit, opponent, status, targetScore, from, to);
     }
 }
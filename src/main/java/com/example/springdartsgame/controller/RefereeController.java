@@ -1,5 +1,6 @@
 package com.example.springdartsgame.controller;
 
+import com.example.springdartsgame.model.Redo;
 import com.example.springdartsgame.model.Revert;
 import com.example.springdartsgame.model.Update;
 import com.example.springdartsgame.service.GameService;
@@ -39,4 +40,15 @@ public class RefereeController {
     private ResponseEntity<?> revertGameToMove(@RequestBody Revert gameRevert) {
         return gameService.revertGame(gameRevert);
     }
+
+    /**
+     * This method allows a referee to undo a revert of a specific game (one move at a time).
+     *
+     * @param gameRedo - The game redo object
+     * @return - The ResponseEntity object
+     */
+    @PutMapping("/redo")
+    public ResponseEntity<?> redoGame(@RequestBody Redo gameRedo) {
+        return gameService.redoGame(gameRedo);
+    }
 }
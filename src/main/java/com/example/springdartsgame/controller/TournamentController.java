@@ -0,0 +1,51 @@
+package com.example.springdartsgame.controller;
+
+import com.example.springdartsgame.model.NewTournament;
+import com.example.springdartsgame.service.TournamentService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/tournament")
+@SuppressWarnings("unused")
+public class TournamentController {
+
+    @Autowired
+    private TournamentService tournamentService;
+
+    /**
+     * This method allows referees and admins to create a knockout tournament. The games of the first round are
+     * created right away, the games of the next rounds as soon as their players are known.
+     *
+     * @param newTournament - The tournament including the seeded entrants
+     * @return - The ResponseEntity object (in this case the tournament with its matches as JSON)
+     */
+    @PostMapping("/create")
+    public ResponseEntity<?> createTournament(@RequestBody NewTournament newTournament) {
+        return tournamentService.createTournament(newTournament);
+    }
+
+    /**
+     * This method returns a tournament with all of its matches.
+     *
+     * @param tournamentId - The id of the tournament
+     * @return - The ResponseEntity object (in this case the tournament with its matches as JSON)
+     */
+    @GetMapping("/{tournamentId}")
+    public ResponseEntity<?> getTournament(@PathVariable long tournamentId) {
+        return tournamentService.getTournament(tournamentId);
+    }
+
+    /**
+     * This method returns a single match of a tournament.
+     *
+     * @param tournamentId - The id of the tournament
+     * @param match        - The number of the match (1 is the final)
+     * @return - The ResponseEntity object (in this case the match as JSON)
+     */
+    @GetMapping("/{tournamentId}/match/{match}")
+    public ResponseEntity<?> getMatch(@PathVariable long tournamentId, @PathVariable int match) {
+        return tournamentService.getMatch(tournamentId, match);
+    }
+}
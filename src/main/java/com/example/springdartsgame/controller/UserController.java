@@ -0,0 +1,29 @@
+package com.example.springdartsgame.controller;
+
+import com.example.springdartsgame.model.NewUser;
+import com.example.springdartsgame.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/users")
+@SuppressWarnings("unused")
+public class UserController {
+
+    @Autowired
+    private UserService userService;
+
+    /**
+     * This method allows admins to create or update many users at once.
+     *
+     * @param users - The users with their passwords and roles
+     * @return - The ResponseEntity object (in this case the number of provisioned users as JSON)
+     */
+    @PostMapping("/provision")
+    public ResponseEntity<?> provisionUsers(@RequestBody List<NewUser> users) {
+        return userService.provisionUsers(users);
+    }
+}
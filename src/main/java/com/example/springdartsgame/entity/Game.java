@@ -1,14 +1,20 @@
 package com.example.springdartsgame.entity;
 
 import com.example.springdartsgame.model.GameStatus;
+import com.example.springdartsgame.model.GameVariant;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
+import java.time.Instant;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "game")
 @Table(name = "game")
 @NoArgsConstructor
 @AllArgsConstructor
@@ -36,4 +42,46 @@ public class Game {
 
     @Column
     private String turn; // Can be "playerOne" or "playerTwo"
+
+    @Column
+    private String winner; // The player that won the game (by checking out or by a referee), null otherwise
+
+    @Enumerated(EnumType.STRING)
+    private GameVariant variant; // The rules of the game, null is the default variant (double-out)
+
+    @Column(columnDefinition = "integer default 0")
+    private int targetScore; // Only 101, 301 or 501 are allowed
+
+    @Column(columnDefinition = "integer default -1")
+    private int headMove; // The move the game currently is at (-1 if there are no moves yet)
+
+    @Column(columnDefinition = "integer default -1")
+    private int latestMove; // The latest move of the active branch, moves up to it can be restored with a redo
+
+    @Column(columnDefinition = "integer default 0")
+    private int revision; // Counts the branches of the game, a new branch starts with throws after a revert
+
+    @Version
+    @Column(columnDefinition = "integer default 0")
+    private int version; // Detects a game that was changed after it was read
+
+    @Column
+    private Instant createdAt; // Null for games created before the creation time was recorded
+
+    @Column
+    private Instant finishedAt; // The time the game was won or cancelled, null while it is played
+
+    @PrePersist
+    private void onCreate() {
+        if (createdAt == null) createdAt = Instant.now();
+        onUpdate();
+    }
+
+    // Runs on every path that finishes a game (throws, visits, forfeits, referees), a redo can finish it again
+    @PreUpdate
+    private void onUpdate() {
+        boolean finished = gameStatus == GameStatus.USER_WINS || gameStatus == GameStatus.NOBODY_WINS;
+        if (!finished) finishedAt = null;
+        else if (finishedAt == null) finishedAt = Instant.now();
+    }
 }
@@ -0,0 +1,57 @@
+package com.example.springdartsgame.entity;
+
+import com.example.springdartsgame.model.GameStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * The participation of a player in a game, one row per player and game. It indexes the games of a player, so that
+ * they are found without scanning the games for both players, also by opponent, target score, status and creation
+ * time. The rows are written with the games (see {@link com.example.springdartsgame.persistence.PlayerGameIndex}).
+ */
+@Entity
+@Table(name = "game_player",
+        indexes = {
+                @Index(name = "idx_game_player_status", columnList = "player, status, gameId desc"),
+                @Index(name = "idx_game_player_latest", columnList = "player, gameId desc"),
+                @Index(name = "idx_game_player_opponent", columnList = "player, opponent, gameId desc"),
+                @Index(name = "idx_game_player_target", columnList = "player, targetScore, gameId desc"),
+                @Index(name = "idx_game_player_created", columnList = "player, createdAt")})
+@IdClass(GamePlayer.Key.class)
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class GamePlayer {
+    @Id
+    private long gameId;
+
+    @Id
+    private String player;
+
+    @Column
+    private String opponent; // Null until the opponent joins
+
+    @Column
+    private Instant createdAt; // The creation time of the game
+
+    @Column(columnDefinition = "integer default 0")
+    private int targetScore; // The target score of the game
+
+    @Enumerated(EnumType.STRING)
+    private GameStatus status; // The status of the game, the games that aren't won are the unfinished games of a player
+
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Data
+    public static class Key implements Serializable {
+        private long gameId;
+        private String player;
+    }
+}
@@ -4,11 +4,17 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 
 @Entity
-@Table(name = "game_move")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "move")
+@Table(name = "game_move",
+        indexes = @Index(name = "idx_game_move_active", columnList = "gameId, superseded, move"),
+        uniqueConstraints = @UniqueConstraint(name = "uk_game_move", columnNames = {"gameId", "move", "revision"}))
 @NoArgsConstructor
 @AllArgsConstructor
 @Data
@@ -41,4 +47,10 @@ public class Move {
 
     @Column
     private String turn;
+
+    @Column(columnDefinition = "boolean default false")
+    private boolean superseded; // Set when new throws branch from an earlier move of the game
+
+    @Column(columnDefinition = "integer default 0")
+    private int revision; // The branch of the game the move was made on, a move number is unique per branch
 }
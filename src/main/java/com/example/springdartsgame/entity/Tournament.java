@@ -0,0 +1,43 @@
+package com.example.springdartsgame.entity;
+
+import com.example.springdartsgame.model.GameVariant;
+import com.example.springdartsgame.model.TournamentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+
+@Entity
+@Table(name = "tournament")
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class Tournament {
+    @Id
+    @GeneratedValue
+    private Long id; // Auto-generated
+
+    @Column
+    private String name;
+
+    @Enumerated(EnumType.STRING)
+    private TournamentStatus status;
+
+    @Column
+    private int entrants; // The number of players
+
+    @Column
+    private int bracketSize; // The number of places in the first round (a power of two), byes fill the empty places
+
+    @Enumerated(EnumType.STRING)
+    private GameVariant variant; // The rules of all games
+
+    @Column
+    private int targetScore; // The target score of all games
+
+    @Column
+    private String winner; // The winner of the final, null while the tournament is running
+}
@@ -0,0 +1,43 @@
+package com.example.springdartsgame.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+
+@Entity
+@Table(name = "tournament_match",
+        indexes = @Index(name = "idx_tournament_match_game", columnList = "gameId"),
+        uniqueConstraints = @UniqueConstraint(name = "uk_tournament_match", columnNames = {"tournamentId", "slot"}))
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class TournamentMatch {
+    @Id
+    @GeneratedValue
+    private long id;
+
+    @Column
+    private long tournamentId;
+
+    @Column
+    private int slot; // The position in the bracket: 1 is the final, the winners of 2 * slot and 2 * slot + 1 meet here
+
+    @Column
+    private int roundNumber; // 1 is the first round
+
+    @Column
+    private Long gameId; // Null until both players are known (and for a bye)
+
+    @Column
+    private String playerOne; // The winner of the match 2 * slot (the better seed in the first round)
+
+    @Column
+    private String playerTwo; // The winner of the match 2 * slot + 1, null for a bye in the first round
+
+    @Column
+    private String winner;
+}
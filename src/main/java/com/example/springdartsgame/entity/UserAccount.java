@@ -0,0 +1,27 @@
+package com.example.springdartsgame.entity;
+
+import com.example.springdartsgame.model.Role;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+
+@Entity
+@Table(name = "user_account")
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class UserAccount {
+    @Id
+    private String username;
+
+    @Column(nullable = false)
+    private String password; // Encoded, with the prefix of the encoder (e.g. {bcrypt})
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Role role;
+}
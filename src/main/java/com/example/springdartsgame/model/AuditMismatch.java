@@ -0,0 +1,11 @@
+package com.example.springdartsgame.model;
+
+/**
+ * A difference between a game and the replay of its moves.
+ *
+ * @param gameId  - The id of the game
+ * @param move    - The move, -1 for the game row itself
+ * @param problem - The description of the difference
+ */
+public record AuditMismatch(long gameId, int move, String problem) {
+}
@@ -0,0 +1,19 @@
+package com.example.springdartsgame.model;
+
+import java.util.List;
+
+/**
+ * The result of an audit of all games.
+ *
+ * @param games          - The number of audited games
+ * @param moves          - The number of replayed moves
+ * @param mismatchCount  - The number of mismatches found
+ * @param mismatches     - The mismatches (limited to darts.audit.max-mismatches)
+ * @param millis         - The duration of the audit
+ * @param gamesPerSecond - The throughput in games
+ * @param movesPerSecond - The throughput in moves
+ * @param parallelism    - The number of threads used
+ */
+public record AuditReport(long games, long moves, long mismatchCount, List<AuditMismatch> mismatches, long millis,
+                          double gamesPerSecond, double movesPerSecond, int parallelism) {
+}
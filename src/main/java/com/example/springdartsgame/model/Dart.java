@@ -0,0 +1,9 @@
+package com.example.springdartsgame.model;
+
+/**
+ * A single dart of an electronic board.
+ *
+ * @param dart - The dart as "multiplier:sector" (e.g. "3:20", "1:0" for a miss)
+ */
+public record Dart(String dart) {
+}
@@ -0,0 +1,13 @@
+package com.example.springdartsgame.model;
+
+import java.util.List;
+
+/**
+ * The progress of a visit that isn't complete yet.
+ *
+ * @param gameId         - The id of the game
+ * @param darts          - The darts of the visit so far
+ * @param remainingScore - The remaining score of the player after these darts
+ */
+public record DartProgress(long gameId, List<String> darts, int remainingScore) {
+}
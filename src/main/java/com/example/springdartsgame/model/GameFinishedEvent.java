@@ -0,0 +1,11 @@
+package com.example.springdartsgame.model;
+
+/**
+ * This event is published when a game ends: a player wins it (by checking out or by a decision of a referee) or a
+ * referee decides that nobody wins.
+ *
+ * @param gameId - The id of the game
+ * @param winner - The name of the winner, null if nobody wins
+ */
+public record GameFinishedEvent(long gameId, String winner) {
+}
@@ -0,0 +1,30 @@
+package com.example.springdartsgame.model;
+
+import lombok.RequiredArgsConstructor;
+
+import java.util.Arrays;
+
+@RequiredArgsConstructor
+public enum GameVariant {
+    DOUBLE_OUT("double-out", false, new int[]{2}),
+    STRAIGHT_OUT("straight-out", false, new int[]{1, 2, 3}),
+    MASTER_OUT("master-out", false, new int[]{2, 3}),
+    DOUBLE_IN("double-in", true, new int[]{2}); // Double in, double out
+
+    public final String variant;
+    public final boolean doubleIn; // The first scoring dart of a player has to be a double
+    private final int[] checkoutMultipliers; // The multipliers that are allowed for the last dart
+
+    public boolean isCheckout(int multiplier) {
+        return Arrays.stream(checkoutMultipliers).anyMatch(m -> m == multiplier);
+    }
+
+    // The lowest remaining score that can still be checked out with a single dart
+    public int minimumCheckout() {
+        return isCheckout(1) ? 1 : 2;
+    }
+
+    public static GameVariant fromVariant(String variant) {
+        return Arrays.stream(values()).filter(v -> v.variant.equals(variant)).findFirst().orElse(null);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.springdartsgame.model;
+
+/**
+ * The state of the memory-mapped move store.
+ *
+ * @param generation  - The generation of the segment files (incremented by every compaction)
+ * @param segments    - The number of segment files
+ * @param records     - The number of records, including superseded moves and supersede markers
+ * @param activeMoves - The number of moves of the active branches
+ * @param games       - The number of games with moves
+ * @param bytes       - The size of the segment files
+ * @param fsyncPolicy - When the appended records are forced to the disk
+ */
+public record MoveStoreStatistics(int generation, int segments, long records, long activeMoves, long games,
+                                  long bytes, String fsyncPolicy) {
+}
@@ -0,0 +1,14 @@
+package com.example.springdartsgame.model;
+
+import java.util.List;
+
+/**
+ * A tournament to create.
+ *
+ * @param name        - The name of the tournament
+ * @param entrants    - The names of the players, the best seed first
+ * @param targetScore - The target score of all games
+ * @param variant     - The rules of all games (null for the default variant)
+ */
+public record NewTournament(String name, List<String> entrants, int targetScore, String variant) {
+}
@@ -0,0 +1,11 @@
+package com.example.springdartsgame.model;
+
+/**
+ * A user to provision.
+ *
+ * @param username - The name of the user (an email address)
+ * @param password - The password in plain text, or a bcrypt hash with the {bcrypt} prefix
+ * @param role     - The role of the user
+ */
+public record NewUser(String username, String password, Role role) {
+}
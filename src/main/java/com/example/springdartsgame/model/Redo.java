@@ -0,0 +1,4 @@
+package com.example.springdartsgame.model;
+
+public record Redo(long gameId) {
+}
@@ -0,0 +1,7 @@
+package com.example.springdartsgame.model;
+
+public enum Role {
+    GAMER, // Plays games
+    REFEREE, // Cancels, reverts and redoes games, creates tournaments
+    ADMIN // Creates tournaments and provisions users
+}
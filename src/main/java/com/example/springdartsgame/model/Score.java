@@ -1,4 +1,4 @@
 package com.example.springdartsgame.model;
 
-public record Score(int targetScore) {
+public record Score(int targetScore, String variant) {
 }
@@ -0,0 +1,16 @@
+package com.example.springdartsgame.model;
+
+/**
+ * The accuracy of a player, used to estimate win probabilities. A dart that misses the aimed segment lands in the
+ * single of the same sector or of a neighbouring sector, a missed double may also miss the board.
+ *
+ * @param trebleAccuracy - The probability to hit an aimed treble
+ * @param doubleAccuracy - The probability to hit an aimed double (or the bull's eye)
+ * @param singleAccuracy - The probability to hit an aimed single
+ */
+public record SkillModel(double trebleAccuracy, double doubleAccuracy, double singleAccuracy) {
+
+    public double accuracy(int multiplier) {
+        return multiplier == 3 ? trebleAccuracy : multiplier == 2 ? doubleAccuracy : singleAccuracy;
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.springdartsgame.model;
+
+public enum ThrowOutcome {
+    SCORED, // The score of the player is reduced, the opponent is next
+    BUST, // The score of the player stays the same, the opponent is next
+    WIN, // The player checked out
+    INVALID // There are darts after a bust or a checkout, the throw is rejected
+}
@@ -0,0 +1,11 @@
+package com.example.springdartsgame.model;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public enum TournamentStatus {
+    RUNNING("running"),
+    FINISHED("finished");
+
+    public final String status;
+}
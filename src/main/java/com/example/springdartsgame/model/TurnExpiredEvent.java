@@ -0,0 +1,12 @@
+package com.example.springdartsgame.model;
+
+/**
+ * This event is published when a player doesn't throw within the time limit of a turn.
+ *
+ * @param gameId  - The id of the game
+ * @param player  - The name of the player whose turn expired
+ * @param version - The version of the game when the turn started (a later version means the turn is over)
+ * @param penalty - The penalty for the player
+ */
+public record TurnExpiredEvent(long gameId, String player, int version, TurnPenalty penalty) {
+}
@@ -0,0 +1,6 @@
+package com.example.springdartsgame.model;
+
+public enum TurnPenalty {
+    SKIP, // The turn passes to the opponent, the score of the player stays the same
+    FORFEIT // The opponent wins the game
+}
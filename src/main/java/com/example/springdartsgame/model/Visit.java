@@ -0,0 +1,12 @@
+package com.example.springdartsgame.model;
+
+/**
+ * A visit that was assembled dart by dart and is committed like a throw.
+ *
+ * @param player  - The player that threw the darts
+ * @param gameId  - The id of the game
+ * @param version - The version of the game when the visit started (the visit is rejected if the game changed)
+ * @param darts   - The darts of the visit, "none" for the darts after a bust or a checkout
+ */
+public record Visit(String player, long gameId, int version, Throws darts) {
+}
@@ -21,4 +21,8 @@ public class GameDTO {
     private int playerTwoScores;
 
     private String turn;
+
+    private String variant;
+
+    private Double winProbability; // The probability that player one wins, null if it can't be estimated
 }
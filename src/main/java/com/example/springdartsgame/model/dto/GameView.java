@@ -0,0 +1,41 @@
+package com.example.springdartsgame.model.dto;
+
+import com.example.springdartsgame.model.GameStatus;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.json.JsonGeneratorImpl;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+import java.io.IOException;
+import java.time.Instant;
+
+/**
+ * This is the pre-rendered view of a game in the read model. Compact JSON responses copy the pre-serialized bytes,
+ * other formats (pretty printed JSON, CBOR) serialize the DTO as usual.
+ *
+ * @param game      - The game as DTO
+ * @param status    - The status of the game (used to index the view)
+ * @param winner    - The winner of the game, null if nobody has won
+ * @param createdAt - The creation time of the game (orders the games of all leagues), null for older games
+ * @param json      - The game as compact JSON
+ */
+public record GameView(GameDTO game, GameStatus status, String winner, Instant createdAt, SerializedString json)
+        implements JsonSerializable {
+
+    @Override
+    public void serialize(JsonGenerator generator, SerializerProvider serializers) throws IOException {
+        if (generator instanceof JsonGeneratorImpl && generator.getPrettyPrinter() == null) {
+            generator.writeRawValue(json);
+        } else {
+            serializers.defaultSerializeValue(game, generator);
+        }
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator generator, SerializerProvider serializers, TypeSerializer typeSerializer)
+            throws IOException {
+        serialize(generator, serializers);
+    }
+}
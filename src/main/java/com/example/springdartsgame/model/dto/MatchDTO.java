@@ -0,0 +1,24 @@
+package com.example.springdartsgame.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+@AllArgsConstructor
+@Data
+@Builder
+public class MatchDTO {
+    private long tournamentId;
+
+    private int match;
+
+    private int round;
+
+    private Long gameId;
+
+    private String playerOne;
+
+    private String playerTwo;
+
+    private String winner;
+}
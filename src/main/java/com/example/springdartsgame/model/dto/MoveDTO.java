@@ -23,4 +23,6 @@ public class MoveDTO {
     private int playerTwoScores;
 
     private String turn;
+
+    private Double winProbability; // The probability that player one wins, null if it can't be estimated
 }
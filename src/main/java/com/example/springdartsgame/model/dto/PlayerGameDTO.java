@@ -0,0 +1,32 @@
+package com.example.springdartsgame.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+
+@AllArgsConstructor
+@Data
+@Builder
+public class PlayerGameDTO {
+    private long gameId;
+
+    private String playerOne;
+
+    private String playerTwo;
+
+    private String gameStatus;
+
+    private int playerOneScores;
+
+    private int playerTwoScores;
+
+    private String variant;
+
+    private int targetScore;
+
+    private Instant createdAt; // Null for games created before the creation time was recorded
+
+    private Instant finishedAt; // Null while the game is played
+}
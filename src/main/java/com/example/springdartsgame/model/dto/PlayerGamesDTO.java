@@ -0,0 +1,16 @@
+package com.example.springdartsgame.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@AllArgsConstructor
+@Data
+@Builder
+public class PlayerGamesDTO {
+    private List<PlayerGameDTO> games; // Newest first
+
+    private Long nextBefore; // The value of the before parameter for the next page, null on the last page
+}
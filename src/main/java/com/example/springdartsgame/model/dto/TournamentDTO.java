@@ -0,0 +1,30 @@
+package com.example.springdartsgame.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@AllArgsConstructor
+@Data
+@Builder
+public class TournamentDTO {
+    private long tournamentId;
+
+    private String name;
+
+    private String status;
+
+    private int entrants;
+
+    private int rounds;
+
+    private int targetScore;
+
+    private String variant;
+
+    private String winner;
+
+    private List<MatchDTO> matches; // Ordered by match number, the final is match 1
+}
@@ -0,0 +1,53 @@
+package com.example.springdartsgame.oauth;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Duration;
+
+/**
+ * This cache keeps the users that logged in recently, so that a burst of logins (e.g. token requests of all players
+ * at the start of a tournament) doesn't query the database per login. It is bounded in size and an entry expires
+ * after a write, so that a changed password or role is read again. The statistics are published as cache.* metrics
+ * with the tag cache=users.
+ * <p>
+ * The cache holds copies: the authentication erases the password of the user it returns, that must not be the cached
+ * user.
+ */
+public class CaffeineUserCache implements UserCache {
+    private final Cache<String, UserDetails> users;
+
+    public CaffeineUserCache(int maxEntries, Duration ttl, MeterRegistry meterRegistry) {
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, users, "users");
+    }
+
+    @Override
+    public UserDetails getUserFromCache(String username) {
+        UserDetails user = users.getIfPresent(username);
+        return user == null ? null : copy(user);
+    }
+
+    @Override
+    public void putUserInCache(UserDetails user) {
+        users.put(user.getUsername(), copy(user));
+    }
+
+    @Override
+    public void removeUserFromCache(String username) {
+        users.invalidate(username);
+    }
+
+    private static UserDetails copy(UserDetails user) {
+        return User.withUserDetails(user).build();
+    }
+}
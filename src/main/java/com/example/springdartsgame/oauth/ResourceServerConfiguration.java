@@ -47,13 +47,25 @@ public class ResourceServerConfiguration extends ResourceServerConfigurerAdapter
         http
                 .authorizeRequests()
                 .antMatchers("/actuator/shutdown").permitAll()                             // needs to run test
+                .antMatchers("/actuator/audit", "/actuator/movestore", "/actuator/sqlstatements")
+                .access("(#oauth2.hasScope('read') and hasAnyRole('ROLE_REFEREE', 'ROLE_ADMIN'))")
                 .antMatchers(HttpMethod.GET, "/api/history/**")
                 .access("(#oauth2.hasScope('read') and hasAnyRole('ROLE_GAMER', 'ROLE_REFEREE'))")
+                .antMatchers(HttpMethod.GET, "/api/export/**")
+                .access("(#oauth2.hasScope('read') and hasAnyRole('ROLE_REFEREE', 'ROLE_ADMIN'))")
+                .antMatchers(HttpMethod.GET, "/api/player/*/games")
+                .access("(#oauth2.hasScope('read') and hasAnyRole('ROLE_GAMER', 'ROLE_REFEREE', 'ROLE_ADMIN'))")
+                .antMatchers(HttpMethod.GET, "/api/tournament/**")
+                .access("(#oauth2.hasScope('read') and hasAnyRole('ROLE_GAMER', 'ROLE_REFEREE', 'ROLE_ADMIN'))")
+                .antMatchers(HttpMethod.POST, "/api/tournament/create")
+                .access("(#oauth2.hasScope('write') and hasAnyRole('ROLE_REFEREE', 'ROLE_ADMIN'))")
+                .antMatchers(HttpMethod.POST, "/api/users/**")
+                .access("(#oauth2.hasScope('write') and hasRole('ROLE_ADMIN'))")
                 .antMatchers(HttpMethod.GET, "/**")
                 .access("(#oauth2.hasScope('read') and hasRole('ROLE_GAMER'))")
                 .antMatchers(HttpMethod.POST, "/**")
                 .access("(#oauth2.hasScope('write') and hasRole('ROLE_GAMER'))")
-                .antMatchers(HttpMethod.PUT, "/api/game/cancel")
+                .antMatchers(HttpMethod.PUT, "/api/game/cancel", "/api/game/revert", "/api/game/redo")
                 .access("(#oauth2.hasScope('update') and hasRole('ROLE_REFEREE'))")
                 .and()
                 .sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS)
@@ -2,6 +2,7 @@ package com.example.springdartsgame.oauth;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
@@ -9,29 +10,16 @@ import org.springframework.security.config.annotation.web.configuration.WebSecur
 @EnableWebSecurity
 public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
 
+    private final DaoAuthenticationProvider authenticationProvider;
+
+    public SecurityConfiguration(DaoAuthenticationProvider authenticationProvider) {
+        this.authenticationProvider = authenticationProvider;
+    }
+
     @Override
-    protected void configure(AuthenticationManagerBuilder auth) throws Exception {
-        // Hardcoded users, passwords and roles
-        auth.inMemoryAuthentication()
-                .withUser("ivanhoe@acme.com")
-                .password("{noop}oMoa3VvqnLxW")
-                .roles("GAMER")
-                .and()
-                .withUser("robinhood@acme.com")
-                .password("{noop}ai0y9bMvyF6G")
-                .roles("GAMER")
-                .and()
-                .withUser("wilhelmtell@acme.com")
-                .password("{noop}bv0y9bMvyF7E")
-                .roles("GAMER")
-                .and()
-                .withUser("judgedredd@acme.com")
-                .password("{noop}iAmALaw100500")
-                .roles("REFEREE")
-                .and()
-                .withUser("admin@acme.com")
-                .password("{noop}zy0y3bMvyA6T")
-                .roles("ADMIN");
+    protected void configure(AuthenticationManagerBuilder auth) {
+        // Users, passwords and roles are stored in the database (see UserStoreConfiguration)
+        auth.authenticationProvider(authenticationProvider);
     }
 
     @Bean
@@ -0,0 +1,64 @@
+package com.example.springdartsgame.oauth;
+
+import com.example.springdartsgame.model.NewUser;
+import com.example.springdartsgame.model.Role;
+import com.example.springdartsgame.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * This configuration authenticates the users against the database (see {@link UserService}) with a cache of the
+ * recent logins in front of it. The default users are created when they don't exist yet.
+ */
+@Configuration
+public class UserStoreConfiguration {
+
+    // The users of a new database (their passwords are hashed with bcrypt when they are created), more users are
+    // provisioned by an admin
+    private static final List<NewUser> DEFAULT_USERS = List.of(
+            new NewUser("ivanhoe@acme.com", "oMoa3VvqnLxW", Role.GAMER),
+            new NewUser("robinhood@acme.com", "ai0y9bMvyF6G", Role.GAMER),
+            new NewUser("wilhelmtell@acme.com", "bv0y9bMvyF7E", Role.GAMER),
+            new NewUser("judgedredd@acme.com", "iAmALaw100500", Role.REFEREE),
+            new NewUser("admin@acme.com", "zy0y3bMvyA6T", Role.ADMIN));
+
+    // New passwords are hashed with bcrypt, the {noop} passwords of older databases are accepted and hashed at the
+    // next login
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        return PasswordEncoderFactories.createDelegatingPasswordEncoder();
+    }
+
+    @Bean
+    public UserCache userCache(MeterRegistry meterRegistry,
+                               @Value("${darts.users.cache.max-entries:100000}") int maxEntries,
+                               @Value("${darts.users.cache.ttl:10m}") Duration ttl) {
+        return new CaffeineUserCache(maxEntries, ttl, meterRegistry);
+    }
+
+    @Bean
+    public DaoAuthenticationProvider authenticationProvider(UserService userService, PasswordEncoder passwordEncoder,
+                                                            UserCache userCache) {
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(userService);
+        provider.setUserDetailsPasswordService(userService);
+        provider.setPasswordEncoder(passwordEncoder);
+        provider.setUserCache(userCache);
+        return provider;
+    }
+
+    @Bean
+    public ApplicationRunner defaultUsers(UserService userService) {
+        return arguments -> userService.createMissingUsers(DEFAULT_USERS);
+    }
+}
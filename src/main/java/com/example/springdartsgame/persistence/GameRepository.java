@@ -1,16 +1,52 @@
 package com.example.springdartsgame.persistence;
 
 import com.example.springdartsgame.entity.Game;
+import com.example.springdartsgame.model.GameStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 @Repository
 public interface GameRepository extends JpaRepository<Game, Long> {
     @Query("select g from Game g order by g.id DESC")
     List<Game> findAllGamesSortedById();
-    @Query("select g from Game g where g.playerOne = ?1 or g.playerTwo = ?1 order by g.id DESC")
-    List<Game> findAllUnfinishedPlayerGames(String player);
+    // The games that aren't won. Their statuses are listed, so that each one is a range of the status index.
+    Set<GameStatus> NOT_WON = EnumSet.complementOf(EnumSet.of(GameStatus.USER_WINS));
+
+    // The unfinished games are found with the participations of the player (see GamePlayer), not by scanning the games
+    @Query("select g from Game g where g.id in (select p.gameId from GamePlayer p " +
+            "where p.player = ?1 and p.status in ?2) order by g.id DESC")
+    List<Game> findAllPlayerGamesWithStatusIn(String player, Collection<GameStatus> statuses);
+    @Query("select g from Game g where g.id in (select p.gameId from GamePlayer p " +
+            "where p.player in ?1 and p.status in ?2)")
+    List<Game> findAllGamesOfPlayersWithStatusIn(Collection<String> players, Collection<GameStatus> statuses);
+    default List<Game> findAllUnfinishedPlayerGames(String player) {
+        return findAllPlayerGamesWithStatusIn(player, NOT_WON);
+    }
+    default List<Game> findAllUnfinishedGamesOfPlayers(Collection<String> players) {
+        return findAllGamesOfPlayersWithStatusIn(players, NOT_WON);
+    }
+    @Query("select g from Game g where g.gameStatus in ?1")
+    List<Game> findAllGamesWithStatusIn(Collection<GameStatus> statuses);
+    @Query("select g from Game g where g.gameStatus = ?1 and g.id <= ?2 order by g.id DESC")
+    List<Game> findGamesWithStatusUpTo(GameStatus status, long gameId, Pageable pageable);
+    @Query("select g from Game g where g.gameStatus in ?1 and g.id <= ?2 order by g.id DESC")
+    List<Game> findGamesWithStatusInUpTo(Collection<GameStatus> statuses, long gameId, Pageable pageable);
+    // The id and the players of the games, without reading the games
+    @Query("select g.id, g.playerOne, g.playerTwo from Game g where g.gameStatus = ?1 and g.id <= ?2")
+    List<Object[]> findPlayersOfGamesWithStatusUpTo(GameStatus status, long gameId);
+    // The games played before the head was recorded have no superseded moves (a revert deleted the moves), so their
+    // last move is the head. A bulk update evicts the game region.
+    @Modifying
+    @Query("update Game g set g.headMove = (select max(m.move) from Move m where m.gameId = g.id), " +
+            "g.latestMove = (select max(m.move) from Move m where m.gameId = g.id), g.version = g.version + 1 " +
+            "where g.headMove < 0 and exists (select m.id from Move m where m.gameId = g.id)")
+    int restoreHeadMoves();
 }
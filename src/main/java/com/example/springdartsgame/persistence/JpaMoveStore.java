@@ -0,0 +1,106 @@
+package com.example.springdartsgame.persistence;
+
+import com.example.springdartsgame.entity.Move;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * The default move store, the moves are rows of the {@code game_move} table. The bulk readers stream the rows with
+ * a forward-only cursor in lazy query execution mode of H2, so the result isn't materialized by the database.
+ */
+@Component
+@ConditionalOnProperty(name = "darts.move-store", havingValue = "jpa", matchIfMissing = true)
+public class JpaMoveStore implements MoveStore {
+    private static final String MOVES = """
+            select id, game_id, move, player_one, player_two, game_status, player_one_scores, player_two_scores, turn,
+                   superseded, revision
+            from game_move where game_id between ? and ?""";
+    private static final String ACTIVE = " and superseded = false";
+    private static final String ORDER = " order by game_id, move, revision";
+
+    private final MoveRepository moveRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final int fetchSize;
+
+    public JpaMoveStore(MoveRepository moveRepository, DataSource dataSource,
+                        @Value("${darts.export.fetch-size:500}") int fetchSize) {
+        this.moveRepository = moveRepository;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    public void append(Move move) {
+        moveRepository.save(move);
+    }
+
+    @Override
+    public Move findActiveMove(long gameId, int move) {
+        return moveRepository.findActiveMove(gameId, move);
+    }
+
+    @Override
+    public List<Move> findActiveHistory(long gameId, int fromMove, int toMove, Integer limit) {
+        Pageable page = limit == null ? Pageable.unpaged() : PageRequest.of(0, limit);
+        return moveRepository.findActiveHistory(gameId, fromMove, toMove, page);
+    }
+
+    @Override
+    public void supersedeMovesAfter(long gameId, int move) {
+        moveRepository.supersedeMovesAfter(gameId, move);
+    }
+
+    @Override
+    public void forEachMove(long fromGameId, long toGameId, boolean includeSuperseded, Consumer<Move> action) {
+        String sql = MOVES + (includeSuperseded ? "" : ACTIVE) + ORDER;
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            setLazyQueryExecution(connection, true);
+            try (PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY)) {
+                statement.setFetchSize(fetchSize);
+                statement.setLong(1, fromGameId);
+                statement.setLong(2, toGameId);
+                try (ResultSet row = statement.executeQuery()) {
+                    while (row.next()) {
+                        action.accept(Move.builder()
+                                .id(row.getLong(1))
+                                .gameId(row.getLong(2))
+                                .move(row.getInt(3))
+                                .playerOne(row.getString(4))
+                                .playerTwo(row.getString(5))
+                                .gameStatus(row.getString(6))
+                                .playerOneScores(row.getInt(7))
+                                .playerTwoScores(row.getInt(8))
+                                .turn(row.getString(9))
+                                .superseded(row.getBoolean(10))
+                                .revision(row.getInt(11))
+                                .build());
+                    }
+                }
+            } finally {
+                setLazyQueryExecution(connection, false);
+            }
+            return null;
+        });
+    }
+
+    private static void setLazyQueryExecution(Connection connection, boolean lazy) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET LAZY_QUERY_EXECUTION " + (lazy ? "TRUE" : "FALSE"));
+        }
+    }
+}
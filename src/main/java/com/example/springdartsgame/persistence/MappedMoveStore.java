@@ -0,0 +1,703 @@
+package com.example.springdartsgame.persistence;
+
+import com.example.springdartsgame.entity.Move;
+import com.example.springdartsgame.model.GameStatus;
+import com.example.springdartsgame.model.MoveStoreStatistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * A move store in memory-mapped, append-only files. The moves are fixed-size binary records of 40 bytes in segment
+ * files of {@code darts.move-store.mapped.segment-size}, the player names are kept once in a dictionary file and the
+ * records refer to them by number. A record is never changed: superseding the moves after a revert appends a marker
+ * record. The offsets of the records of every game are indexed in memory, so the history of a game is read without a
+ * scan. The index is rebuilt from the segments on startup.
+ * <p>
+ * Record layout: checksum (CRC32C of the other 36 bytes), game id, move, revision, player one, player two, the scores
+ * of both players, turn (0 or 1), status, reserved, type (0 for an empty slot, 1 for a move, 2 for a supersede marker).
+ * <p>
+ * The records are forced to the disk after every append ({@code always}), by a background thread every
+ * {@code darts.move-store.mapped.fsync-interval} ({@code interval}) or when the operating system writes the pages
+ * back ({@code never}). On startup the segments are scanned up to the first empty or broken record (a torn write of a
+ * crash), everything after it is cleared. The compaction rewrites the active moves into the segments of a new
+ * generation and drops the superseded moves, the generation is switched atomically before the old files are deleted.
+ * <p>
+ * The store can't roll back, so the appends and markers within a database transaction are written after its commit
+ * (in the order of the calls) and dropped if it is rolled back. Until then they aren't visible to the reads, not
+ * even within the transaction. The id of a move is its position in the store, it is set when the move is written and
+ * changes with a compaction.
+ */
+@Component
+@ConditionalOnProperty(name = "darts.move-store", havingValue = "mapped")
+public class MappedMoveStore implements MoveStore, AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MappedMoveStore.class);
+
+    static final int RECORD_SIZE = 40;
+    private static final byte EMPTY = 0;
+    private static final byte MOVE = 1;
+    private static final byte SUPERSEDE = 2;
+    private static final String[] STATUSES = {GameStatus.CREATED.status, GameStatus.STARTED.status,
+            GameStatus.PLAYING.status, GameStatus.NOBODY_WINS.status};
+    private static final byte PLAYER_ONE_WINS = 4;
+    private static final byte PLAYER_TWO_WINS = 5;
+    private static final byte NO_STATUS = 6;
+    private static final byte NO_PLAYER = -1;
+
+    private static final String GENERATION_FILE = "generation";
+    private static final String PLAYERS_FILE = "players.dat";
+    private static final Pattern SEGMENT_FILE = Pattern.compile("moves-(\\d+)-(\\d+)\\.seg");
+
+    public enum FsyncPolicy {ALWAYS, INTERVAL, NEVER}
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final int recordsPerSegment;
+    private final FsyncPolicy fsyncPolicy;
+    private final Players players;
+    private final ScheduledExecutorService flusher;
+
+    // Appends hold the read lock and the append lock, the compaction holds the write lock
+    private final ReentrantReadWriteLock compactionLock = new ReentrantReadWriteLock();
+    private final Object appendLock = new Object();
+    private volatile Log log;
+    private volatile ConcurrentSkipListMap<Long, GameIndex> games = new ConcurrentSkipListMap<>();
+    private long nextRecord;
+    private volatile int flushedSegment;
+
+    public MappedMoveStore(@Value("${darts.move-store.mapped.directory:../move_store}") Path directory,
+                           @Value("${darts.move-store.mapped.segment-size:64MB}") DataSize segmentSize,
+                           @Value("${darts.move-store.mapped.fsync:interval}") FsyncPolicy fsyncPolicy,
+                           @Value("${darts.move-store.mapped.fsync-interval:1s}") Duration fsyncInterval)
+            throws IOException {
+        this.directory = directory;
+        this.recordsPerSegment = (int) Math.min(segmentSize.toBytes() / RECORD_SIZE, Integer.MAX_VALUE / RECORD_SIZE);
+        if (recordsPerSegment < 1) throw new IllegalArgumentException("The segment size is below one record");
+        this.segmentBytes = (long) recordsPerSegment * RECORD_SIZE;
+        this.fsyncPolicy = fsyncPolicy;
+
+        Files.createDirectories(directory);
+        this.players = new Players(directory.resolve(PLAYERS_FILE));
+        recover();
+
+        if (fsyncPolicy == FsyncPolicy.INTERVAL) {
+            flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "move-store-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long millis = Math.max(1, fsyncInterval.toMillis());
+            flusher.scheduleWithFixedDelay(this::flush, millis, millis, TimeUnit.MILLISECONDS);
+        } else {
+            flusher = null;
+        }
+    }
+
+    @Override
+    public void append(Move move) {
+        afterCommit(() -> writeMove(move));
+    }
+
+    private void writeMove(Move move) {
+        compactionLock.readLock().lock();
+        try {
+            synchronized (appendLock) {
+                long record = write(encode(move));
+                games.computeIfAbsent(move.getGameId(), id -> new GameIndex()).add(record, move.getMove());
+                move.setId(record + 1);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            compactionLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Move findActiveMove(long gameId, int move) {
+        compactionLock.readLock().lock();
+        try {
+            GameIndex index = games.get(gameId);
+            long record = index == null ? -1 : index.activeRecord(move);
+            return record < 0 ? null : read(record, false);
+        } finally {
+            compactionLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Move> findActiveHistory(long gameId, int fromMove, int toMove, Integer limit) {
+        compactionLock.readLock().lock();
+        try {
+            GameIndex index = games.get(gameId);
+            if (index == null) return List.of();
+            long[] records = index.activeRecords(fromMove, toMove, limit == null ? Integer.MAX_VALUE : limit);
+            List<Move> moves = new ArrayList<>(records.length);
+            for (long record : records) moves.add(read(record, false));
+            return moves;
+        } finally {
+            compactionLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void supersedeMovesAfter(long gameId, int move) {
+        afterCommit(() -> writeSupersede(gameId, move));
+    }
+
+    private void writeSupersede(long gameId, int move) {
+        compactionLock.readLock().lock();
+        try {
+            synchronized (appendLock) {
+                GameIndex index = games.get(gameId);
+                if (index == null || !index.hasActiveMovesAfter(move)) return;
+                write(new Entry(SUPERSEDE, gameId, move, 0, NO_PLAYER, NO_PLAYER, 0, 0, NO_PLAYER, NO_STATUS));
+                index.supersedeAfter(move);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            compactionLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc} The moves of one game at a time are read under the lock and passed to the action without it, so a
+     * slow reader (e.g. an export to a slow client) doesn't hold up a compaction and the appends waiting behind it. A
+     * compaction between two games is fine, the next game is looked up in the compacted index.
+     */
+    @Override
+    public void forEachMove(long fromGameId, long toGameId, boolean includeSuperseded, Consumer<Move> action) {
+        long nextGameId = fromGameId;
+        while (nextGameId <= toGameId) {
+            List<Move> moves;
+            compactionLock.readLock().lock();
+            try {
+                Map.Entry<Long, GameIndex> game = games.ceilingEntry(nextGameId);
+                if (game == null || game.getKey() > toGameId) return;
+                BitSet superseded = new BitSet();
+                long[] records = game.getValue().records(includeSuperseded, superseded);
+                moves = new ArrayList<>(records.length);
+                for (int i = 0; i < records.length; i++) moves.add(read(records[i], superseded.get(i)));
+                nextGameId = game.getKey() + 1;
+            } finally {
+                compactionLock.readLock().unlock();
+            }
+            moves.forEach(action);
+        }
+    }
+
+    /**
+     * This method rewrites the active moves into a new generation of segments and deletes the old segments. The moves
+     * can't be read or appended while the store is compacted.
+     *
+     * @return - The statistics after the compaction
+     */
+    public MoveStoreStatistics compact() {
+        compactionLock.writeLock().lock();
+        try {
+            long start = System.nanoTime();
+            MoveStoreStatistics before = statistics();
+            Log compacted = new Log(log.generation + 1);
+            ConcurrentSkipListMap<Long, GameIndex> compactedGames = new ConcurrentSkipListMap<>();
+            long record = 0;
+            for (Map.Entry<Long, GameIndex> game : games.entrySet()) {
+                GameIndex index = new GameIndex();
+                for (long active : game.getValue().activeRecords(0, Integer.MAX_VALUE, Integer.MAX_VALUE)) {
+                    Entry entry = Entry.read(log.buffer(active), log.offset(active));
+                    entry.write(compacted.segment((int) (record / recordsPerSegment)).buffer(), compacted.offset(record));
+                    index.add(record++, entry.move());
+                }
+                compactedGames.put(game.getKey(), index);
+            }
+            players.force();
+            compacted.force(0);
+            writeGeneration(compacted.generation);
+
+            Log old = log;
+            log = compacted;
+            games = compactedGames;
+            nextRecord = record;
+            flushedSegment = Math.max(0, compacted.segments.size() - 1);
+            old.close();
+            old.delete();
+
+            MoveStoreStatistics after = statistics();
+            LOGGER.info("Compacted the move store from {} to {} records in {} ms", before.records(), after.records(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return after;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            compactionLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * This method returns the statistics of the store.
+     *
+     * @return - The statistics
+     */
+    public MoveStoreStatistics statistics() {
+        compactionLock.readLock().lock();
+        try {
+            long activeMoves = 0;
+            for (GameIndex index : games.values()) activeMoves += index.activeMoves();
+            long records;
+            synchronized (appendLock) {
+                records = nextRecord;
+            }
+            Log current = log;
+            return new MoveStoreStatistics(current.generation, current.segments.size(), records, activeMoves,
+                    games.size(), current.segments.size() * segmentBytes, fsyncPolicy.name().toLowerCase());
+        } finally {
+            compactionLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (flusher != null) flusher.shutdownNow();
+        compactionLock.writeLock().lock();
+        try {
+            if (fsyncPolicy != FsyncPolicy.NEVER) {
+                players.force();
+                log.force(0);
+            }
+            log.close();
+            players.close();
+        } finally {
+            compactionLock.writeLock().unlock();
+        }
+    }
+
+    // Runs a write after the commit of the current transaction, or right away without a transaction. A write that
+    // fails after the commit is thrown to the caller of the commit.
+    private static void afterCommit(Runnable write) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            write.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                write.run();
+            }
+        });
+    }
+
+    // Writes a record at the end of the current generation
+    private long write(Entry entry) throws IOException {
+        long record = nextRecord;
+        Segment segment = log.segment((int) (record / recordsPerSegment));
+        int offset = log.offset(record);
+        entry.write(segment.buffer(), offset);
+        if (fsyncPolicy == FsyncPolicy.ALWAYS) segment.buffer().force(offset, RECORD_SIZE);
+        nextRecord = record + 1;
+        return record;
+    }
+
+    private Move read(long record, boolean superseded) {
+        Entry entry = Entry.read(log.buffer(record), log.offset(record));
+        String playerOne = players.name(entry.playerOne());
+        String playerTwo = players.name(entry.playerTwo());
+        return Move.builder()
+                .id(record + 1)
+                .gameId(entry.gameId())
+                .move(entry.move())
+                .playerOne(playerOne)
+                .playerTwo(playerTwo)
+                .gameStatus(decodeStatus(entry.status(), playerOne, playerTwo))
+                .playerOneScores(entry.playerOneScores())
+                .playerTwoScores(entry.playerTwoScores())
+                .turn(entry.turn() == 0 ? playerOne : entry.turn() == 1 ? playerTwo : null)
+                .superseded(superseded)
+                .revision(entry.revision())
+                .build();
+    }
+
+    private Entry encode(Move move) throws IOException {
+        String playerOne = move.getPlayerOne();
+        String playerTwo = move.getPlayerTwo();
+        byte turn;
+        if (move.getTurn() == null) turn = NO_PLAYER;
+        else if (move.getTurn().equals(playerOne)) turn = 0;
+        else if (move.getTurn().equals(playerTwo)) turn = 1;
+        else throw new IllegalArgumentException("The turn " + move.getTurn() + " isn't a player");
+        return new Entry(MOVE, move.getGameId(), move.getMove(), move.getRevision(), players.id(playerOne),
+                players.id(playerTwo), move.getPlayerOneScores(), move.getPlayerTwoScores(), turn,
+                encodeStatus(move.getGameStatus(), playerOne, playerTwo));
+    }
+
+    private static byte encodeStatus(String status, String playerOne, String playerTwo) {
+        if (status == null) return NO_STATUS;
+        for (byte i = 0; i < STATUSES.length; i++) {
+            if (STATUSES[i].equals(status)) return i;
+        }
+        if (status.equals(String.format(GameStatus.USER_WINS.status, playerOne))) return PLAYER_ONE_WINS;
+        if (status.equals(String.format(GameStatus.USER_WINS.status, playerTwo))) return PLAYER_TWO_WINS;
+        throw new IllegalArgumentException("The status " + status + " can't be stored");
+    }
+
+    private static String decodeStatus(byte status, String playerOne, String playerTwo) {
+        return status < STATUSES.length ? STATUSES[status]
+                : status == PLAYER_ONE_WINS ? String.format(GameStatus.USER_WINS.status, playerOne)
+                : status == PLAYER_TWO_WINS ? String.format(GameStatus.USER_WINS.status, playerTwo)
+                : null;
+    }
+
+    // Rebuilds the index from the segments of the current generation and clears a torn tail
+    private void recover() throws IOException {
+        int generation = readGeneration();
+        deleteSegments(g -> g != generation);
+        Log recovered = new Log(generation);
+
+        long record = 0;
+        String tornRecord = null;
+        while (Files.exists(recovered.path((int) (record / recordsPerSegment)))) {
+            Segment segment = recovered.segment((int) (record / recordsPerSegment));
+            int offset = recovered.offset(record);
+            byte type = segment.buffer().get(offset + RECORD_SIZE - 1);
+            if (type == EMPTY) break;
+
+            Entry entry = Entry.read(segment.buffer(), offset);
+            if (segment.buffer().getInt(offset) != checksum(segment.buffer(), offset) || !isValid(entry)) {
+                tornRecord = "record " + record + " of type " + type;
+                break;
+            }
+            if (type == MOVE) games.computeIfAbsent(entry.gameId(), id -> new GameIndex()).add(record, entry.move());
+            else games.computeIfAbsent(entry.gameId(), id -> new GameIndex()).supersedeAfter(entry.move());
+            record++;
+        }
+
+        // Nothing may be left after the end, the next appends would be followed by stale records
+        int lastSegment = (int) (record / recordsPerSegment);
+        if (Files.exists(recovered.path(lastSegment)) && recovered.clear(lastSegment, recovered.offset(record))) {
+            LOGGER.warn("Cleared the tail of the move store after record {} ({})", record,
+                    tornRecord == null ? "stale records" : "torn " + tornRecord);
+        }
+        for (int i = lastSegment + 1; Files.exists(recovered.path(i)); i++) Files.delete(recovered.path(i));
+
+        log = recovered;
+        nextRecord = record;
+        flushedSegment = Math.max(0, recovered.segments.size() - 1);
+        LOGGER.info("Recovered {} records of {} games from the move store in {}", record, games.size(), directory);
+    }
+
+    private boolean isValid(Entry entry) {
+        if (entry.type() == SUPERSEDE) return true;
+        return entry.type() == MOVE && entry.status() >= 0 && entry.status() <= NO_STATUS
+                && entry.playerOne() >= NO_PLAYER && entry.playerOne() < players.size()
+                && entry.playerTwo() >= NO_PLAYER && entry.playerTwo() < players.size();
+    }
+
+    // Forces the appended records of the last interval to the disk
+    private void flush() {
+        compactionLock.readLock().lock();
+        try {
+            players.force();
+            Log current = log;
+            int last = current.segments.size() - 1;
+            current.force(flushedSegment);
+            flushedSegment = Math.max(0, last);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("The move store couldn't be forced to the disk", e);
+        } finally {
+            compactionLock.readLock().unlock();
+        }
+    }
+
+    private int readGeneration() throws IOException {
+        Path path = directory.resolve(GENERATION_FILE);
+        return Files.exists(path) ? Integer.parseInt(Files.readString(path).trim()) : 0;
+    }
+
+    private void writeGeneration(int generation) throws IOException {
+        Path temporary = directory.resolve(GENERATION_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(Integer.toString(generation).getBytes(StandardCharsets.US_ASCII)));
+            channel.force(true);
+        }
+        Files.move(temporary, directory.resolve(GENERATION_FILE), StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private void deleteSegments(IntPredicate generation) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Matcher matcher = SEGMENT_FILE.matcher(file.getFileName().toString());
+                if (matcher.matches() && generation.test(Integer.parseInt(matcher.group(1)))) Files.delete(file);
+            }
+        }
+    }
+
+    private static int checksum(ByteBuffer buffer, int offset) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(offset + 4, RECORD_SIZE - 4));
+        return (int) crc.getValue();
+    }
+
+    private record Segment(FileChannel channel, MappedByteBuffer buffer) {
+    }
+
+    // The segments of one generation, a record is addressed by its number
+    private final class Log {
+        private final int generation;
+        private final List<Segment> segments = new CopyOnWriteArrayList<>();
+
+        private Log(int generation) {
+            this.generation = generation;
+        }
+
+        private Path path(int segment) {
+            return directory.resolve(String.format("moves-%d-%06d.seg", generation, segment));
+        }
+
+        // Maps a segment, the next segment is created when the current one is full
+        private Segment segment(int index) throws IOException {
+            if (index < segments.size()) return segments.get(index);
+            if (index != segments.size()) throw new IllegalStateException("Segment " + index + " skips a segment");
+
+            FileChannel channel = FileChannel.open(path(index), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            if (channel.size() != 0 && channel.size() != segmentBytes) {
+                channel.close();
+                throw new IllegalStateException("The segment " + path(index) + " has " + channel.size()
+                        + " bytes instead of " + segmentBytes + ", the segment size can't be changed");
+            }
+            Segment segment = new Segment(channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes));
+            segments.add(segment);
+            return segment;
+        }
+
+        private MappedByteBuffer buffer(long record) {
+            return segments.get((int) (record / recordsPerSegment)).buffer();
+        }
+
+        private int offset(long record) {
+            return (int) (record % recordsPerSegment) * RECORD_SIZE;
+        }
+
+        // Zeroes a segment from an offset, returns whether anything was left there
+        private boolean clear(int index, int offset) throws IOException {
+            MappedByteBuffer buffer = segment(index).buffer();
+            int dirty = offset;
+            while (dirty < segmentBytes && buffer.getLong(dirty) == 0) dirty += Long.BYTES;
+            if (dirty >= segmentBytes) return false;
+            for (int i = offset; i < segmentBytes; i += Long.BYTES) buffer.putLong(i, 0);
+            buffer.force();
+            return true;
+        }
+
+        private void force(int fromSegment) {
+            for (int i = fromSegment; i < segments.size(); i++) segments.get(i).buffer().force();
+        }
+
+        private void close() throws IOException {
+            for (Segment segment : segments) segment.channel().close();
+        }
+
+        private void delete() throws IOException {
+            for (int i = 0; i < segments.size(); i++) Files.deleteIfExists(path(i));
+        }
+    }
+
+    // A record of the segments
+    private record Entry(byte type, long gameId, int move, int revision, int playerOne, int playerTwo,
+                         int playerOneScores, int playerTwoScores, byte turn, byte status) {
+
+        private static Entry read(ByteBuffer buffer, int offset) {
+            return new Entry(buffer.get(offset + 39), buffer.getLong(offset + 4), buffer.getInt(offset + 12),
+                    buffer.getInt(offset + 16), buffer.getInt(offset + 20), buffer.getInt(offset + 24),
+                    buffer.getInt(offset + 28), buffer.getInt(offset + 32), buffer.get(offset + 36),
+                    buffer.get(offset + 37));
+        }
+
+        // The checksum is written last, a record that is torn by a crash doesn't match it
+        private void write(ByteBuffer buffer, int offset) {
+            buffer.putLong(offset + 4, gameId);
+            buffer.putInt(offset + 12, move);
+            buffer.putInt(offset + 16, revision);
+            buffer.putInt(offset + 20, playerOne);
+            buffer.putInt(offset + 24, playerTwo);
+            buffer.putInt(offset + 28, playerOneScores);
+            buffer.putInt(offset + 32, playerTwoScores);
+            buffer.put(offset + 36, turn);
+            buffer.put(offset + 37, status);
+            buffer.put(offset + 38, (byte) 0);
+            buffer.put(offset + 39, type);
+            buffer.putInt(offset, checksum(buffer, offset));
+        }
+    }
+
+    // The records of a game in the order of the appends and the active record of every move number
+    private static final class GameIndex {
+        private long[] records = new long[8];
+        private int[] moves = new int[8];
+        private int count;
+        private int[] active = new int[8];
+        private int activeCount;
+
+        private synchronized void add(long record, int move) {
+            if (count == records.length) {
+                records = Arrays.copyOf(records, count * 2);
+                moves = Arrays.copyOf(moves, count * 2);
+            }
+            if (move >= active.length) active = Arrays.copyOf(active, Math.max(move + 1, active.length * 2));
+            for (int m = activeCount; m < move; m++) active[m] = -1;
+            records[count] = record;
+            moves[count] = move;
+            active[move] = count++;
+            activeCount = Math.max(activeCount, move + 1);
+        }
+
+        private synchronized boolean hasActiveMovesAfter(int move) {
+            return activeCount > move + 1;
+        }
+
+        private synchronized void supersedeAfter(int move) {
+            activeCount = Math.max(0, Math.min(activeCount, move + 1));
+        }
+
+        private synchronized long activeRecord(int move) {
+            return move < 0 || move >= activeCount || active[move] < 0 ? -1 : records[active[move]];
+        }
+
+        private synchronized long[] activeRecords(int fromMove, int toMove, int limit) {
+            int last = Math.min(toMove, activeCount - 1);
+            long[] result = new long[Math.max(0, Math.min(last - Math.max(fromMove, 0) + 1, limit))];
+            int n = 0;
+            for (int m = Math.max(fromMove, 0); m <= last && n < result.length; m++) {
+                if (active[m] >= 0) result[n++] = records[active[m]];
+            }
+            return n == result.length ? result : Arrays.copyOf(result, n);
+        }
+
+        // All records ordered by move and revision (a later append of a move number has a later revision)
+        private synchronized long[] records(boolean includeSuperseded, BitSet superseded) {
+            int[] order = IntStream.range(0, count).boxed()
+                    .sorted(Comparator.comparingInt(i -> moves[i]))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            long[] result = new long[count];
+            int n = 0;
+            for (int i : order) {
+                boolean isActive = moves[i] < activeCount && active[moves[i]] == i;
+                if (!isActive) {
+                    if (!includeSuperseded) continue;
+                    superseded.set(n);
+                }
+                result[n++] = records[i];
+            }
+            return Arrays.copyOf(result, n);
+        }
+
+        private synchronized long activeMoves() {
+            long moveCount = 0;
+            for (int m = 0; m < activeCount; m++) if (active[m] >= 0) moveCount++;
+            return moveCount;
+        }
+    }
+
+    // The player names of the records, appended to a file of length-prefixed UTF-8 strings
+    private final class Players {
+        private final FileChannel channel;
+        private final List<String> names = new CopyOnWriteArrayList<>();
+        private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+        private long size;
+
+        private Players(Path path) throws IOException {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            ByteBuffer content = ByteBuffer.allocate((int) channel.size());
+            while (content.hasRemaining()) {
+                if (channel.read(content, content.position()) < 0) break;
+            }
+            content.flip();
+            while (content.remaining() >= Short.BYTES) {
+                int length = Short.toUnsignedInt(content.getShort(content.position()));
+                if (content.remaining() < Short.BYTES + length) break;
+                byte[] name = new byte[length];
+                content.position(content.position() + Short.BYTES).get(name);
+                ids.put(new String(name, StandardCharsets.UTF_8), names.size());
+                names.add(new String(name, StandardCharsets.UTF_8));
+            }
+            size = content.position();
+            if (size < channel.size()) {
+                LOGGER.warn("Cleared a torn player name at byte {} of {}", size, path);
+                channel.truncate(size);
+            }
+        }
+
+        // Called with the append lock
+        private int id(String name) throws IOException {
+            if (name == null) return NO_PLAYER;
+            Integer id = ids.get(name);
+            if (id != null) return id;
+
+            byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > 0xFFFF) throw new IllegalArgumentException("The player name is too long");
+            ByteBuffer entry = ByteBuffer.allocate(Short.BYTES + bytes.length).putShort((short) bytes.length).put(bytes);
+            entry.flip();
+            while (entry.hasRemaining()) size += channel.write(entry, size);
+            if (fsyncPolicy == FsyncPolicy.ALWAYS) channel.force(false);
+            names.add(name);
+            ids.put(name, names.size() - 1);
+            return names.size() - 1;
+        }
+
+        private String name(int id) {
+            return id == NO_PLAYER ? null : names.get(id);
+        }
+
+        private int size() {
+            return names.size();
+        }
+
+        private void force() throws IOException {
+            channel.force(false);
+        }
+
+        private void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -1,15 +1,30 @@
 package com.example.springdartsgame.persistence;
 
 import com.example.springdartsgame.entity.Move;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
 import java.util.List;
 
+import static org.hibernate.annotations.QueryHints.CACHEABLE;
+import static org.hibernate.annotations.QueryHints.CACHE_REGION;
+
 @Repository
 public interface MoveRepository extends JpaRepository<Move, Long> {
-    List<Move> findAllByGameId(long gameId);
-    Move findByGameIdAndMove(long gameId, int move);
-    Move findTopByGameIdOrderByMoveDesc(long gameId);
-    void deleteAllByGameIdAndMoveGreaterThan(long gameId, int move);
+    // The results are kept in the query cache until the game_move table changes (inserts and the bulk update below)
+    @Query("select m from Move m where m.gameId = ?1 and m.superseded = false and m.move between ?2 and ?3 order by m.move")
+    @QueryHints({@QueryHint(name = CACHEABLE, value = "true"), @QueryHint(name = CACHE_REGION, value = "move-history")})
+    List<Move> findActiveHistory(long gameId, int fromMove, int toMove, Pageable pageable);
+    @Query("select m from Move m where m.gameId = ?1 and m.superseded = false and m.move = ?2")
+    @QueryHints({@QueryHint(name = CACHEABLE, value = "true"), @QueryHint(name = CACHE_REGION, value = "move-history")})
+    Move findActiveMove(long gameId, int move);
+    // A bulk update evicts the move region and invalidates the cached queries of the table
+    @Modifying
+    @Query("update Move m set m.superseded = true where m.gameId = ?1 and m.superseded = false and m.move > ?2")
+    int supersedeMovesAfter(long gameId, int move);
 }
@@ -0,0 +1,61 @@
+package com.example.springdartsgame.persistence;
+
+import com.example.springdartsgame.entity.Move;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * The storage of the moves behind the move service. The backend is chosen with {@code darts.move-store}: {@code jpa}
+ * (the default) keeps the moves in the {@code game_move} table, {@code mapped} in memory-mapped append-only files
+ * (see {@link MappedMoveStore}).
+ */
+public interface MoveStore {
+
+    /**
+     * This method appends a move. The id of the move is set by the store.
+     *
+     * @param move - The move
+     */
+    void append(Move move);
+
+    /**
+     * This method finds a move of the active branch of a game.
+     *
+     * @param gameId - The id of the game
+     * @param move   - The move number
+     * @return - The move, or null if there is no such move
+     */
+    Move findActiveMove(long gameId, int move);
+
+    /**
+     * This method finds a range of moves of the active branch of a game.
+     *
+     * @param gameId   - The id of the game
+     * @param fromMove - The first move
+     * @param toMove   - The last move
+     * @param limit    - The maximum number of moves (null for all moves)
+     * @return - The moves ordered by the move number
+     */
+    List<Move> findActiveHistory(long gameId, int fromMove, int toMove, Integer limit);
+
+    /**
+     * This method marks the active moves after a move of a game as superseded.
+     *
+     * @param gameId - The id of the game
+     * @param move   - The last move that stays active
+     */
+    void supersedeMovesAfter(long gameId, int move);
+
+    /**
+     * This method streams the moves of the games with an id in the given range, ordered by the game id, the move
+     * number and the revision. It is used by the bulk readers (audit and export), which don't hold more than one game
+     * in memory.
+     *
+     * @param fromGameId        - The lowest game id
+     * @param toGameId          - The highest game id
+     * @param includeSuperseded - Whether the superseded moves are included
+     * @param action            - Called with every move
+     */
+    void forEachMove(long fromGameId, long toGameId, boolean includeSuperseded, Consumer<Move> action);
+}
@@ -0,0 +1,189 @@
+package com.example.springdartsgame.persistence;
+
+import com.example.springdartsgame.entity.Game;
+import com.example.springdartsgame.model.GameStatus;
+import com.example.springdartsgame.model.GameVariant;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The participations of the players in the games (the {@code game_player} table, see
+ * {@link com.example.springdartsgame.entity.GamePlayer}). The rows are written with plain statements in the
+ * transaction of the game, the participations of a game are sent as one batch.
+ * <p>
+ * The games of a player are paged with a key set: a page continues below the smallest game id of the previous page,
+ * so every page is a range of the index of the player (newest first), no matter how many games the player has played.
+ * A filter by opponent, target score or status reads the range of its own index. A time window is
+ * turned into a range of game ids first (the ids of a league grow with the creation time), so a filtered page deep in
+ * the games of a player costs the same as the first page. Only a combination of filters checks the further filters
+ * on the rows of the range.
+ */
+@Component
+public class PlayerGameIndex {
+    private static final String UPSERT = "merge into game_player (game_id, player, opponent, created_at, " +
+            "target_score, status) key (game_id, player) values (?, ?, ?, ?, ?, ?)";
+    private static final String STATUS = "update game_player set status = ? where game_id = ?";
+    // The participations of the games that were created before the index, for each of the two players
+    private static final String BACKFILL = """
+            insert into game_player (game_id, player, opponent, created_at, target_score, status)
+            select g.id, g.%1$s, nullif(g.%2$s, ''), g.created_at, g.target_score, g.game_status
+            from game g
+            where coalesce(g.%1$s, '') <> ''
+              and not exists (select 1 from game_player p where p.game_id = g.id and p.player = g.%1$s)""";
+    // The participations that were indexed before the target score was part of the index
+    private static final String BACKFILL_TARGET = """
+            update game_player p set target_score = (select g.target_score from game g where g.id = p.game_id)
+            where p.target_score = 0
+              and exists (select 1 from game g where g.id = p.game_id and g.target_score <> 0)""";
+    // The participations that were indexed before the status was part of the index
+    private static final String BACKFILL_STATUS = """
+            update game_player p set status = (select g.game_status from game g where g.id = p.game_id)
+            where p.status is null""";
+    private static final String GAMES = """
+            select g.id, g.player_one, g.player_two, g.game_status, g.player_one_scores, g.player_two_scores, g.turn,
+                   g.winner, g.variant, g.target_score, g.created_at, g.finished_at
+            from game_player p join game g on g.id = p.game_id
+            where p.player = ? and p.game_id < ?""";
+    // The leading columns of the index are part of the order, otherwise H2 sorts the whole range of the player
+    private static final String LATEST = " order by p.player, p.game_id desc limit ?";
+    private static final String LATEST_AGAINST = " order by p.player, p.opponent, p.game_id desc limit ?";
+    private static final String LATEST_WITH_TARGET = " order by p.player, p.target_score, p.game_id desc limit ?";
+    private static final String LATEST_WITH_STATUS = " order by p.player, p.status, p.game_id desc limit ?";
+    // The first game of a player created at or after a time
+    private static final String FIRST_SINCE = "select game_id from game_player where player = ? and created_at >= ? " +
+            "order by player, created_at limit 1";
+
+    private static final RowMapper<Game> GAME_ROW = (row, i) -> Game.builder()
+            .id(row.getLong(1))
+            .playerOne(row.getString(2))
+            .playerTwo(row.getString(3))
+            .gameStatus(row.getString(4) == null ? null : GameStatus.valueOf(row.getString(4)))
+            .playerOneScores(row.getInt(5))
+            .playerTwoScores(row.getInt(6))
+            .turn(row.getString(7))
+            .winner(row.getString(8))
+            .variant(row.getString(9) == null ? null : GameVariant.valueOf(row.getString(9)))
+            .targetScore(row.getInt(10))
+            .createdAt(instant(row.getTimestamp(11)))
+            .finishedAt(instant(row.getTimestamp(12)))
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PlayerGameIndex(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * This method adds the players of the games to the index, or updates their opponent (when a player joins).
+     *
+     * @param games - The saved games
+     */
+    public void add(Collection<Game> games) {
+        List<Object[]> rows = new ArrayList<>();
+        for (Game game : games) {
+            Timestamp createdAt = game.getCreatedAt() == null ? null : Timestamp.from(game.getCreatedAt());
+            String status = game.getGameStatus() == null ? null : game.getGameStatus().name();
+            boolean joined = game.getPlayerTwo() != null && !game.getPlayerTwo().isEmpty();
+            rows.add(new Object[]{game.getId(), game.getPlayerOne(), joined ? game.getPlayerTwo() : null, createdAt,
+                    game.getTargetScore(), status});
+            if (joined) {
+                rows.add(new Object[]{game.getId(), game.getPlayerTwo(), game.getPlayerOne(), createdAt,
+                        game.getTargetScore(), status});
+            }
+        }
+        if (!rows.isEmpty()) jdbcTemplate.batchUpdate(UPSERT, rows);
+    }
+
+    /**
+     * This method updates the status of the games (e.g. the first throw, a win or a redo) for both players.
+     *
+     * @param games - The games with their new status
+     */
+    public void setStatus(Collection<Game> games) {
+        if (games.isEmpty()) return;
+        jdbcTemplate.batchUpdate(STATUS,
+                games.stream().map(game -> new Object[]{game.getGameStatus().name(), game.getId()}).toList());
+    }
+
+    /**
+     * This method indexes the games that aren't indexed yet (the games created before the index existed) and the
+     * target score and status of the games indexed without them.
+     *
+     * @return - The number of added participations
+     */
+    public int addMissing() {
+        jdbcTemplate.update(BACKFILL_TARGET);
+        jdbcTemplate.update(BACKFILL_STATUS);
+        return jdbcTemplate.update(BACKFILL.formatted("player_one", "player_two"))
+                + jdbcTemplate.update(BACKFILL.formatted("player_two", "player_one"));
+    }
+
+    /**
+     * This method returns a page of the games of a player, newest first.
+     *
+     * @param player      - The name of the player
+     * @param before      - The page starts below this game id
+     * @param limit       - The maximum number of games
+     * @param opponent    - The opponent (optional)
+     * @param status      - The status of the games (optional)
+     * @param targetScore - The target score of the games (optional)
+     * @param from        - The games created at or after this time (optional)
+     * @param to          - The games created before this time (optional)
+     * @return - The games
+     */
+    public List<Game> findPlayerGames(String player, long before, int limit, String opponent, GameStatus status,
+                                      Integer targetScore, Instant from, Instant to) {
+        // The time window as a range of game ids, the creation time is checked as well for games created at once
+        Long first = from == null ? null : firstGameSince(player, from);
+        if (from != null && first == null) return List.of();
+        Long end = to == null ? null : firstGameSince(player, to);
+
+        StringBuilder sql = new StringBuilder(GAMES);
+        List<Object> args = new ArrayList<>(List.of(player, end == null ? before : Math.min(before, end)));
+        if (first != null) {
+            sql.append(" and p.game_id >= ? and p.created_at >= ?");
+            args.add(first);
+            args.add(Timestamp.from(from));
+        }
+        if (end != null) {
+            sql.append(" and p.created_at < ?");
+            args.add(Timestamp.from(to));
+        }
+        if (opponent != null) {
+            sql.append(" and p.opponent = ?");
+            args.add(opponent);
+        }
+        if (targetScore != null) {
+            sql.append(" and p.target_score = ?");
+            args.add(targetScore);
+        }
+        if (status != null) {
+            sql.append(" and p.status = ?");
+            args.add(status.name());
+        }
+        sql.append(opponent != null ? LATEST_AGAINST
+                : targetScore != null ? LATEST_WITH_TARGET
+                : status != null ? LATEST_WITH_STATUS
+                : LATEST);
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(), GAME_ROW, args.toArray());
+    }
+
+    private Long firstGameSince(String player, Instant time) {
+        List<Long> gameIds = jdbcTemplate.queryForList(FIRST_SINCE, Long.class, player, Timestamp.from(time));
+        return gameIds.isEmpty() ? null : gameIds.get(0);
+    }
+
+    private static Instant instant(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toInstant();
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.springdartsgame.persistence;
+
+import com.example.springdartsgame.entity.TournamentMatch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TournamentMatchRepository extends JpaRepository<TournamentMatch, Long> {
+    List<TournamentMatch> findAllByTournamentIdOrderBySlot(long tournamentId);
+}
@@ -0,0 +1,9 @@
+package com.example.springdartsgame.persistence;
+
+import com.example.springdartsgame.entity.Tournament;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TournamentRepository extends JpaRepository<Tournament, Long> {
+}
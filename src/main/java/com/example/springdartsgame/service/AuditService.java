@@ -0,0 +1,242 @@
+package com.example.springdartsgame.service;
+
+import com.example.springdartsgame.config.Leagues;
+import com.example.springdartsgame.entity.Game;
+import com.example.springdartsgame.entity.Move;
+import com.example.springdartsgame.model.AuditMismatch;
+import com.example.springdartsgame.model.AuditReport;
+import com.example.springdartsgame.model.GameStatus;
+import com.example.springdartsgame.model.GameVariant;
+import com.example.springdartsgame.persistence.MoveStore;
+import com.example.springdartsgame.util.GameAuditor;
+import com.example.springdartsgame.util.LeagueContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * This service audits the integrity of all games: the moves of every game are replayed with the rules of its variant
+ * and compared with the game (see {@link GameAuditor}). The games are partitioned by id and audited in parallel on a
+ * fork/join pool of its own (the tasks block on JDBC, so they must not run on the common pool, and they take fewer
+ * connections than the connection pool has). Each chunk of games is read with a query, the moves of the chunk are
+ * streamed from the {@link MoveStore} ordered by game and only the moves of one game are held at a time. The leagues
+ * are audited one after the other, the tasks of a league query the database of the league.
+ */
+@Service
+public class AuditService implements AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AuditService.class);
+
+    private static final String GAME_RANGE = "select min(id) as low, max(id) as high from game";
+    private static final String GAMES = """
+            select id, player_one, player_two, game_status, player_one_scores, player_two_scores, turn, variant,
+                   target_score, head_move, latest_move
+            from game where id between ? and ? order by id""";
+
+    private static final RowMapper<Game> GAME_ROW = (row, i) -> Game.builder()
+            .id(row.getLong(1))
+            .playerOne(row.getString(2))
+            .playerTwo(row.getString(3))
+            .gameStatus(row.getString(4) == null ? null : GameStatus.valueOf(row.getString(4)))
+            .playerOneScores(row.getInt(5))
+            .playerTwoScores(row.getInt(6))
+            .turn(row.getString(7))
+            .variant(row.getString(8) == null ? null : GameVariant.valueOf(row.getString(8)))
+            .targetScore(row.getInt(9))
+            .headMove(row.getInt(10))
+            .latestMove(row.getInt(11))
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MoveStore moveStore;
+    private final Leagues leagues;
+    private final ForkJoinPool pool;
+    private final long chunkSize;
+    private final int maxMismatches;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile AuditReport lastReport;
+
+    public AuditService(DataSource dataSource, MoveStore moveStore, Leagues leagues,
+                        @Value("${darts.audit.chunk-size:1000}") long chunkSize,
+                        @Value("${darts.audit.max-mismatches:1000}") int maxMismatches,
+                        @Value("${darts.audit.parallelism:4}") int parallelism,
+                        @Value("${spring.datasource.hikari.maximum-pool-size:10}") int connections) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.moveStore = moveStore;
+        this.leagues = leagues;
+        // At least one connection is left for the requests
+        this.pool = new ForkJoinPool(Math.max(1, Math.min(parallelism, connections - 1)));
+        this.chunkSize = chunkSize;
+        this.maxMismatches = maxMismatches;
+    }
+
+    /**
+     * This method audits all games. The games that are changed while the audit runs may be reported as well. Only one
+     * audit runs at a time, each one reads all games and takes the connections of its pool.
+     *
+     * @return - The report with the mismatches and the throughput, or null if another audit is still running
+     */
+    public AuditReport audit() {
+        if (!running.compareAndSet(false, true)) return null;
+        try {
+            return auditLeagues();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private AuditReport auditLeagues() {
+        long start = System.nanoTime();
+        Tally tally = new Tally();
+        for (String league : leagues.names()) {
+            Map<String, Object> range = LeagueContext.call(league, () -> jdbcTemplate.queryForMap(GAME_RANGE));
+            Number low = (Number) range.get("low");
+            Number high = (Number) range.get("high");
+            if (low != null) tally.merge(pool.invoke(new AuditTask(league, low.longValue(), high.longValue())));
+        }
+
+        long nanos = System.nanoTime() - start;
+        double seconds = nanos / (double) TimeUnit.SECONDS.toNanos(1);
+        AuditReport report = new AuditReport(tally.games, tally.moves, tally.mismatchCount,
+                List.copyOf(tally.mismatches), TimeUnit.NANOSECONDS.toMillis(nanos),
+                tally.games / seconds, tally.moves / seconds, pool.getParallelism());
+        LOGGER.info("Audited {} games and {} moves in {} ms, {} mismatches", report.games(), report.moves(),
+                report.millis(), report.mismatchCount());
+        lastReport = report;
+        return report;
+    }
+
+    /**
+     * This method returns the report of the last audit.
+     *
+     * @return - The report, or null if there was no audit yet
+     */
+    public AuditReport getLastReport() {
+        return lastReport;
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    // The games, moves and mismatches of a part of the audit
+    private final class Tally {
+        private long games;
+        private long moves;
+        private long mismatchCount;
+        private final List<AuditMismatch> mismatches = new ArrayList<>();
+
+        private void add(List<AuditMismatch> found) {
+            mismatchCount += found.size();
+            for (AuditMismatch mismatch : found) {
+                if (mismatches.size() < maxMismatches) mismatches.add(mismatch);
+            }
+        }
+
+        private Tally merge(Tally other) {
+            games += other.games;
+            moves += other.moves;
+            mismatchCount += other.mismatchCount - other.mismatches.size();
+            add(other.mismatches);
+            return this;
+        }
+    }
+
+    // Splits the id range in halves until it fits into a chunk
+    private final class AuditTask extends RecursiveTask<Tally> {
+        private final String league;
+        private final long fromId;
+        private final long toId;
+
+        private AuditTask(String league, long fromId, long toId) {
+            this.league = league;
+            this.fromId = fromId;
+            this.toId = toId;
+        }
+
+        @Override
+        protected Tally compute() {
+            if (toId - fromId < chunkSize) return LeagueContext.call(league, () -> auditChunk(fromId, toId));
+
+            long middle = fromId + (toId - fromId) / 2;
+            AuditTask upper = new AuditTask(league, middle + 1, toId);
+            upper.fork();
+            Tally lower = new AuditTask(league, fromId, middle).compute();
+            return lower.merge(upper.join());
+        }
+    }
+
+    private Tally auditChunk(long fromId, long toId) {
+        List<Game> games = jdbcTemplate.query(GAMES, GAME_ROW, fromId, toId);
+        ChunkAudit chunkAudit = new ChunkAudit(games.iterator());
+        moveStore.forEachMove(fromId, toId, false, chunkAudit);
+        chunkAudit.finish();
+        return chunkAudit.tally;
+    }
+
+    // Merges the games of a chunk with the stream of their moves (both are ordered by game id)
+    private final class ChunkAudit implements Consumer<Move> {
+        private final Tally tally = new Tally();
+        private final Iterator<Game> games;
+        private Game nextGame;
+        private long gameId = -1;
+        private List<Move> moves = new ArrayList<>();
+
+        private ChunkAudit(Iterator<Game> games) {
+            this.games = games;
+            this.nextGame = games.hasNext() ? games.next() : null;
+        }
+
+        @Override
+        public void accept(Move move) {
+            if (move.getGameId() != gameId) {
+                auditGame();
+                gameId = move.getGameId();
+            }
+            moves.add(move);
+        }
+
+        // Audits the game of the current moves, and the games without moves before it
+        private void auditGame() {
+            if (gameId < 0) return;
+
+            Game game = null;
+            while (nextGame != null && nextGame.getId() <= gameId) {
+                if (nextGame.getId() == gameId) game = nextGame;
+                else audit(nextGame, List.of());
+                nextGame = games.hasNext() ? games.next() : null;
+            }
+            if (game == null) tally.add(List.of(new AuditMismatch(gameId, -1, "There are moves without a game")));
+            else audit(game, moves);
+            tally.moves += moves.size();
+            moves = new ArrayList<>();
+        }
+
+        private void audit(Game game, List<Move> gameMoves) {
+            tally.games++;
+            tally.add(GameAuditor.audit(game, gameMoves));
+        }
+
+        private void finish() {
+            auditGame();
+            while (nextGame != null) {
+                audit(nextGame, List.of());
+                nextGame = games.hasNext() ? games.next() : null;
+            }
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.example.springdartsgame.service;
+
+import com.example.springdartsgame.entity.Game;
+import com.example.springdartsgame.model.DartProgress;
+import com.example.springdartsgame.model.GameStatus;
+import com.example.springdartsgame.model.GameVariant;
+import com.example.springdartsgame.model.Result;
+import com.example.springdartsgame.model.Throws;
+import com.example.springdartsgame.model.Visit;
+import com.example.springdartsgame.model.dto.GameView;
+import com.example.springdartsgame.persistence.GameRepository;
+import com.example.springdartsgame.util.GameLocks;
+import com.example.springdartsgame.util.GameValidator;
+import com.example.springdartsgame.util.LeagueContext;
+import com.example.springdartsgame.util.RuleTable;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * This service ingests the single darts of electronic boards. The darts of a visit are buffered per player in memory
+ * and played one by one with the rules of the game (see {@link GameProgressService#playDart}), so the board gets the
+ * remaining score after every dart without a write. A visit is complete when the third dart lands, on a bust or on a
+ * checkout.
+ * <p>
+ * The complete visits are committed in micro-batches (group commit): a flusher thread takes all visits that were
+ * completed while the previous batch was committed and commits them in one transaction (see
+ * {@link GameService#commitVisits}). The request of the last dart waits for the commit and returns the game, like a
+ * throw. A visit is dropped if its game changed before the next dart (e.g. the turn clock skipped the turn).
+ */
+@Service
+@Lazy(false) // Starts the flusher with the application, also under lazy initialization
+public class DartService implements AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DartService.class);
+
+    private final GameService gameService;
+    private final GameReadModel gameReadModel;
+    private final GameRepository gameRepository;
+    private final GameProgressService gameProgressService;
+    private final GameValidator gameValidator;
+    private final GameLocks gameLocks;
+    private final int batchSize;
+
+    // The visit of each player, until it is committed
+    private final Map<String, PendingVisit> visits = new ConcurrentHashMap<>();
+    // The games with a visit that is being committed
+    private final Map<Long, PendingVisit> committing = new ConcurrentHashMap<>();
+    // At most one visit per player
+    private final BlockingQueue<PendingVisit> completedVisits = new LinkedBlockingQueue<>();
+    private final Thread flusher;
+    private final Counter darts;
+    private final DistributionSummary batches;
+
+    public DartService(GameService gameService, GameReadModel gameReadModel, GameRepository gameRepository,
+                       GameProgressService gameProgressService, GameValidator gameValidator, GameLocks gameLocks,
+                       MeterRegistry meterRegistry,
+                       @Value("${darts.dart-ingestion.batch-size:100}") int batchSize) {
+        this.gameService = gameService;
+        this.gameReadModel = gameReadModel;
+        this.gameRepository = gameRepository;
+        this.gameProgressService = gameProgressService;
+        this.gameValidator = gameValidator;
+        this.gameLocks = gameLocks;
+        this.batchSize = batchSize;
+        this.darts = Counter.builder("darts.dart-ingestion.darts")
+                .description("Single darts received from boards").register(meterRegistry);
+        this.batches = DistributionSummary.builder("darts.dart-ingestion.batch")
+                .description("Visits committed per transaction").register(meterRegistry);
+        this.flusher = new Thread(this::flush, "dart-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * This method adds a dart to the visit of a player.
+     *
+     * @param player - The name of the player
+     * @param dart   - The dart
+     * @return - The progress of the visit (202), or the game once the visit is committed (200)
+     */
+    public ResponseEntity<?> throwDart(String player, String dart) {
+        var invalidDart = gameValidator.validateDart(dart);
+        if (invalidDart != null) return invalidDart;
+
+        // The darts of a player are added one at a time, the commit is awaited without the lock
+        CompletableFuture<ResponseEntity<?>> response = gameLocks.withPlayer(player, () -> addDart(player, dart));
+        try {
+            return response.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    // Returns the progress of the visit, or the commit of the visit if it is complete
+    private CompletableFuture<ResponseEntity<?>> addDart(String player, String dart) {
+        PendingVisit visit = visits.get(player);
+        GameView view = gameReadModel.getStatus(player);
+        if (visit != null && visit.commit != null
+                || view != null && committing.containsKey(view.game().getGameId())) {
+            // The board retries, the read model shows the game of the last visit once it is committed
+            return CompletableFuture.completedFuture(
+                    new ResponseEntity<>(new Result("The last visit is being committed!"), HttpStatus.CONFLICT));
+        }
+        Game game = view == null ? null : gameRepository.findById(view.game().getGameId())
+                .filter(g -> g.getGameStatus() != GameStatus.USER_WINS)
+                .orElse(null);
+        var invalidGame = gameValidator.validateOngoingGame(player, game);
+        if (invalidGame != null) {
+            visits.remove(player);
+            return CompletableFuture.completedFuture(invalidGame);
+        }
+
+        assert game != null; // The validator should have returned an error if the game is null
+        if (visit == null || visit.gameId != game.getId() || visit.version != game.getVersion()) {
+            visit = new PendingVisit(player, game.getId(), game.getVersion(), game.getVariant(),
+                    gameProgressService.startVisit(game, player));
+            visits.put(player, visit);
+        }
+
+        darts.increment();
+        visit.darts.add(dart);
+        int next = gameProgressService.playDart(visit.variant, visit.state, dart);
+        if (next >= 0) visit.state = next;
+        if (next >= 0 && visit.darts.size() < 3) {
+            return CompletableFuture.completedFuture(new ResponseEntity<>(new DartProgress(visit.gameId,
+                    List.copyOf(visit.darts), RuleTable.score(visit.state)), HttpStatus.ACCEPTED));
+        }
+
+        visit.commit = new CompletableFuture<>();
+        committing.put(visit.gameId, visit);
+        completedVisits.add(visit);
+        return visit.commit;
+    }
+
+    private void flush() {
+        List<PendingVisit> batch = new ArrayList<>(batchSize);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                // The visits that were completed while the last batch was committed
+                batch.add(completedVisits.take());
+                completedVisits.drainTo(batch, batchSize - 1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            commit(batch);
+            batch.clear();
+        }
+    }
+
+    private void commit(List<PendingVisit> batch) {
+        Map<String, List<PendingVisit>> leagues = new LinkedHashMap<>();
+        for (PendingVisit visit : batch) leagues.computeIfAbsent(visit.league, l -> new ArrayList<>()).add(visit);
+
+        for (Map.Entry<String, List<PendingVisit>> league : leagues.entrySet()) {
+            List<PendingVisit> leagueVisits = league.getValue();
+            try {
+                List<ResponseEntity<?>> responses = LeagueContext.call(league.getKey(),
+                        () -> gameService.commitVisits(leagueVisits.stream().map(PendingVisit::toVisit).toList()));
+                batches.record(leagueVisits.size());
+                for (int i = 0; i < leagueVisits.size(); i++) finish(leagueVisits.get(i), responses.get(i), null);
+            } catch (RuntimeException e) {
+                LOGGER.warn("Could not commit {} visits", leagueVisits.size(), e);
+                for (PendingVisit visit : leagueVisits) finish(visit, null, e);
+            }
+        }
+    }
+
+    private void finish(PendingVisit visit, ResponseEntity<?> response, RuntimeException failure) {
+        visits.remove(visit.player, visit);
+        committing.remove(visit.gameId, visit);
+        if (failure == null) visit.commit.complete(response);
+        else visit.commit.completeExceptionally(failure);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        flusher.interrupt();
+        flusher.join();
+        for (PendingVisit visit = completedVisits.poll(); visit != null; visit = completedVisits.poll()) {
+            finish(visit, null, new IllegalStateException("The dart ingestion was stopped"));
+        }
+    }
+
+    // The darts of a visit, changed under the lock of the player
+    private static final class PendingVisit {
+        private final String player;
+        private final long gameId;
+        private final int version;
+        private final GameVariant variant;
+        private final String league = LeagueContext.current();
+        private final List<String> darts = new ArrayList<>(3);
+        private int state; // The state of the rule table after the darts that didn't end the visit
+        private volatile CompletableFuture<ResponseEntity<?>> commit; // Set when the visit is complete
+
+        private PendingVisit(String player, long gameId, int version, GameVariant variant, int state) {
+            this.player = player;
+            this.gameId = gameId;
+            this.version = version;
+            this.variant = variant;
+            this.state = state;
+        }
+
+        private Visit toVisit() {
+            return new Visit(player, gameId, version, new Throws(darts.get(0), dart(1), dart(2)));
+        }
+
+        private String dart(int index) {
+            return index < darts.size() ? darts.get(index) : "none";
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.example.springdartsgame.service;
+
+import com.example.springdartsgame.config.Leagues;
+import com.example.springdartsgame.model.GameStatus;
+import com.example.springdartsgame.persistence.MoveStore;
+import com.example.springdartsgame.util.LeagueContext;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.function.LongPredicate;
+
+/**
+ * This service exports the games and moves as newline-delimited JSON (one row per line). The rows are read with a
+ * forward-only cursor and written straight to the output stream, so the memory use doesn't depend on the table size.
+ * The moves are streamed from the {@link MoveStore} the same way. When the moves are filtered by the status of their
+ * games, a second cursor reads the ids of the games with the status in the order of the moves (by game id) and is
+ * moved along with them, so the filter doesn't hold any ids either.
+ * <p>
+ * The leagues are exported one after the other, each from its own database. The ids of the leagues are disjoint and
+ * ascending ranges (see {@link Leagues}), so the rows are ordered by id across all leagues without a merge.
+ * <p>
+ * The export runs in auto-commit mode without a transaction. H2 reads a consistent snapshot without locking the
+ * tables (MVCC), so live throws are not blocked. H2 is switched to lazy query execution for the export, otherwise it
+ * would materialize the whole result before the first row is returned.
+ */
+@Service
+public class ExportService {
+    private static final String GAMES = """
+            select id, player_one, player_two, game_status, player_one_scores, player_two_scores, turn, variant,
+                   target_score, head_move, winner
+            from game where id between ? and ?""";
+    private static final String GAME_IDS =
+            "select id from game where id between ? and ? and game_status = ? order by id";
+    private static final String GAME_STATUS = " and game_status = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MoveStore moveStore;
+    private final Leagues leagues;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+
+    public ExportService(DataSource dataSource, MoveStore moveStore, Leagues leagues, ObjectMapper objectMapper,
+                         @Value("${darts.export.fetch-size:500}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.moveStore = moveStore;
+        this.leagues = leagues;
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * This method writes the games with an id in the given range (and the given status) to the output stream.
+     *
+     * @param fromId - The lowest game id
+     * @param toId   - The highest game id
+     * @param status - The status of the games, null for all games
+     * @param out    - The output stream
+     */
+    public void exportGames(long fromId, long toId, GameStatus status, OutputStream out) {
+        forEachLeague(fromId, toId, (from, to) -> export(GAMES + (status == null ? "" : GAME_STATUS), from, to,
+                status, out, this::writeGame));
+    }
+
+    private void writeGame(ResultSet row, JsonGenerator json) throws SQLException, IOException {
+        json.writeNumberField("gameId", row.getLong(1));
+        json.writeStringField("playerOne", row.getString(2));
+        json.writeStringField("playerTwo", row.getString(3));
+        json.writeStringField("gameStatus", row.getString(4));
+        json.writeNumberField("playerOneScores", row.getInt(5));
+        json.writeNumberField("playerTwoScores", row.getInt(6));
+        json.writeStringField("turn", row.getString(7));
+        json.writeStringField("variant", row.getString(8));
+        json.writeNumberField("targetScore", row.getInt(9));
+        json.writeNumberField("headMove", row.getInt(10));
+        json.writeStringField("winner", row.getString(11));
+    }
+
+    /**
+     * This method writes the moves of the games with an id in the given range (and the given status) to the output
+     * stream. Superseded moves (from before a revert) are included and flagged.
+     *
+     * @param fromId - The lowest game id
+     * @param toId   - The highest game id
+     * @param status - The status of the games, null for all games
+     * @param out    - The output stream
+     */
+    public void exportMoves(long fromId, long toId, GameStatus status, OutputStream out) {
+        forEachLeague(fromId, toId, (from, to) -> exportLeagueMoves(from, to, status, out));
+    }
+
+    private void exportLeagueMoves(long fromId, long toId, GameStatus status, OutputStream out) {
+        if (status == null) {
+            writeMoves(fromId, toId, gameId -> true, out);
+            return;
+        }
+
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            setLazyQueryExecution(connection, true);
+            try (PreparedStatement statement = connection.prepareStatement(GAME_IDS, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY)) {
+                statement.setFetchSize(fetchSize);
+                statement.setLong(1, fromId);
+                statement.setLong(2, toId);
+                statement.setString(3, status.name());
+                try (ResultSet gameIds = statement.executeQuery()) {
+                    writeMoves(fromId, toId, new GameIdCursor(gameIds)::contains, out);
+                }
+            } finally {
+                setLazyQueryExecution(connection, false);
+            }
+            return null;
+        });
+    }
+
+    private void writeMoves(long fromId, long toId, LongPredicate gameFilter, OutputStream out) {
+        try (JsonGenerator json = createGenerator(out)) {
+            moveStore.forEachMove(fromId, toId, true, move -> {
+                if (!gameFilter.test(move.getGameId())) return;
+                try {
+                    json.writeStartObject();
+                    json.writeNumberField("id", move.getId());
+                    json.writeNumberField("gameId", move.getGameId());
+                    json.writeNumberField("move", move.getMove());
+                    json.writeStringField("playerOne", move.getPlayerOne());
+                    json.writeStringField("playerTwo", move.getPlayerTwo());
+                    json.writeStringField("gameStatus", move.getGameStatus());
+                    json.writeNumberField("playerOneScores", move.getPlayerOneScores());
+                    json.writeNumberField("playerTwoScores", move.getPlayerTwoScores());
+                    json.writeStringField("turn", move.getTurn());
+                    json.writeBooleanField("superseded", move.isSuperseded());
+                    json.writeNumberField("revision", move.getRevision());
+                    json.writeEndObject();
+                    json.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            json.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Runs the export of each league whose ids intersect the range, with the intersection
+    private void forEachLeague(long fromId, long toId, IdRange export) {
+        for (String league : leagues.names()) {
+            long from = Math.max(fromId, leagues.firstId(league));
+            long to = Math.min(toId, leagues.lastId(league));
+            if (from <= to) LeagueContext.run(league, () -> export.accept(from, to));
+        }
+    }
+
+    private void export(String sql, long fromId, long toId, GameStatus status, OutputStream out, RowWriter rowWriter) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            setLazyQueryExecution(connection, true);
+            try (PreparedStatement statement = connection.prepareStatement(sql + " order by id",
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                 JsonGenerator json = createGenerator(out)) {
+                statement.setFetchSize(fetchSize);
+                statement.setLong(1, fromId);
+                statement.setLong(2, toId);
+                if (status != null) statement.setString(3, status.name());
+
+                try (ResultSet row = statement.executeQuery()) {
+                    while (row.next()) {
+                        json.writeStartObject();
+                        rowWriter.write(row, json);
+                        json.writeEndObject();
+                        json.writeRaw('\n');
+                    }
+                }
+                json.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                setLazyQueryExecution(connection, false);
+            }
+            return null;
+        });
+    }
+
+    private JsonGenerator createGenerator(OutputStream out) throws IOException {
+        JsonGenerator json = objectMapper.getFactory().createGenerator(out);
+        json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        json.setRootValueSeparator(null);
+        return json;
+    }
+
+    private static void setLazyQueryExecution(Connection connection, boolean lazy) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET LAZY_QUERY_EXECUTION " + (lazy ? "TRUE" : "FALSE"));
+        }
+    }
+
+    // The game ids of a result ordered by id, checked against ascending game ids (the games of the moves)
+    private static final class GameIdCursor {
+        private final ResultSet gameIds;
+        private long gameId = Long.MIN_VALUE;
+        private boolean exhausted;
+
+        private GameIdCursor(ResultSet gameIds) {
+            this.gameIds = gameIds;
+        }
+
+        private boolean contains(long moveGameId) {
+            try {
+                while (!exhausted && gameId < moveGameId) {
+                    if (gameIds.next()) gameId = gameIds.getLong(1);
+                    else exhausted = true;
+                }
+                return gameId == moveGameId;
+            } catch (SQLException e) {
+                throw new IllegalStateException("Can't read the ids of the exported games", e);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface IdRange {
+        void accept(long fromId, long toId);
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(ResultSet row, JsonGenerator json) throws SQLException, IOException;
+    }
+}
@@ -2,90 +2,90 @@ package com.example.springdartsgame.service;
 
 import com.example.springdartsgame.entity.Game;
 import com.example.springdartsgame.model.GameStatus;
-import com.example.springdartsgame.model.ThrowPoints;
+import com.example.springdartsgame.model.GameVariant;
+import com.example.springdartsgame.model.ThrowOutcome;
 import com.example.springdartsgame.model.Throws;
+import com.example.springdartsgame.util.RuleTable;
 import org.springframework.stereotype.Component;
 
-import java.util.Arrays;
-import java.util.List;
-import java.util.stream.Stream;
-
 /**
  * This class contains the logic for the game progress (e.g. updating points, game status, etc.).
- * It also contains the main logic for a darts game.
+ * It also contains the main logic for a darts game. The rules of the game variant are looked up in the compiled
+ * {@link RuleTable} of the variant.
  */
 @Component
 public class GameProgressService {
     private enum Player {ONE, TWO} // This enum is used to determine the current player
 
-    public Game updatePoints(Game game, String currentUser, Throws darts) {
+    /**
+     * This method scores a throw of the current player and updates the game. The game is not changed if the throw is
+     * invalid (darts after a bust or a checkout).
+     *
+     * @param game        - The game
+     * @param currentUser - The player that throws the darts
+     * @param darts       - The (validated) throw of the player
+     * @return - The outcome of the throw
+     */
+    public ThrowOutcome updatePoints(Game game, String currentUser, Throws darts) {
         // Get the players and their scores
         Player currentPlayer = game.getPlayerOne().equals(currentUser) ? Player.ONE : Player.TWO;
         String nextPlayer = currentPlayer == Player.ONE ? game.getPlayerTwo() : game.getPlayerOne();
         int scores = currentPlayer == Player.ONE ? game.getPlayerOneScores() : game.getPlayerTwoScores();
 
-        // Get the throw of the current player
-        List<ThrowPoints> playerThrows = Stream.of(darts.first(), darts.second(), darts.third())
-                .filter(t -> !"none".equals(t))
-                .map(points -> Arrays.stream(points.split(":")).mapToInt(Integer::valueOf).toArray())
-                .map(a -> new ThrowPoints(a[0], a[1]))
-                .toList();
-
-        // Calculate the new score and the remaining score
-        int throwsPoints = playerThrows.stream().mapToInt(s -> s.sector() * s.multiplier()).sum();
-        int scoreRemains = scores - throwsPoints;
+        // Play the darts of the throw one by one
+        RuleTable rules = RuleTable.of(game.getVariant());
+        int state = rules.startState(scores, game.getTargetScore());
+        int result = state;
+        for (String dart : new String[]{darts.first(), darts.second(), darts.third()}) {
+            int code = RuleTable.dartCode(dart);
+            if (code == RuleTable.NONE) continue;
+            if (result < 0) return ThrowOutcome.INVALID; // There are darts after a bust or a checkout
+            result = rules.next(state, code);
+            if (result >= 0) state = result;
+        }
 
-        // Update the game status
+        // Update the game status, the scores and the turn
         game.setGameStatus(GameStatus.PLAYING);
-
-        // Check if the game is won after the current throw
-        if (checkVictory(playerThrows, scores)) {
+        if (result == RuleTable.WIN) {
             game.setGameStatus(GameStatus.USER_WINS);
-        } else {
-            game.setTurn(nextPlayer);
-            if (scoreRemains == 0) scoreRemains = scores;
+            game.setWinner(currentUser);
+            setScores(game, currentPlayer, 0);
+            return ThrowOutcome.WIN;
         }
+        game.setTurn(nextPlayer);
+        if (result == RuleTable.BUST) return ThrowOutcome.BUST;
 
-        // Update the scores
-        if (scoreRemains >= 0 && scoreRemains != 1) {
-            if (currentPlayer == Player.ONE) game.setPlayerOneScores(scoreRemains);
-            else game.setPlayerTwoScores(scoreRemains);
-        }
-
-        // Check if the game is a draw or bust
-        if (checkBust(playerThrows, scores)) throw new RuntimeException();
-
-        return game;
+        setScores(game, currentPlayer, RuleTable.score(state));
+        return ThrowOutcome.SCORED;
     }
 
     /**
-     * This method checks if the game is won after the current throw
+     * This method returns the state of the current player at the start of a visit that is played dart by dart (see
+     * {@link #playDart}).
      *
-     * @param playerThrows - The throw of the current player
-     * @param score        - The score of the current player
-     * @return - True if the game is won, false otherwise
+     * @param game        - The game
+     * @param currentUser - The player that throws the darts
+     * @return - The state of the rule table of the game
      */
-    private boolean checkVictory(List<ThrowPoints> playerThrows, int score) {
-        for (var s : playerThrows) {
-            score -= s.sector() * s.multiplier();
-            if (score == 0 && s.multiplier() == 2) return true;
-        }
-        return false;
+    public int startVisit(Game game, String currentUser) {
+        int scores = game.getPlayerOne().equals(currentUser) ? game.getPlayerOneScores() : game.getPlayerTwoScores();
+        return RuleTable.of(game.getVariant()).startState(scores, game.getTargetScore());
     }
 
     /**
-     * This method checks if the game is a draw or bust
+     * This method plays a single dart of a visit, with the same rules as {@link #updatePoints}.
      *
-     * @param playerThrows - The throw of the current player
-     * @param score        - The score of the current player
-     * @return - True if the game is a draw or bust, false otherwise
+     * @param variant - The variant of the game
+     * @param state   - The state before the dart
+     * @param dart    - The (validated) dart
+     * @return - The state after the dart, or RuleTable.WIN or RuleTable.BUST if the visit is over
      */
-    private boolean checkBust(List<ThrowPoints> playerThrows, int score) {
-        for (int i = 0; i <= playerThrows.size() - 1; i++) {
-            ThrowPoints shot = playerThrows.get(i);
-            score -= shot.sector() * shot.multiplier();
-            if (score <= 1 && i != playerThrows.size() - 1) return true;
-        }
-        return false;
+    public int playDart(GameVariant variant, int state, String dart) {
+        return RuleTable.of(variant).next(state, RuleTable.dartCode(dart));
+    }
+
+    private void setScores(Game game, Player player, int scores) {
+        if (player == Player.ONE) game.setPlayerOneScores(scores);
+        else game.setPlayerTwoScores(scores);
     }
 }
@@ -0,0 +1,297 @@
+package com.example.springdartsgame.service;
+
+import com.example.springdartsgame.config.Leagues;
+import com.example.springdartsgame.entity.Game;
+import com.example.springdartsgame.model.GameStatus;
+import com.example.springdartsgame.model.dto.GameDTO;
+import com.example.springdartsgame.model.dto.GameView;
+import com.example.springdartsgame.persistence.GameRepository;
+import com.example.springdartsgame.util.GameMapper;
+import com.example.springdartsgame.util.LeagueContext;
+import com.example.springdartsgame.util.SortedMerge;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * This is the read side of the games: the current view of the games, pre-rendered as JSON and indexed by game id and
+ * by player. The game status and the game list are served from here instead of the database.
+ * <p>
+ * The views are updated by {@link GameService} right after each write, before the response is returned, so a player
+ * always reads their own writes. The read model is kept in memory per instance and rebuilt from the database at
+ * startup. Reads don't lock, writes are serialized.
+ * <p>
+ * The memory doesn't grow with the history: the read model keeps the games that are played and the latest ended games
+ * (won or nobody wins) of each league (a window of {@code darts.read-model.recent-games} games). An older ended game is
+ * dropped from the read model, the game list reads the older games from the database, in pages, below the views. A
+ * game that nobody won stays the game of its players (they can't start another one), only its id is kept for them and
+ * its status is read from the database once it was dropped.
+ * <p>
+ * The views are kept per league (a player has a game status in every league), the game list merges the views of all
+ * leagues.
+ */
+@Service
+@Lazy(false) // Loaded at startup, not by the first request of the faststart profile
+public class GameReadModel {
+    // The games created before the creation time was recorded are the oldest
+    private static final Comparator<GameView> LATEST_FIRST = Comparator
+            .comparing(GameView::createdAt, Comparator.nullsFirst(Comparator.<Instant>naturalOrder()))
+            .thenComparingLong(view -> view.game().getGameId())
+            .reversed();
+
+    private static final EnumSet<GameStatus> ENDED = EnumSet.of(GameStatus.USER_WINS, GameStatus.NOBODY_WINS);
+    private static final Set<GameStatus> NOT_ENDED = EnumSet.complementOf(ENDED);
+    // The older games read from the database per round trip
+    private static final int PAGE_SIZE = 500;
+
+    private final GameRepository gameRepository;
+    private final ObjectMapper objectMapper;
+    private final WinProbabilityService winProbabilityService;
+    private final int recentGames;
+    private final Map<String, LeagueViews> leagues = new ConcurrentHashMap<>();
+
+    public GameReadModel(GameRepository gameRepository, ObjectMapper objectMapper,
+                         WinProbabilityService winProbabilityService, Leagues leagues,
+                         @Value("${darts.read-model.recent-games:10000}") int recentGames) {
+        this.gameRepository = gameRepository;
+        this.objectMapper = objectMapper;
+        this.winProbabilityService = winProbabilityService;
+        this.recentGames = Math.max(1, recentGames);
+        for (String league : leagues.names()) this.leagues.put(league, new LeagueViews());
+    }
+
+    /**
+     * This method loads the games of each league that are played and the latest ended games.
+     */
+    @PostConstruct
+    public void load() {
+        leagues.forEach((name, league) -> {
+            LeagueContext.run(name, () -> {
+                gameRepository.findAllGamesWithStatusIn(NOT_ENDED).forEach(this::publish);
+                List<Game> endedGames = gameRepository.findGamesWithStatusInUpTo(ENDED, Long.MAX_VALUE,
+                        PageRequest.of(0, recentGames));
+                endedGames.forEach(this::publish);
+                // The ended games below the window are read from the database
+                if (endedGames.size() == recentGames) {
+                    long droppedUpTo = endedGames.get(endedGames.size() - 1).getId() - 1;
+                    league.droppedUpTo = Math.max(league.droppedUpTo, droppedUpTo);
+                    for (Object[] game : gameRepository.findPlayersOfGamesWithStatusUpTo(GameStatus.NOBODY_WINS,
+                            droppedUpTo)) {
+                        league.indexPlayers((Long) game[0], (String) game[1], (String) game[2]);
+                    }
+                }
+            });
+        });
+    }
+
+    /**
+     * This method renders the current state of a game of the current league and replaces its view.
+     *
+     * @param game - The game as saved to the database
+     * @return - The new view of the game
+     */
+    public synchronized GameView publish(Game game) {
+        GameView view = render(game);
+        LeagueViews league = leagues.get(LeagueContext.current());
+        GameView previous = league.views.put(view.game().getGameId(), view);
+        if (previous != null) league.unindex(previous);
+        league.index(view);
+        league.dropOldest(recentGames);
+        return view;
+    }
+
+    /**
+     * This method returns the views of all games of all leagues, latest game first. The views of the leagues are
+     * merged by creation time (the id ranges of the leagues don't overlap, the ids only order the games of a league).
+     * The ended games below the window of a league are read from the database.
+     *
+     * @return - The list of views
+     */
+    public List<GameView> listGames() {
+        List<Iterator<GameView>> views = new ArrayList<>();
+        leagues.forEach((name, league) -> {
+            views.add(league.views.values().iterator());
+            if (league.droppedUpTo > 0) views.add(new OlderGames(name, league));
+        });
+        List<GameView> games = new ArrayList<>();
+        SortedMerge.merge(views, LATEST_FIRST).forEachRemaining(games::add);
+        return games;
+    }
+
+    /**
+     * This method returns the game shown to a player in the current league: the latest game of the player that isn't
+     * won yet (also a game that nobody won), otherwise the latest won game.
+     *
+     * @param player - The name of the player
+     * @return - The view of the game, or null if there is no game
+     */
+    public GameView getStatus(String player) {
+        LeagueViews league = leagues.get(LeagueContext.current());
+        NavigableSet<Long> playerGames = league.unfinishedGames.get(player);
+        GameView view = playerGames == null ? null : league.firstView(playerGames);
+        if (view != null) return view;
+        if (playerGames != null && !playerGames.isEmpty()) {
+            // A game that nobody won was dropped from the window, it is still the game of the player
+            Game game = gameRepository.findById(playerGames.first()).orElse(null);
+            if (game != null) return render(game);
+        }
+
+        GameView wonGame = league.firstView(league.wonGames);
+        long droppedUpTo = league.droppedUpTo;
+        if (droppedUpTo == 0 || (wonGame != null && wonGame.game().getGameId() > droppedUpTo)) return wonGame;
+        // The won games of the window were reverted, a dropped game may be the latest won game
+        List<Game> olderGames = gameRepository.findGamesWithStatusUpTo(GameStatus.USER_WINS, droppedUpTo,
+                PageRequest.of(0, 1));
+        if (olderGames.isEmpty() || (wonGame != null && wonGame.game().getGameId() > olderGames.get(0).getId())) {
+            return wonGame;
+        }
+        return render(olderGames.get(0));
+    }
+
+    private GameView render(Game game) {
+        String winner = game.getGameStatus() == GameStatus.USER_WINS ? GameMapper.winner(game) : null;
+        GameDTO dto = GameMapper.mapToGameDTO(game);
+        dto.setWinProbability(winProbabilityService.forGame(game));
+        return render(dto, game.getGameStatus(), winner, game.getCreatedAt());
+    }
+
+    private GameView render(GameDTO game, GameStatus status, String winner, Instant createdAt) {
+        try {
+            return new GameView(game, status, winner, createdAt,
+                    new SerializedString(objectMapper.writeValueAsString(game)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Can't render game " + game.getGameId(), e);
+        }
+    }
+
+    // The views of the games of a league
+    private static final class LeagueViews {
+        // All games, latest game first
+        private final ConcurrentSkipListMap<Long, GameView> views =
+                new ConcurrentSkipListMap<>(Comparator.reverseOrder());
+        // The games of each player that are not won yet, latest game first (the games that nobody won are kept
+        // after their view was dropped)
+        private final Map<String, NavigableSet<Long>> unfinishedGames = new ConcurrentHashMap<>();
+        // The ended games of all players (the window), latest game first
+        private final NavigableSet<Long> endedGames = new ConcurrentSkipListSet<>(Comparator.reverseOrder());
+        // The won games of the window, latest game first
+        private final NavigableSet<Long> wonGames = new ConcurrentSkipListSet<>(Comparator.reverseOrder());
+        // The size of endedGames (the size of a skip list set is counted element by element)
+        private int endedCount;
+        // The ended games up to this id may only be in the database, 0 if no game was dropped
+        private volatile long droppedUpTo;
+
+        private GameView firstView(NavigableSet<Long> gameIds) {
+            for (Long gameId : gameIds) {
+                GameView view = views.get(gameId);
+                if (view != null) return view;
+            }
+            return null;
+        }
+
+        // Must be called from a synchronized method
+        private void index(GameView view) {
+            long gameId = view.game().getGameId();
+            if (ENDED.contains(view.status()) && endedGames.add(gameId)) endedCount++;
+            if (view.status() == GameStatus.USER_WINS) {
+                wonGames.add(gameId);
+                return;
+            }
+            indexPlayers(gameId, view.game().getPlayerOne(), view.game().getPlayerTwo());
+        }
+
+        // Must be called from a synchronized method (or while loading)
+        private void indexPlayers(long gameId, String playerOne, String playerTwo) {
+            for (String player : new String[]{playerOne, playerTwo}) {
+                if (player == null || player.isEmpty()) continue;
+                unfinishedGames.computeIfAbsent(player, p -> new ConcurrentSkipListSet<>(Comparator.reverseOrder()))
+                        .add(gameId);
+            }
+        }
+
+        // Must be called from a synchronized method
+        private void unindex(GameView view) {
+            long gameId = view.game().getGameId();
+            if (endedGames.remove(gameId)) endedCount--;
+            wonGames.remove(gameId);
+            for (String player : new String[]{view.game().getPlayerOne(), view.game().getPlayerTwo()}) {
+                NavigableSet<Long> playerGames = player == null ? null : unfinishedGames.get(player);
+                if (playerGames == null) continue;
+                playerGames.remove(gameId);
+                if (playerGames.isEmpty()) unfinishedGames.remove(player);
+            }
+        }
+
+        // Must be called from a synchronized method
+        private void dropOldest(int recentGames) {
+            while (endedCount > recentGames) {
+                long gameId = endedGames.pollLast();
+                endedCount--;
+                wonGames.remove(gameId);
+                views.remove(gameId);
+                droppedUpTo = Math.max(droppedUpTo, gameId);
+            }
+        }
+    }
+
+    // The ended games of a league that were dropped from the read model, latest game first
+    private final class OlderGames implements Iterator<GameView> {
+        private final String name;
+        private final LeagueViews league;
+        private long upTo;
+        private Iterator<Game> page = Collections.emptyIterator();
+        private GameView next;
+
+        private OlderGames(String name, LeagueViews league) {
+            this.name = name;
+            this.league = league;
+            this.upTo = league.droppedUpTo;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null) {
+                if (!page.hasNext()) {
+                    if (upTo <= 0) return false;
+                    List<Game> games = LeagueContext.call(name, () -> gameRepository.findGamesWithStatusInUpTo(
+                            ENDED, upTo, PageRequest.of(0, PAGE_SIZE)));
+                    upTo = games.size() < PAGE_SIZE ? 0 : games.get(games.size() - 1).getId() - 1;
+                    page = games.iterator();
+                    continue;
+                }
+                Game game = page.next();
+                // A game that was published again (e.g. after a revert) is one of the views
+                if (!league.views.containsKey(game.getId())) next = render(game);
+            }
+            return true;
+        }
+
+        @Override
+        public GameView next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            GameView view = next;
+            next = null;
+            return view;
+        }
+    }
+}
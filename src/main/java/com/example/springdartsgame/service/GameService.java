@@ -1,22 +1,49 @@
 package com.example.springdartsgame.service;
 
+import com.example.springdartsgame.config.Leagues;
 import com.example.springdartsgame.entity.Game;
 import com.example.springdartsgame.entity.Move;
 import com.example.springdartsgame.model.*;
-import com.example.springdartsgame.model.dto.GameDTO;
+import com.example.springdartsgame.model.dto.GameView;
 import com.example.springdartsgame.model.dto.MoveDTO;
 import com.example.springdartsgame.persistence.GameRepository;
+import com.example.springdartsgame.persistence.PlayerGameIndex;
+import com.example.springdartsgame.util.GameLocks;
 import com.example.springdartsgame.util.GameMapper;
 import com.example.springdartsgame.util.GameValidator;
+import com.example.springdartsgame.util.LeagueContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * This service handles the games. The changes of a player and of a game are serialized with {@link GameLocks}, so
+ * that e.g. a player can't create two games at once or two players can't join the same game. When a game ends (it is
+ * won or nobody wins), a {@link GameFinishedEvent} is published (after the locks are released). The turns are limited
+ * by the {@link TurnClock}.
+ */
 @Service
+@Lazy(false) // The head moves are restored before requests are accepted, also in the faststart profile
 public class GameService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(GameService.class);
+
     @Autowired
     private GameRepository gameRepository;
     @Autowired
@@ -25,52 +52,100 @@ public class GameService {
     private GameValidator gameValidator;
     @Autowired
     private MoveService moveService;
+    @Autowired
+    private GameReadModel gameReadModel;
+    @Autowired
+    private WinProbabilityService winProbabilityService;
+    @Autowired
+    private GameLocks gameLocks;
+    @Autowired
+    private TurnClock turnClock;
+    @Autowired
+    private PlayerGameIndex playerGameIndex;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private Leagues leagues;
+    @Autowired
+    private TournamentService tournamentService;
+
+    /**
+     * This method restores the head of the games of each league that were played before the head was recorded, so
+     * that their history, revert and next throw continue at their last move. It runs before requests are accepted.
+     */
+    @PostConstruct
+    public void restoreHeadMoves() {
+        for (String league : leagues.names()) {
+            Integer restored = LeagueContext.call(league,
+                    () -> transactionTemplate.execute(status -> gameRepository.restoreHeadMoves()));
+            if (restored != null && restored > 0) {
+                LOGGER.info("Restored the head of {} games in league {}", restored, league);
+            }
+        }
+    }
 
     /**
      * This method creates a new game and saves it to the database
      *
      * @param playerOne   - The name of the player that initiates the game
      * @param targetScore - The target score for the game
+     * @param variant     - The rules of the game (null for the default variant)
      * @return - The Game object as data transfer object (DTO)
      */
-    public ResponseEntity<?> createGame(String playerOne, int targetScore) {
-        // Validate the target score
+    public ResponseEntity<?> createGame(String playerOne, int targetScore, String variant) {
+        // Validate the target score and the variant
         var invalidTargetScore = gameValidator.validateTargetScore(targetScore);
         if (invalidTargetScore != null) return invalidTargetScore;
-
-        // Check if the player has an unfinished game
-        List<Game> unfinishedGames = gameRepository
-                .findAllUnfinishedPlayerGames(playerOne).stream()
-                .filter(g -> g.getGameStatus() != GameStatus.USER_WINS)
-                .toList();
-
-        // Validate the game
-        var invalidGame = gameValidator.validateUserGame(unfinishedGames);
-        if (invalidGame != null) return invalidGame;
-
-        // Create a new game
-        Game newGame = gameRepository.save(Game.builder()
-                .gameStatus(GameStatus.CREATED)
-                .playerOne(playerOne)
-                .playerTwo("")
-                .playerOneScores(targetScore)
-                .playerTwoScores(targetScore)
-                .turn(playerOne)
-                .build());
-
-        return new ResponseEntity<>(GameMapper.mapToGameDTO(newGame), HttpStatus.OK);
+        var invalidVariant = gameValidator.validateVariant(variant);
+        if (invalidVariant != null) return invalidVariant;
+
+        return gameLocks.withPlayer(playerOne, () -> {
+            // A player in a tournament only plays the games of the tournament
+            var inTournament = gameValidator.validateNotInTournament(tournamentService.isInTournament(playerOne));
+            if (inTournament != null) return inTournament;
+
+            // Check if the player has an unfinished game
+            List<Game> unfinishedGames = gameRepository
+                    .findAllUnfinishedPlayerGames(playerOne).stream()
+                    .filter(g -> g.getGameStatus() != GameStatus.USER_WINS)
+                    .toList();
+
+            // Validate the game
+            var invalidGame = gameValidator.validateUserGame(unfinishedGames);
+            if (invalidGame != null) return invalidGame;
+
+            // Create a new game and index it for the player
+            Game newGame = transactionTemplate.execute(status -> {
+                Game game = gameRepository.save(Game.builder()
+                        .gameStatus(GameStatus.CREATED)
+                        .playerOne(playerOne)
+                        .playerTwo("")
+                        .playerOneScores(targetScore)
+                        .playerTwoScores(targetScore)
+                        .turn(playerOne)
+                        .headMove(-1)
+                        .latestMove(-1)
+                        .variant(variant == null ? GameVariant.DOUBLE_OUT : GameVariant.fromVariant(variant))
+                        .targetScore(targetScore)
+                        .build());
+                playerGameIndex.add(List.of(game));
+                return game;
+            });
+            assert newGame != null; // The transaction template only returns null for a null result
+
+            return new ResponseEntity<>(gameReadModel.publish(newGame), HttpStatus.OK);
+        });
     }
 
     /**
-     * This method returns all the games in the database in descending order by gameId
+     * This method returns all the games in descending order by gameId (from the read model)
      *
      * @return - The list of games
      */
     public ResponseEntity<?> listAllGames() {
-        List<GameDTO> games = gameRepository
-                .findAllGamesSortedById()
-                .stream()
-                .map(GameMapper::mapToGameDTO).toList();
+        List<GameView> games = gameReadModel.listGames();
 
         return new ResponseEntity<>(games, games.isEmpty() ? HttpStatus.NOT_FOUND : HttpStatus.OK);
     }
@@ -83,54 +158,53 @@ public class GameService {
      * @return - The Game object
      */
     public ResponseEntity<?> joinGame(String newPlayer, long gameId) {
-        Game game = gameRepository.findById(gameId).orElse(null);
-
-        // Check if the new player has unfinished games
-        List<Game> unfinishedGames = gameRepository
-                .findAllUnfinishedPlayerGames(newPlayer).stream()
-                .filter(g -> g.getGameStatus() != GameStatus.USER_WINS)
-                .toList();
-
-        // Validate the game
-        var invalidGame = gameValidator.validateGame(game, newPlayer, unfinishedGames);
-        if (invalidGame != null) return invalidGame;
-
-        assert game != null; // The validator should have returned an error if the game is null
-
-        // Update the game status and save it to the database
-        game.setGameStatus(GameStatus.STARTED);
-        game.setPlayerTwo(newPlayer);
-        Game updatedGame = gameRepository.save(game);
-        moveService.createGameMove(GameMapper.mapGameToMove(updatedGame));
-
-        return new ResponseEntity<>(GameMapper.mapToGameDTO(updatedGame), HttpStatus.OK);
+        return gameLocks.withPlayer(newPlayer, () -> gameLocks.withGame(gameId, () -> {
+            // A player in a tournament only plays the games of the tournament
+            var inTournament = gameValidator.validateNotInTournament(tournamentService.isInTournament(newPlayer));
+            if (inTournament != null) return inTournament;
+
+            Game game = findGame(gameId);
+
+            // Check if the new player has unfinished games
+            List<Game> unfinishedGames = gameRepository
+                    .findAllUnfinishedPlayerGames(newPlayer).stream()
+                    .filter(g -> g.getGameStatus() != GameStatus.USER_WINS)
+                    .toList();
+
+            // Validate the game
+            var invalidGame = gameValidator.validateGame(game, newPlayer, unfinishedGames);
+            if (invalidGame != null) return invalidGame;
+
+            assert game != null; // The validator should have returned an error if the game is null
+
+            // Update the game status and save it to the database, the new player is indexed with it
+            game.setGameStatus(GameStatus.STARTED);
+            game.setPlayerTwo(newPlayer);
+            Game updatedGame = transactionTemplate.execute(status -> {
+                playerGameIndex.add(List.of(game));
+                return saveWithMove(game, GameStatus.STARTED);
+            });
+            turnClock.update(updatedGame);
+
+            return new ResponseEntity<>(gameReadModel.publish(updatedGame), HttpStatus.OK);
+        }));
     }
 
     /**
      * This method finds a game for a user that wants to play. If a game is found, and the status of the game is
-     * created or started or playing, then the user automatically participates in the game on the server.
+     * created or started or playing, then the user automatically participates in the game on the server. If the player
+     * has no such game, the latest finished game is returned. The game is served from the read model.
      *
      * @param player - The name of the player that wants to play
      * @return - The Game object
      */
     public ResponseEntity<?> getGameStatus(String player) {
-        // Check if the player has unfinished games
-        List<Game> unfinishedGames = gameRepository
-                .findAllUnfinishedPlayerGames(player).stream()
-                .filter(g -> g.getGameStatus() != GameStatus.USER_WINS)
-                .toList();
-
-        // Get the latest game for the player
-        Game lastGame = unfinishedGames.isEmpty()
-                ? gameRepository.findAllGamesSortedById().stream()
-                .filter(g -> g.getGameStatus() == GameStatus.USER_WINS)
-                .findFirst().orElse(null)
-                : unfinishedGames.get(0);
+        GameView lastGame = gameReadModel.getStatus(player);
 
         // Return the game if it exists
-        return unfinishedGames.isEmpty() && lastGame == null
+        return lastGame == null
                 ? new ResponseEntity<>("{}", HttpStatus.NOT_FOUND)
-                : new ResponseEntity<>(GameMapper.mapToGameDTO(lastGame), HttpStatus.OK);
+                : new ResponseEntity<>(lastGame, HttpStatus.OK);
     }
 
     /**
@@ -141,46 +215,217 @@ public class GameService {
      * @return - The Game object
      */
     public ResponseEntity<?> setThrows(String currentPlayer, Throws dartThrows) {
-        // Find the current game for the player
-        Game currentGame = gameRepository.findAllUnfinishedPlayerGames(currentPlayer).stream()
-                .filter(g -> g.getGameStatus() != GameStatus.USER_WINS)
-                .findFirst().orElse(null);
-
         // Validate the throw
         var invalidThrows = gameValidator.validateThrows(dartThrows);
         if (invalidThrows != null) return invalidThrows;
 
-        // Validate the game
-        var invalidOngoingGame = gameValidator.validateOngoingGame(currentPlayer, currentGame);
-        if (invalidOngoingGame != null) return invalidOngoingGame;
+        return publishIfFinished(gameLocks.withPlayer(currentPlayer, () -> {
+            // Find the current game for the player
+            Game currentGame = gameRepository.findAllUnfinishedPlayerGames(currentPlayer).stream()
+                    .filter(g -> g.getGameStatus() != GameStatus.USER_WINS)
+                    .findFirst().orElse(null);
+
+            // Validate the game
+            var invalidOngoingGame = gameValidator.validateOngoingGame(currentPlayer, currentGame);
+            if (invalidOngoingGame != null) return invalidOngoingGame;
 
-        // Update the game with the throws if they are valid
-        try {
             assert currentGame != null; // Null check is done in the validator above
-            Game updatedPointsGame = gameProgressService.updatePoints(currentGame, currentPlayer, dartThrows);
-            Game updatedGame = gameRepository.save(updatedPointsGame);
-            moveService.createGameMove(GameMapper.mapGameToMove(updatedGame));
-            return new ResponseEntity<>(GameMapper.mapToGameDTO(updatedGame), HttpStatus.OK);
-        } catch (Exception e) {
+            long gameId = currentGame.getId();
+            try {
+                return gameLocks.withGame(gameId, () -> throwDarts(currentGame, currentPlayer, dartThrows));
+            } catch (OptimisticLockingFailureException e) {
+                // A referee changed the game after it was read, read it again (under the lock it can't change)
+                return gameLocks.withGame(gameId, () -> {
+                    Game game = gameRepository.findById(gameId)
+                            .filter(g -> g.getGameStatus() != GameStatus.USER_WINS)
+                            .orElse(null);
+                    var invalidGame = gameValidator.validateOngoingGame(currentPlayer, game);
+                    if (invalidGame != null) return invalidGame;
+
+                    return throwDarts(game, currentPlayer, dartThrows);
+                });
+            }
+        }));
+    }
+
+    private ResponseEntity<?> throwDarts(Game currentGame, String currentPlayer, Throws dartThrows) {
+        // Update the game with the throws if they are valid
+        GameStatus previous = currentGame.getGameStatus();
+        ThrowOutcome outcome = gameProgressService.updatePoints(currentGame, currentPlayer, dartThrows);
+        if (outcome == ThrowOutcome.INVALID) {
             return new ResponseEntity<>(new Result("Wrong throws!"), HttpStatus.BAD_REQUEST);
         }
+
+        Game updatedGame = saveWithMove(currentGame, previous);
+        turnClock.update(updatedGame);
+        return new ResponseEntity<>(gameReadModel.publish(updatedGame), HttpStatus.OK);
     }
 
     /**
-     * This method returns the entire history of a specific game.
+     * This method commits the visits of several players at once (see {@link DartService}). The visits are scored like
+     * a throw, but the games are read with one query and saved with their moves in one transaction, so that the
+     * statements of all visits are sent in JDBC batches. If the transaction fails, the visits are committed one by
+     * one.
+     *
+     * @param visits - The visits, at most one per game
+     * @return - The response of each visit, in the order of the visits
+     */
+    public List<ResponseEntity<?>> commitVisits(List<Visit> visits) {
+        List<ResponseEntity<?>> responses;
+        try {
+            responses = gameLocks.withPlayers(visits.stream().map(Visit::player).toList(),
+                    () -> gameLocks.withGames(visits.stream().map(Visit::gameId).toList(), () -> throwVisits(visits)));
+        } catch (OptimisticLockingFailureException e) {
+            // The batch was rolled back, a game was changed by another writer (e.g. another instance)
+            responses = visits.stream().<ResponseEntity<?>>map(visit -> gameLocks.withPlayer(visit.player(),
+                    () -> gameLocks.withGame(visit.gameId(), () -> throwVisits(List.of(visit)).get(0)))).toList();
+        }
+        responses.forEach(this::publishIfFinished);
+        return responses;
+    }
+
+    // Must be called while holding the locks of the players and the games
+    private List<ResponseEntity<?>> throwVisits(List<Visit> visits) {
+        ResponseEntity<?>[] responses = new ResponseEntity<?>[visits.size()];
+        List<Game> updatedGames = transactionTemplate.execute(status -> {
+            Map<Long, Game> games = gameRepository.findAllById(visits.stream().map(Visit::gameId).toList()).stream()
+                    .collect(Collectors.toMap(Game::getId, Function.identity()));
+            List<Game> scoredGames = new ArrayList<>();
+            List<Game> changedGames = new ArrayList<>();
+            for (int i = 0; i < visits.size(); i++) {
+                Visit visit = visits.get(i);
+                Game game = games.get(visit.gameId());
+                if (game != null && game.getGameStatus() == GameStatus.USER_WINS) game = null;
+                var invalidGame = gameValidator.validateOngoingGame(visit.player(), game);
+                if (invalidGame != null) {
+                    responses[i] = invalidGame;
+                } else if (game.getVersion() != visit.version()) {
+                    // The visit was scored against a game that was reverted or skipped in the meantime
+                    responses[i] = new ResponseEntity<>(new Result("The game has changed!"), HttpStatus.CONFLICT);
+                } else {
+                    GameStatus previous = game.getGameStatus();
+                    if (gameProgressService.updatePoints(game, visit.player(), visit.darts()) == ThrowOutcome.INVALID) {
+                        responses[i] = new ResponseEntity<>(new Result("Wrong throws!"), HttpStatus.BAD_REQUEST);
+                    } else {
+                        moveService.createGameMove(game, GameMapper.mapGameToMove(game));
+                        scoredGames.add(game);
+                        if (game.getGameStatus() != previous) changedGames.add(game);
+                    }
+                }
+            }
+            playerGameIndex.setStatus(changedGames);
+            return gameRepository.saveAll(scoredGames);
+        });
+
+        Map<Long, Game> savedGames = updatedGames.stream().collect(Collectors.toMap(Game::getId, Function.identity()));
+        for (int i = 0; i < visits.size(); i++) {
+            if (responses[i] != null) continue;
+            Game updatedGame = savedGames.get(visits.get(i).gameId());
+            turnClock.update(updatedGame);
+            responses[i] = new ResponseEntity<>(gameReadModel.publish(updatedGame), HttpStatus.OK);
+        }
+        return Arrays.asList(responses);
+    }
+
+    /**
+     * This method applies the penalty for a turn that expired (see {@link TurnClock}): the turn passes to the
+     * opponent, or the opponent wins the game. Nothing happens if the game changed since the turn started.
+     *
+     * @param event - The expired turn
+     */
+    @EventListener
+    public void onTurnExpired(TurnExpiredEvent event) {
+        publishIfFinished(gameLocks.withGame(event.gameId(), () -> {
+            Game game = gameRepository.findById(event.gameId()).orElse(null);
+            if (game == null || game.getVersion() != event.version() || !Objects.equals(game.getTurn(), event.player())
+                    || game.getGameStatus() != GameStatus.STARTED && game.getGameStatus() != GameStatus.PLAYING) {
+                return ResponseEntity.noContent().build();
+            }
+
+            String opponent = event.player().equals(game.getPlayerOne()) ? game.getPlayerTwo() : game.getPlayerOne();
+            GameStatus previous = game.getGameStatus();
+            Game updatedGame;
+            if (event.penalty() == TurnPenalty.FORFEIT) {
+                // Like a decision of a referee, without a move
+                game.setGameStatus(GameStatus.USER_WINS);
+                game.setWinner(opponent);
+                updatedGame = saveGame(game, previous);
+                turnClock.update(updatedGame);
+            } else {
+                // Like a visit without points
+                game.setGameStatus(GameStatus.PLAYING);
+                game.setTurn(opponent);
+                updatedGame = saveWithMove(game, previous);
+                turnClock.skipped(updatedGame);
+            }
+            return ResponseEntity.ok(gameReadModel.publish(updatedGame));
+        }));
+    }
+
+    // Publishes a GameFinishedEvent if the response is a game that ended (it is won or nobody wins)
+    private ResponseEntity<?> publishIfFinished(ResponseEntity<?> response) {
+        if (response.getBody() instanceof GameView view
+                && (view.status() == GameStatus.USER_WINS || view.status() == GameStatus.NOBODY_WINS)) {
+            eventPublisher.publishEvent(new GameFinishedEvent(view.game().getGameId(), view.winner()));
+        }
+        return response;
+    }
+
+    // Reads a game of the current league. The game cache is keyed by the id only, so the id of a game of another
+    // league (chosen with the league header) isn't looked up at all, it isn't found like any unknown id.
+    private Game findGame(long gameId) {
+        if (!leagues.ownsId(LeagueContext.current(), gameId)) return null;
+        return gameRepository.findById(gameId).orElse(null);
+    }
+
+    // Appends a move with the current state of the game and saves the game, both or neither. The participations of
+    // its players follow if the status changed (e.g. the first throw or a win).
+    private Game saveWithMove(Game game, GameStatus previous) {
+        return transactionTemplate.execute(status -> {
+            moveService.createGameMove(game, GameMapper.mapGameToMove(game));
+            if (game.getGameStatus() != previous) playerGameIndex.setStatus(List.of(game));
+            return gameRepository.save(game);
+        });
+    }
+
+    // Saves a game without a move (forfeits and referees), the participations of its players follow if the status
+    // changed (e.g. a cancel, a redo or a revert)
+    private Game saveGame(Game game, GameStatus previous) {
+        if (game.getGameStatus() == previous) return gameRepository.save(game);
+        return transactionTemplate.execute(status -> {
+            playerGameIndex.setStatus(List.of(game));
+            return gameRepository.save(game);
+        });
+    }
+
+    /**
+     * This method returns the history of a specific game, or a range of it. Clients can fetch only the moves after
+     * the last move they have seen.
      *
      * @param gameId - The id of the game
+     * @param from   - The first move
+     * @param to     - The last move (null for the current move of the game)
+     * @param limit  - The maximum number of moves (null for all moves)
      * @return - The history as a list of moves
      */
-    public ResponseEntity<?> getGameHistory(String gameId) {
+    public ResponseEntity<?> getGameHistory(String gameId, int from, Integer to, Integer limit) {
         var invalidGameId = gameValidator.validateGameId(gameId);
         if (invalidGameId != null) return invalidGameId;
+        var invalidRange = gameValidator.validateHistoryRange(from, to, limit);
+        if (invalidRange != null) return invalidRange;
 
-        List<Move> history = moveService.getGameHistory(Long.parseLong(gameId));
-        var invalidHistory = gameValidator.validateGameHistory(history);
+        Game game = findGame(Long.parseLong(gameId));
+        var invalidHistory = gameValidator.validateGameHistory(game);
         if (invalidHistory != null) return invalidHistory;
 
-        List<MoveDTO> gameHistory = history.stream().map(GameMapper::mapToMoveDTO).toList();
+        assert game != null; // The validator should have returned an error if the game is null
+        List<Move> history = moveService.getGameHistory(game, from, to, limit);
+
+        List<MoveDTO> gameHistory = history.stream().map(move -> {
+            MoveDTO dto = GameMapper.mapToMoveDTO(move);
+            dto.setWinProbability(winProbabilityService.forMove(move, game));
+            return dto;
+        }).toList();
         return ResponseEntity.ok(gameHistory);
     }
 
@@ -192,36 +437,76 @@ public class GameService {
      */
     public ResponseEntity<?> cancelGame(Update gameUpdate) {
         long id = gameUpdate.gameId();
-        Game game = gameRepository.findById(id).orElse(null);
+        return publishIfFinished(gameLocks.withGame(id, () -> {
+            Game game = findGame(id);
+
+            var invalidUpdate = gameValidator.validateGameUpdate(gameUpdate, game);
+            if (invalidUpdate != null) return invalidUpdate;
+
+            assert game != null; // The validator should have returned an error if the game is null
+
+            GameStatus previous = game.getGameStatus();
+            if ("Nobody wins!".equals(gameUpdate.status())) {
+                game.setGameStatus(GameStatus.NOBODY_WINS);
+            } else {
+                game.setGameStatus(GameStatus.USER_WINS);
+                game.setWinner(gameUpdate.status().replaceAll(" .*", ""));
+            }
+            game = saveGame(game, previous);
+            turnClock.stop(id);
+            return ResponseEntity.ok(gameReadModel.publish(game));
+        }));
+    }
+
+    /**
+     * This method allows a referee to revert the game to a previous state in the game history. Only the head of the
+     * game is moved, the moves after it are kept and can be restored with a redo until new throws are made.
+     *
+     * @param gameRevert - The game revert object containing the game id and the move id
+     * @return - The game mapped to a GameDTO
+     */
+    public ResponseEntity<?> revertGame(Revert gameRevert) {
+        return gameLocks.withGame(gameRevert.gameId(), () -> {
+            Game game = findGame(gameRevert.gameId());
+            Move move = game == null ? null : moveService.getGameMove(gameRevert.gameId(), gameRevert.move());
 
-        var invalidUpdate = gameValidator.validateGameUpdate(gameUpdate, game);
-        if (invalidUpdate != null) return invalidUpdate;
+            var invalidRevert = gameValidator.validateGameRevert(game, move);
+            if (invalidRevert != null) return invalidRevert;
 
-        assert game != null; // The validator should have returned an error if the game is null
+            assert game != null; // The validator should have returned an error if the game is null
 
-        game.setGameStatus("Nobody wins!".equals(gameUpdate.status()) ? GameStatus.NOBODY_WINS : GameStatus.USER_WINS);
-        game = gameRepository.save(game);
-        return ResponseEntity.ok(GameMapper.mapToGameDTO(game));
+            // The referee took over the game, the clock starts again with the next throw
+            GameStatus previous = game.getGameStatus();
+            game = saveGame(GameMapper.mapMoveToGame(move, game), previous);
+            turnClock.stop(game.getId());
+            return ResponseEntity.ok(gameReadModel.publish(game));
+        });
     }
 
     /**
-     * This method allows a referee to revert the game to a previous state in the game history.
+     * This method allows a referee to undo a revert by moving the head of the game one move forward.
      *
-     * @param gameRevert - The game revert object containing the game id and the move id
+     * @param gameRedo - The game redo object containing the game id
      * @return - The game mapped to a GameDTO
      */
-    public ResponseEntity<?> revertGame(Revert gameRevert) {
-        long id = gameRevert.gameId();
-        Game oldGame = gameRepository.findById(id).orElse(null);
-        Move move = moveService.getGameMove(gameRevert.gameId(), gameRevert.move());
-        Move lastMove = moveService.getLastGameMove(gameRevert.gameId());
-
-        var invalidRevert = gameValidator.validateGameRevert(oldGame, move, lastMove);
-        if (invalidRevert != null) return invalidRevert;
-
-        Game game = GameMapper.mapMoveToGame(move);
-        gameRepository.save(game);
-        moveService.deleteMovesAfter(move);
-        return ResponseEntity.ok(GameMapper.mapToGameDTO(game));
+    public ResponseEntity<?> redoGame(Redo gameRedo) {
+        return gameLocks.withGame(gameRedo.gameId(), () -> {
+            Game game = findGame(gameRedo.gameId());
+
+            // There is only a move to restore if the head is behind the latest move of the active branch
+            Move nextMove = game != null && game.getHeadMove() < game.getLatestMove()
+                    ? moveService.getGameMove(game.getId(), game.getHeadMove() + 1)
+                    : null;
+
+            var invalidRedo = gameValidator.validateGameRedo(game, nextMove);
+            if (invalidRedo != null) return invalidRedo;
+
+            assert game != null; // The validator should have returned an error if the game is null
+
+            GameStatus previous = game.getGameStatus();
+            game = saveGame(GameMapper.mapMoveToGame(nextMove, game), previous);
+            turnClock.stop(game.getId());
+            return ResponseEntity.ok(gameReadModel.publish(game));
+        });
     }
 }
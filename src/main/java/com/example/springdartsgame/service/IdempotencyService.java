@@ -0,0 +1,144 @@
+package com.example.springdartsgame.service;
+
+import com.example.springdartsgame.model.Result;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * This service makes requests with an Idempotency-Key header safe to retry. The response of the first request is
+ * remembered for a limited time, retries with the same key get the original response without running the request
+ * again (no validation, scoring or persistence). Concurrent retries wait for the first request to finish, requests in
+ * flight are kept apart from the bounded map of responses, so that they are never evicted before they complete.
+ */
+@Service
+public class IdempotencyService {
+    public static final String HEADER = "Idempotency-Key";
+
+    private final Map<String, Entry> entries;
+    private final Map<String, Entry> inFlight = new HashMap<>();
+    private final long ttlNanos;
+    private final Counter hits;
+    private final Counter misses;
+
+    public IdempotencyService(MeterRegistry meterRegistry,
+                              @Value("${darts.idempotency.max-entries:10000}") int maxEntries,
+                              @Value("${darts.idempotency.ttl:10m}") Duration ttl) {
+        // Insertion (completion) order: with a fixed time to live the eldest entry is always the first one to expire
+        this.entries = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        this.ttlNanos = ttl.toNanos();
+        this.hits = Counter.builder("darts.idempotency.requests").tag("result", "hit")
+                .description("Requests answered from the idempotency cache").register(meterRegistry);
+        this.misses = Counter.builder("darts.idempotency.requests").tag("result", "miss")
+                .description("Requests with an idempotency key that had to be executed").register(meterRegistry);
+        Gauge.builder("darts.idempotency.entries", this, IdempotencyService::size)
+                .description("Idempotency keys currently remembered").register(meterRegistry);
+        Gauge.builder("darts.idempotency.hit.ratio", this, IdempotencyService::hitRatio)
+                .description("Share of keyed requests answered from the cache").register(meterRegistry);
+    }
+
+    /**
+     * This method executes a request once per idempotency key. Keys are scoped (e.g. by endpoint and player), so that
+     * different users or endpoints can't see each other's responses.
+     *
+     * @param key     - The idempotency key sent by the client (requests without a key are always executed)
+     * @param scope   - The scope of the key
+     * @param request - The request body, a retry has to send the same request
+     * @param action  - The action that executes the request
+     * @return - The response of the first request with this key
+     */
+    public ResponseEntity<?> execute(String key, String scope, Object request, Supplier<ResponseEntity<?>> action) {
+        if (key == null || key.isBlank()) return action.get();
+
+        String cacheKey = scope + '\n' + key;
+        Entry entry = new Entry(request, new CompletableFuture<>(), 0);
+        Entry original;
+        synchronized (entries) {
+            evictExpired();
+            original = inFlight.get(cacheKey);
+            if (original == null) original = entries.get(cacheKey);
+            if (original == null) inFlight.put(cacheKey, entry);
+        }
+
+        if (original != null) {
+            hits.increment();
+            return Objects.equals(original.request(), request)
+                    ? awaitResponse(original)
+                    : new ResponseEntity<>(new Result("Idempotency key was used for another request!"),
+                    HttpStatus.UNPROCESSABLE_ENTITY);
+        }
+
+        misses.increment();
+        try {
+            ResponseEntity<?> response = action.get();
+            // Server errors are not remembered, a retry has to run the request again
+            complete(cacheKey, entry, !response.getStatusCode().is5xxServerError());
+            entry.response().complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            complete(cacheKey, entry, false);
+            entry.response().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private ResponseEntity<?> awaitResponse(Entry entry) {
+        try {
+            return entry.response().join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    // Moves a finished request from the requests in flight to the responses (which may evict the eldest response)
+    private void complete(String cacheKey, Entry entry, boolean remember) {
+        synchronized (entries) {
+            inFlight.remove(cacheKey, entry);
+            if (remember) {
+                entries.put(cacheKey, new Entry(entry.request(), entry.response(), System.nanoTime() + ttlNanos));
+            }
+        }
+    }
+
+    // Must be called while holding the lock on the entries
+    private void evictExpired() {
+        long now = System.nanoTime();
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext() && iterator.next().expiresAt() - now < 0) {
+            iterator.remove();
+        }
+    }
+
+    private int size() {
+        synchronized (entries) {
+            return entries.size() + inFlight.size();
+        }
+    }
+
+    private double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0 : hits.count() / total;
+    }
+
+    private record Entry(Object request, CompletableFuture<ResponseEntity<?>> response, long expiresAt) {
+    }
+}
@@ -1,7 +1,8 @@
 package com.example.springdartsgame.service;
 
+import com.example.springdartsgame.entity.Game;
 import com.example.springdartsgame.entity.Move;
-import com.example.springdartsgame.persistence.MoveRepository;
+import com.example.springdartsgame.persistence.MoveStore;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -9,22 +10,27 @@ import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
 
 /**
- * This method especially handles the database operations for the move entity.
+ * This method especially handles the database operations for the move entity. The moves are kept by the configured
+ * {@link MoveStore}.
  */
 @Service
 public class MoveService {
 
     @Autowired
-    private MoveRepository moveRepository;
+    private MoveStore moveStore;
 
     /**
-     * This method finds all moves for a specific game and returns them as a list.
+     * This method finds a range of moves of the active branch of a game (up to its head) and returns them as a list.
      *
-     * @param gameId - The id of the game
-     * @return - The list of moves
+     * @param game  - The game
+     * @param from  - The first move
+     * @param to    - The last move (null for the head of the game)
+     * @param limit - The maximum number of moves (null for all moves)
+     * @return - The list of moves ordered by the move number
      */
-    public List<Move> getGameHistory(long gameId) {
-        return moveRepository.findAllByGameId(gameId);
+    public List<Move> getGameHistory(Game game, int from, Integer to, Integer limit) {
+        int last = to == null ? game.getHeadMove() : Math.min(to, game.getHeadMove());
+        return moveStore.findActiveHistory(game.getId(), from, last, limit);
     }
 
     /**
@@ -32,41 +38,31 @@ public class MoveService {
      *
      * @param gameId - The id of the game
      * @param move   - The current move
-     * @return - The move object
+     * @return - The move object of the active branch
      */
     public Move getGameMove(long gameId, int move) {
-        return moveRepository.findByGameIdAndMove(gameId, move);
-    }
-
-    /**
-     * This method find the last move of a game by its id.
-     *
-     * @param gameId - The id of the game
-     * @return - The move object
-     */
-    public Move getLastGameMove(long gameId) {
-        return moveRepository.findTopByGameIdOrderByMoveDesc(gameId);
-    }
-
-    /**
-     * This method validates the integrity of a game move and saves it to the database.
-     *
-     * @param move - The move object
-     */
-    public void createGameMove(Move move) {
-        Move lastMove = getLastGameMove(move.getGameId());
-        move.setMove(lastMove == null ? 0 : lastMove.getMove() + 1);
-        moveRepository.save(move);
+        return moveStore.findActiveMove(gameId, move);
     }
 
     /**
-     * This method deletes all moves of a game by its id after a certain move. This has to be transactional to avoid
-     * concurrency issues when reverting a game.
+     * This method appends a move right after the head of the game and moves the head to it. If the game was reverted
+     * before, the moves after the head are marked as superseded (they can't be restored with a redo anymore) and a new
+     * branch (revision) of the game starts. This has to be transactional, so that superseding the old branch and
+     * appending the move happen together.
      *
+     * @param game - The game object, its head is updated (but not saved)
      * @param move - The move object
      */
     @Transactional
-    public void deleteMovesAfter(Move move) {
-        moveRepository.deleteAllByGameIdAndMoveGreaterThan(move.getGameId(), move.getMove());
+    public void createGameMove(Game game, Move move) {
+        if (game.getLatestMove() > game.getHeadMove()) {
+            moveStore.supersedeMovesAfter(game.getId(), game.getHeadMove());
+            game.setRevision(game.getRevision() + 1);
+        }
+        move.setMove(game.getHeadMove() + 1);
+        move.setRevision(game.getRevision());
+        moveStore.append(move);
+        game.setHeadMove(move.getMove());
+        game.setLatestMove(move.getMove());
     }
 }
@@ -0,0 +1,86 @@
+package com.example.springdartsgame.service;
+
+import com.example.springdartsgame.config.Leagues;
+import com.example.springdartsgame.entity.Game;
+import com.example.springdartsgame.model.GameStatus;
+import com.example.springdartsgame.model.dto.PlayerGameDTO;
+import com.example.springdartsgame.model.dto.PlayerGamesDTO;
+import com.example.springdartsgame.persistence.PlayerGameIndex;
+import com.example.springdartsgame.util.GameMapper;
+import com.example.springdartsgame.util.GameValidator;
+import com.example.springdartsgame.util.LeagueContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * This service searches the games of a player, e.g. the past games against an opponent. The games are found with the
+ * participations of the player (see {@link PlayerGameIndex}) and paged with a key set, so a page costs the same for
+ * the first and the last game of a player with thousands of games.
+ */
+@Service
+@Lazy(false) // Older games are indexed at startup, also in the faststart profile
+@DependsOn("entityManagerFactory") // The schema is created (or updated) before the older games are indexed
+public class PlayerGameService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PlayerGameService.class);
+
+    private final PlayerGameIndex playerGameIndex;
+    private final GameValidator gameValidator;
+    private final Leagues leagues;
+    private final int maxLimit;
+
+    public PlayerGameService(PlayerGameIndex playerGameIndex, GameValidator gameValidator, Leagues leagues,
+                             @Value("${darts.player-games.max-limit:100}") int maxLimit) {
+        this.playerGameIndex = playerGameIndex;
+        this.gameValidator = gameValidator;
+        this.leagues = leagues;
+        this.maxLimit = maxLimit;
+    }
+
+    /**
+     * This method indexes the games of each league that were created before the participations were recorded. It
+     * runs before requests are accepted, so a search or a new game never misses an older game.
+     */
+    @PostConstruct
+    public void indexMissingGames() {
+        for (String league : leagues.names()) {
+            int added = LeagueContext.call(league, playerGameIndex::addMissing);
+            if (added > 0) LOGGER.info("Indexed {} participations of older games in league {}", added, league);
+        }
+    }
+
+    /**
+     * This method returns a page of the games of a player, newest first.
+     *
+     * @param player      - The name of the player
+     * @param before      - The page starts below this game id (the nextBefore of the previous page)
+     * @param limit       - The maximum number of games
+     * @param opponent    - The opponent (optional)
+     * @param status      - The status of the games, e.g. USER_WINS (optional)
+     * @param targetScore - The target score of the games (optional)
+     * @param from        - The games created at or after this time (optional)
+     * @param to          - The games created before this time (optional)
+     * @return - The ResponseEntity object (in this case the page of games as JSON)
+     */
+    public ResponseEntity<?> getPlayerGames(String player, long before, int limit, String opponent, String status,
+                                            Integer targetScore, Instant from, Instant to) {
+        var invalidPage = gameValidator.validatePlayerGamesPage(before, limit, maxLimit, from, to);
+        if (invalidPage != null) return invalidPage;
+        var invalidStatus = gameValidator.validateExportStatus(status);
+        if (invalidStatus != null) return invalidStatus;
+
+        List<Game> games = playerGameIndex.findPlayerGames(player, before, limit, opponent,
+                status == null ? null : GameStatus.valueOf(status), targetScore, from, to);
+        List<PlayerGameDTO> page = games.stream().map(GameMapper::mapToPlayerGameDTO).toList();
+        Long nextBefore = games.size() < limit ? null : games.get(games.size() - 1).getId();
+        return ResponseEntity.ok(new PlayerGamesDTO(page, nextBefore));
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.springdartsgame.service;
+
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * This service limits the request rate per player with token buckets, one per endpoint class. The buckets are
+ * implemented with the generic cell rate algorithm: a bucket is a single timestamp (the theoretical arrival time of
+ * the next request) that is updated with a compare-and-set, so there is no locking on the request path.
+ * <p>
+ * A bucket that has refilled completely carries no information, so these buckets are evicted first when the number of
+ * tracked players exceeds the configured maximum.
+ */
+@Service
+public class RateLimitService {
+    public enum EndpointClass {READ, THROWS, REFEREE} // Status/list/history reads, throws and referee writes
+
+    private static final EndpointClass[] ENDPOINT_CLASSES = EndpointClass.values();
+
+    private final ConcurrentHashMap<String, AtomicLongArray> buckets = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    private final long[] emissionIntervals = new long[ENDPOINT_CLASSES.length]; // Nanos per token
+    private final long[] burstTolerances = new long[ENDPOINT_CLASSES.length]; // Nanos a bucket can be ahead
+    private final int maxPlayers;
+
+    public RateLimitService(Environment environment) {
+        for (EndpointClass endpointClass : ENDPOINT_CLASSES) {
+            String prefix = "darts.rate-limit." + endpointClass.name().toLowerCase() + ".";
+            int capacity = environment.getProperty(prefix + "capacity", Integer.class, 20);
+            double perSecond = environment.getProperty(prefix + "per-second", Double.class, 10.0);
+            emissionIntervals[endpointClass.ordinal()] = (long) (1_000_000_000L / perSecond);
+            burstTolerances[endpointClass.ordinal()] = emissionIntervals[endpointClass.ordinal()] * capacity;
+        }
+        this.maxPlayers = environment.getProperty("darts.rate-limit.max-players", Integer.class, 200_000);
+    }
+
+    /**
+     * This method takes a token from the bucket of a player for an endpoint class.
+     *
+     * @param player        - The name of the authenticated player
+     * @param endpointClass - The class of the requested endpoint
+     * @return - 0 if the request is allowed, otherwise the nanoseconds until the next token is available
+     */
+    public long tryAcquire(String player, EndpointClass endpointClass) {
+        long now = System.nanoTime();
+        AtomicLongArray playerBuckets = buckets.get(player);
+        if (playerBuckets == null) {
+            playerBuckets = buckets.computeIfAbsent(player, p -> newBuckets(now));
+            if (buckets.size() > maxPlayers) evict(now);
+        }
+
+        int slot = endpointClass.ordinal();
+        long interval = emissionIntervals[slot];
+        while (true) {
+            long arrival = playerBuckets.get(slot);
+            long nextArrival = (arrival - now < 0 ? now : arrival) + interval;
+            long wait = nextArrival - now - burstTolerances[slot];
+            if (wait > 0) return wait;
+            if (playerBuckets.compareAndSet(slot, arrival, nextArrival)) return 0;
+        }
+    }
+
+    private static AtomicLongArray newBuckets(long now) {
+        AtomicLongArray playerBuckets = new AtomicLongArray(ENDPOINT_CLASSES.length);
+        for (int i = 0; i < ENDPOINT_CLASSES.length; i++) playerBuckets.set(i, now); // Full buckets
+        return playerBuckets;
+    }
+
+    /**
+     * This method evicts players until the map is back to 90% of its maximum size. Full buckets go first, since a new
+     * bucket behaves exactly the same. Only one thread evicts at a time, the others carry on.
+     *
+     * @param now - The current time in nanoseconds
+     */
+    private void evict(long now) {
+        if (!evicting.compareAndSet(false, true)) return;
+        try {
+            int target = maxPlayers - maxPlayers / 10;
+            buckets.values().removeIf(playerBuckets -> isFull(playerBuckets, now));
+            Iterator<String> players = buckets.keySet().iterator();
+            while (buckets.size() > target && players.hasNext()) {
+                players.next();
+                players.remove();
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    private static boolean isFull(AtomicLongArray playerBuckets, long now) {
+        for (int i = 0; i < playerBuckets.length(); i++) {
+            if (playerBuckets.get(i) - now > 0) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,412 @@
+package com.example.springdartsgame.service;
+
+import com.example.springdartsgame.config.Leagues;
+import com.example.springdartsgame.entity.Game;
+import com.example.springdartsgame.entity.Tournament;
+import com.example.springdartsgame.entity.TournamentMatch;
+import com.example.springdartsgame.model.GameFinishedEvent;
+import com.example.springdartsgame.model.GameStatus;
+import com.example.springdartsgame.model.GameVariant;
+import com.example.springdartsgame.model.NewTournament;
+import com.example.springdartsgame.model.Result;
+import com.example.springdartsgame.model.TournamentStatus;
+import com.example.springdartsgame.model.dto.MatchDTO;
+import com.example.springdartsgame.model.dto.TournamentDTO;
+import com.example.springdartsgame.persistence.GameRepository;
+import com.example.springdartsgame.persistence.PlayerGameIndex;
+import com.example.springdartsgame.persistence.TournamentMatchRepository;
+import com.example.springdartsgame.persistence.TournamentRepository;
+import com.example.springdartsgame.util.GameLocks;
+import com.example.springdartsgame.util.GameMapper;
+import com.example.springdartsgame.util.GameValidator;
+import com.example.springdartsgame.util.LeagueContext;
+import com.example.springdartsgame.util.TournamentBracket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * This service runs knockout tournaments. A tournament creates the games of its first round at once. When a game of
+ * the tournament is won (a {@link GameFinishedEvent}), the winner advances and the game of the next match is created
+ * as soon as both of its players are known. If a referee decides that nobody wins the game of a match, the match is
+ * played again with a new game. The turn clock of a tournament game starts when the game is created.
+ * <p>
+ * The brackets are kept in memory (and rebuilt from the database at startup), so a match is looked up by its number
+ * or by its game without a query. Changes of a bracket are synchronized on the bracket. A tournament and its games
+ * are stored in the league of the request that created it.
+ * <p>
+ * The entrants that are still in a running tournament only play the games of the tournament: they can't create or
+ * join another game or enter another tournament of the league, so the game of their next match can always be created.
+ */
+@Service
+@Lazy(false) // The brackets are loaded at startup, not by the first tournament request
+public class TournamentService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TournamentService.class);
+
+    @Autowired
+    private TournamentRepository tournamentRepository;
+    @Autowired
+    private TournamentMatchRepository matchRepository;
+    @Autowired
+    private GameRepository gameRepository;
+    @Autowired
+    private MoveService moveService;
+    @Autowired
+    private GameReadModel gameReadModel;
+    @Autowired
+    private GameValidator gameValidator;
+    @Autowired
+    private GameLocks gameLocks;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private Leagues leagues;
+    @Autowired
+    private PlayerGameIndex playerGameIndex;
+    @Autowired
+    private TurnClock turnClock;
+
+    private final Map<Long, Bracket> brackets = new ConcurrentHashMap<>();
+    private final Map<Long, TournamentMatch> matchesByGame = new ConcurrentHashMap<>();
+    // The entrants that haven't lost yet and the id of their running tournament
+    private final Map<Entrant, Long> activeEntrants = new ConcurrentHashMap<>();
+
+    // A tournament and its matches by number (index 0 is unused)
+    private record Bracket(Tournament tournament, TournamentMatch[] matches) {
+    }
+
+    private record Entrant(String league, String player) {
+    }
+
+    @PostConstruct
+    public void load() {
+        for (String league : leagues.names()) LeagueContext.run(league, this::loadLeague);
+    }
+
+    private void loadLeague() {
+        Map<Long, List<TournamentMatch>> matches = matchRepository.findAll().stream()
+                .collect(Collectors.groupingBy(TournamentMatch::getTournamentId));
+        for (Tournament tournament : tournamentRepository.findAll()) {
+            register(toBracket(tournament, matches.getOrDefault(tournament.getId(), List.of())));
+        }
+
+        // Advance the winners of games that were won while the application was down, replay the games nobody won
+        List<Long> openGames = matchesByGame.values().stream()
+                .filter(match -> match.getWinner() == null && matches.containsKey(match.getTournamentId()))
+                .map(TournamentMatch::getGameId)
+                .toList();
+        for (Game game : gameRepository.findAllById(openGames)) {
+            if (game.getGameStatus() == GameStatus.USER_WINS) {
+                onGameFinished(new GameFinishedEvent(game.getId(), GameMapper.winner(game)));
+            } else if (game.getGameStatus() == GameStatus.NOBODY_WINS) {
+                onGameFinished(new GameFinishedEvent(game.getId(), null));
+            }
+        }
+    }
+
+    /**
+     * This method creates a tournament and the games of its first round in one transaction. The entrants are seeded
+     * in the given order, if the number of entrants is not a power of two the best seeds get a bye.
+     *
+     * @param newTournament - The tournament
+     * @return - The tournament mapped to a TournamentDTO
+     */
+    public ResponseEntity<?> createTournament(NewTournament newTournament) {
+        var invalidEntrants = gameValidator.validateEntrants(newTournament.entrants());
+        if (invalidEntrants != null) return invalidEntrants;
+        var invalidTargetScore = gameValidator.validateTargetScore(newTournament.targetScore());
+        if (invalidTargetScore != null) return invalidTargetScore;
+        var invalidVariant = gameValidator.validateVariant(newTournament.variant());
+        if (invalidVariant != null) return invalidVariant;
+
+        List<String> entrants = newTournament.entrants();
+        return gameLocks.withPlayers(entrants, () -> {
+            // The entrants can't play another game or tournament at the same time
+            var invalidGames = gameValidator.validateEntrantGames(
+                    gameRepository.findAllUnfinishedGamesOfPlayers(entrants));
+            if (invalidGames != null) return invalidGames;
+            var invalidTournaments = gameValidator.validateEntrantTournaments(
+                    entrants.stream().anyMatch(this::isInTournament));
+            if (invalidTournaments != null) return invalidTournaments;
+
+            List<Game> games = new ArrayList<>();
+            Bracket bracket = transactionTemplate.execute(status -> startTournament(newTournament, games));
+            assert bracket != null; // The transaction template only returns null for a null result
+            register(bracket);
+            // The games are new, the locks of their players keep the players from throwing before the clock runs
+            games.forEach(turnClock::update);
+            games.forEach(gameReadModel::publish);
+
+            synchronized (bracket) {
+                return new ResponseEntity<>(toTournamentDTO(bracket), HttpStatus.OK);
+            }
+        });
+    }
+
+    /**
+     * This method checks whether a player is still in a running tournament of the current league (they haven't lost
+     * a match yet). Such a player only plays the games of the tournament. It must be called with the lock of the
+     * player.
+     *
+     * @param player - The name of the player
+     * @return - Whether the player is in a running tournament
+     */
+    public boolean isInTournament(String player) {
+        return activeEntrants.containsKey(new Entrant(LeagueContext.current(), player));
+    }
+
+    /**
+     * This method returns a tournament with all of its matches.
+     *
+     * @param tournamentId - The id of the tournament
+     * @return - The tournament mapped to a TournamentDTO
+     */
+    public ResponseEntity<?> getTournament(long tournamentId) {
+        Bracket bracket = brackets.get(tournamentId);
+        if (bracket == null) return new ResponseEntity<>(new Result("Tournament not found!"), HttpStatus.NOT_FOUND);
+
+        synchronized (bracket) {
+            return ResponseEntity.ok(toTournamentDTO(bracket));
+        }
+    }
+
+    /**
+     * This method returns a single match of a tournament.
+     *
+     * @param tournamentId - The id of the tournament
+     * @param match        - The number of the match (1 is the final)
+     * @return - The match mapped to a MatchDTO
+     */
+    public ResponseEntity<?> getMatch(long tournamentId, int match) {
+        Bracket bracket = brackets.get(tournamentId);
+        if (bracket == null || match < 1 || match >= bracket.matches().length) {
+            return new ResponseEntity<>(new Result("Match not found!"), HttpStatus.NOT_FOUND);
+        }
+
+        synchronized (bracket) {
+            return ResponseEntity.ok(toMatchDTO(bracket, bracket.matches()[match]));
+        }
+    }
+
+    /**
+     * This method advances the winner of a tournament game. If the other player of the next match is known already,
+     * the game of the next match is created. If nobody won the game, the match is played again with a new game (a
+     * knockout match needs a winner). Games that are not part of a tournament are ignored.
+     *
+     * @param event - The event of the finished game
+     */
+    @EventListener
+    public void onGameFinished(GameFinishedEvent event) {
+        TournamentMatch match = matchesByGame.get(event.gameId());
+        if (match == null) return;
+        Bracket bracket = brackets.get(match.getTournamentId());
+
+        List<Game> games = new ArrayList<>();
+        synchronized (bracket) {
+            // Advanced already, or the game was replaced by a replay
+            if (match.getWinner() != null || match.getGameId() != event.gameId()) return;
+
+            List<TournamentMatch> readyMatches = new ArrayList<>();
+            boolean replay = event.winner() == null;
+            if (replay) readyMatches.add(match);
+            else advance(bracket, match.getSlot(), event.winner(), readyMatches);
+            List<String> players = readyMatches.stream()
+                    .flatMap(next -> Stream.of(next.getPlayerOne(), next.getPlayerTwo()))
+                    .toList();
+            try {
+                gameLocks.withPlayers(players, () -> {
+                    Tournament tournament = transactionTemplate.execute(status -> {
+                        createGames(bracket, readyMatches, games);
+                        List<TournamentMatch> changedMatches = new ArrayList<>(readyMatches);
+                        if (!replay) {
+                            changedMatches.add(match);
+                            if (match.getSlot() > 1) changedMatches.add(bracket.matches()[match.getSlot() / 2]);
+                        }
+                        matchRepository.saveAll(changedMatches);
+                        return tournamentRepository.save(bracket.tournament());
+                    });
+                    games.forEach(turnClock::update);
+                    return tournament;
+                });
+            } catch (RuntimeException e) {
+                // Start over from the database, the event can be replayed by a restart
+                LOGGER.error("Can't finish game {} in tournament {}", event.gameId(), match.getTournamentId(), e);
+                reload(match.getTournamentId());
+                return;
+            }
+            if (replay) matchesByGame.remove(event.gameId());
+            readyMatches.forEach(next -> matchesByGame.put(next.getGameId(), next));
+            retire(bracket, match);
+        }
+        games.forEach(gameReadModel::publish);
+    }
+
+    // Must be called within a transaction
+    private Bracket startTournament(NewTournament newTournament, List<Game> games) {
+        List<String> entrants = newTournament.entrants();
+        int size = TournamentBracket.size(entrants.size());
+        Tournament tournament = tournamentRepository.save(Tournament.builder()
+                .name(newTournament.name())
+                .status(TournamentStatus.RUNNING)
+                .entrants(entrants.size())
+                .bracketSize(size)
+                .variant(newTournament.variant() == null
+                        ? GameVariant.DOUBLE_OUT : GameVariant.fromVariant(newTournament.variant()))
+                .targetScore(newTournament.targetScore())
+                .build());
+
+        TournamentMatch[] matches = new TournamentMatch[size];
+        for (int slot = 1; slot < size; slot++) {
+            matches[slot] = TournamentMatch.builder()
+                    .tournamentId(tournament.getId())
+                    .slot(slot)
+                    .roundNumber(TournamentBracket.round(slot, size))
+                    .build();
+        }
+        Bracket bracket = new Bracket(tournament, matches);
+
+        // Seed the first round, a player without an opponent advances right away
+        int[] seeds = TournamentBracket.seedOrder(size);
+        List<TournamentMatch> readyMatches = new ArrayList<>();
+        for (int slot = size / 2; slot < size; slot++) {
+            TournamentMatch match = matches[slot];
+            match.setPlayerOne(entrant(entrants, seeds[2 * slot - size]));
+            match.setPlayerTwo(entrant(entrants, seeds[2 * slot - size + 1]));
+            if (match.getPlayerTwo() == null) advance(bracket, slot, match.getPlayerOne(), readyMatches);
+            else readyMatches.add(match);
+        }
+
+        createGames(bracket, readyMatches, games);
+        matchRepository.saveAll(Arrays.asList(matches).subList(1, size));
+        return bracket;
+    }
+
+    private static String entrant(List<String> entrants, int seed) {
+        return seed <= entrants.size() ? entrants.get(seed - 1) : null;
+    }
+
+    // Sets the winner of a match and moves them to the next match, which is added to the ready matches once both of
+    // its players are known. The winner of the final wins the tournament.
+    private static void advance(Bracket bracket, int slot, String winner, List<TournamentMatch> readyMatches) {
+        bracket.matches()[slot].setWinner(winner);
+        if (slot == 1) {
+            bracket.tournament().setStatus(TournamentStatus.FINISHED);
+            bracket.tournament().setWinner(winner);
+            return;
+        }
+
+        TournamentMatch next = bracket.matches()[slot / 2];
+        if (slot % 2 == 0) next.setPlayerOne(winner);
+        else next.setPlayerTwo(winner);
+        if (next.getPlayerOne() != null && next.getPlayerTwo() != null) readyMatches.add(next);
+    }
+
+    // Creates the started games of the matches (the saves are sent in JDBC batches), must be called within a transaction
+    private void createGames(Bracket bracket, List<TournamentMatch> matches, List<Game> games) {
+        Tournament tournament = bracket.tournament();
+        List<Game> newGames = gameRepository.saveAll(matches.stream()
+                .map(match -> Game.builder()
+                        .gameStatus(GameStatus.STARTED)
+                        .playerOne(match.getPlayerOne())
+                        .playerTwo(match.getPlayerTwo())
+                        .playerOneScores(tournament.getTargetScore())
+                        .playerTwoScores(tournament.getTargetScore())
+                        .turn(match.getPlayerOne())
+                        .headMove(-1)
+                        .latestMove(-1)
+                        .variant(tournament.getVariant())
+                        .targetScore(tournament.getTargetScore())
+                        .build())
+                .toList());
+        playerGameIndex.add(newGames);
+        for (int i = 0; i < newGames.size(); i++) {
+            Game game = newGames.get(i);
+            moveService.createGameMove(game, GameMapper.mapGameToMove(game));
+            matches.get(i).setGameId(game.getId());
+        }
+        games.addAll(newGames);
+    }
+
+    // Must be called in the league of the tournament
+    private void register(Bracket bracket) {
+        brackets.put(bracket.tournament().getId(), bracket);
+        for (int slot = 1; slot < bracket.matches().length; slot++) {
+            TournamentMatch match = bracket.matches()[slot];
+            if (match.getGameId() != null) matchesByGame.put(match.getGameId(), match);
+        }
+
+        // The entrants are the players of the first round, the players of decided matches stay if they won
+        if (bracket.tournament().getStatus() != TournamentStatus.RUNNING) return;
+        String league = LeagueContext.current();
+        long tournamentId = bracket.tournament().getId();
+        for (int slot = bracket.matches().length / 2; slot < bracket.matches().length; slot++) {
+            TournamentMatch match = bracket.matches()[slot];
+            Stream.of(match.getPlayerOne(), match.getPlayerTwo()).filter(Objects::nonNull)
+                    .forEach(player -> activeEntrants.put(new Entrant(league, player), tournamentId));
+        }
+        for (int slot = 1; slot < bracket.matches().length; slot++) retire(bracket, bracket.matches()[slot]);
+    }
+
+    // Removes the loser of a decided match from the active entrants, and the winner as well if it was the final
+    private void retire(Bracket bracket, TournamentMatch match) {
+        if (match.getWinner() == null) return;
+        String league = LeagueContext.current();
+        Stream.of(match.getPlayerOne(), match.getPlayerTwo())
+                .filter(player -> player != null && (match.getSlot() == 1 || !player.equals(match.getWinner())))
+                .forEach(player -> activeEntrants.remove(new Entrant(league, player), bracket.tournament().getId()));
+    }
+
+    private void reload(long tournamentId) {
+        tournamentRepository.findById(tournamentId).ifPresent(tournament ->
+                register(toBracket(tournament, matchRepository.findAllByTournamentIdOrderBySlot(tournamentId))));
+    }
+
+    private static Bracket toBracket(Tournament tournament, List<TournamentMatch> matches) {
+        TournamentMatch[] slots = new TournamentMatch[tournament.getBracketSize()];
+        for (TournamentMatch match : matches) slots[match.getSlot()] = match;
+        return new Bracket(tournament, slots);
+    }
+
+    private static TournamentDTO toTournamentDTO(Bracket bracket) {
+        Tournament tournament = bracket.tournament();
+        return TournamentDTO.builder()
+                .tournamentId(tournament.getId())
+                .name(tournament.getName())
+                .status(tournament.getStatus().status)
+                .entrants(tournament.getEntrants())
+                .rounds(TournamentBracket.rounds(tournament.getBracketSize()))
+                .targetScore(tournament.getTargetScore())
+                .variant(tournament.getVariant().variant)
+                .winner(tournament.getWinner())
+                .matches(Arrays.stream(bracket.matches()).skip(1).map(match -> toMatchDTO(bracket, match)).toList())
+                .build();
+    }
+
+    private static MatchDTO toMatchDTO(Bracket bracket, TournamentMatch match) {
+        return MatchDTO.builder()
+                .tournamentId(bracket.tournament().getId())
+                .match(match.getSlot())
+                .round(match.getRoundNumber())
+                .gameId(match.getGameId())
+                .playerOne(match.getPlayerOne())
+                .playerTwo(match.getPlayerTwo())
+                .winner(match.getWinner())
+                .build();
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.springdartsgame.service;
+
+import com.example.springdartsgame.config.Leagues;
+import com.example.springdartsgame.entity.Game;
+import com.example.springdartsgame.model.GameStatus;
+import com.example.springdartsgame.model.TurnExpiredEvent;
+import com.example.springdartsgame.model.TurnPenalty;
+import com.example.springdartsgame.persistence.GameRepository;
+import com.example.springdartsgame.util.LeagueContext;
+import com.example.springdartsgame.util.TimingWheel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This service limits the time of a turn. The clock of a game is started by {@link GameService} when the turn passes
+ * to a player (the game is joined or a player threw) and stopped when the game is over or reverted by a referee. If
+ * the player doesn't throw in time, a {@link TurnExpiredEvent} is published and {@link GameService} applies the
+ * penalty.
+ * <p>
+ * All clocks share one {@link TimingWheel}, so a running game costs one timeout object and a map entry instead of a
+ * scheduled task of an executor. The running games are clocked again after a restart (with a full turn). A clock
+ * remembers the league of its game, the penalty is applied in that league.
+ * <p>
+ * A player whose turns are skipped {@code max-skipped-turns} times in a row forfeits the game instead, so the clock
+ * of an abandoned game doesn't run forever. The skipped turns are counted in memory (a restart starts over).
+ */
+@Service
+@Lazy(false) // The running games are clocked again at startup, not when the first move arrives
+public class TurnClock implements AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TurnClock.class);
+
+    private final GameRepository gameRepository;
+    private final Leagues leagues;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration turnLimit;
+    private final TurnPenalty penalty;
+    private final int maxSkippedTurns; // 0 for no limit
+    private final ExecutorService penalties;
+    private final TimingWheel wheel; // Null if the turns aren't limited
+    private final Map<Long, TimingWheel.Timeout> clocks = new ConcurrentHashMap<>();
+    // The consecutive skipped turns of the players of a game (changed under the lock of the game)
+    private final Map<Long, Map<String, Integer>> skippedTurns = new ConcurrentHashMap<>();
+    private final Counter expiredTurns;
+
+    public TurnClock(GameRepository gameRepository, Leagues leagues, ApplicationEventPublisher eventPublisher,
+                     MeterRegistry meterRegistry,
+                     @Value("${darts.turn-clock.turn-limit:2m}") Duration turnLimit,
+                     @Value("${darts.turn-clock.penalty:skip}") TurnPenalty penalty,
+                     @Value("${darts.turn-clock.max-skipped-turns:3}") int maxSkippedTurns,
+                     @Value("${darts.turn-clock.tick:100ms}") Duration tick,
+                     @Value("${darts.turn-clock.wheel-size:512}") int wheelSize,
+                     @Value("${darts.turn-clock.penalty-threads:2}") int penaltyThreads) {
+        this.gameRepository = gameRepository;
+        this.leagues = leagues;
+        this.eventPublisher = eventPublisher;
+        this.turnLimit = turnLimit;
+        this.penalty = penalty;
+        this.maxSkippedTurns = maxSkippedTurns;
+        AtomicInteger threads = new AtomicInteger();
+        this.penalties = Executors.newFixedThreadPool(penaltyThreads, task -> {
+            Thread thread = new Thread(task, "turn-penalty-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.wheel = turnLimit.isZero() ? null : new TimingWheel("turn-clock", tick, wheelSize, penalties);
+        this.expiredTurns = Counter.builder("darts.turn-clock.expired")
+                .description("Turns that expired before the player threw").register(meterRegistry);
+        Gauge.builder("darts.turn-clock.running", clocks, Map::size)
+                .description("Games with a running turn clock").register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void clockRunningGames() {
+        if (wheel == null) return;
+        for (String league : leagues.names()) {
+            LeagueContext.run(league, () -> {
+                List<Game> games = gameRepository.findAllGamesWithStatusIn(
+                        List.of(GameStatus.STARTED, GameStatus.PLAYING));
+                games.forEach(this::update);
+                if (!games.isEmpty()) {
+                    LOGGER.info("Started the turn clocks of {} running games in league {}", games.size(), league);
+                }
+            });
+        }
+    }
+
+    /**
+     * This method starts the clock of the player to throw, or stops the clock if the game is over. It has to be
+     * called with the game as saved, under the lock of the game and in the league of the game.
+     *
+     * @param game - The game
+     */
+    public void update(Game game) {
+        update(game, false);
+    }
+
+    /**
+     * This method starts the clock of the player to throw after the turn of the opponent was skipped, the opponent
+     * forfeits if their turn is skipped again once too often. It has to be called like {@link #update(Game)}.
+     *
+     * @param game - The game as saved with the skipped turn
+     */
+    public void skipped(Game game) {
+        update(game, true);
+    }
+
+    private void update(Game game, boolean skipped) {
+        if (wheel == null) return;
+        if (game.getGameStatus() != GameStatus.STARTED && game.getGameStatus() != GameStatus.PLAYING) {
+            stop(game.getId());
+            return;
+        }
+
+        // The player before the turn either threw or was skipped
+        long gameId = game.getId();
+        String previousPlayer = game.getTurn().equals(game.getPlayerOne()) ? game.getPlayerTwo() : game.getPlayerOne();
+        Map<String, Integer> skips = skipped
+                ? skippedTurns.computeIfAbsent(gameId, id -> new HashMap<>())
+                : skippedTurns.get(gameId);
+        if (skips != null && skipped) skips.merge(previousPlayer, 1, Integer::sum);
+        else if (skips != null) skips.remove(previousPlayer);
+        int skipsOfTurn = skips == null ? 0 : skips.getOrDefault(game.getTurn(), 0);
+        TurnPenalty turnPenalty = penalty == TurnPenalty.SKIP && maxSkippedTurns > 0
+                && skipsOfTurn + 1 >= maxSkippedTurns ? TurnPenalty.FORFEIT : penalty;
+
+        String league = LeagueContext.current();
+        TurnExpiredEvent event = new TurnExpiredEvent(gameId, game.getTurn(), game.getVersion(), turnPenalty);
+        TimingWheel.Timeout previous = clocks.put(gameId,
+                wheel.schedule(() -> LeagueContext.run(league, () -> expire(event)), turnLimit));
+        if (previous != null) previous.cancel();
+    }
+
+    /**
+     * This method stops the clock of a game.
+     *
+     * @param gameId - The id of the game
+     */
+    public void stop(long gameId) {
+        if (wheel == null) return;
+        skippedTurns.remove(gameId);
+        TimingWheel.Timeout clock = clocks.remove(gameId);
+        if (clock != null) clock.cancel();
+    }
+
+    /**
+     * This method returns the number of games with a running clock.
+     *
+     * @return - The number of games
+     */
+    public int runningClocks() {
+        return clocks.size();
+    }
+
+    @Override
+    public void close() {
+        if (wheel != null) wheel.close();
+        penalties.shutdownNow();
+    }
+
+    private void expire(TurnExpiredEvent event) {
+        // Unless the clock was restarted in the meantime
+        clocks.computeIfPresent(event.gameId(), (gameId, clock) -> clock.isExpired() ? null : clock);
+        expiredTurns.increment();
+        try {
+            eventPublisher.publishEvent(event);
+        } catch (RuntimeException e) {
+            LOGGER.warn("Could not apply the penalty of the expired turn of game {}", event.gameId(), e);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.springdartsgame.service;
+
+import com.example.springdartsgame.entity.UserAccount;
+import com.example.springdartsgame.model.NewUser;
+import com.example.springdartsgame.model.Result;
+import com.example.springdartsgame.persistence.UserAccountRepository;
+import com.example.springdartsgame.util.LeagueContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * This service stores the gamers, referees and admins in the database of the default league and loads them for the
+ * authentication. The recent logins are cached in front of it (see
+ * {@link com.example.springdartsgame.oauth.CaffeineUserCache}).
+ * <p>
+ * Users are provisioned in bulk: the passwords are hashed in parallel (hashing is slow on purpose, so it dominates
+ * the provisioning) and the users are inserted or updated with batched statements. A password is only taken as it is
+ * if it is a bcrypt hash, a password that was stored with another encoder (e.g. {noop}) is hashed with bcrypt at the
+ * next login.
+ */
+@Service
+public class UserService implements UserDetailsService, UserDetailsPasswordService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(UserService.class);
+
+    private static final String UPSERT = "merge into user_account (username, password, role) key (username) " +
+            "values (?, ?, ?)";
+    private static final String UPDATE_PASSWORD = "update user_account set password = ? where username = ?";
+    // A password hashed with bcrypt (e.g. users moved from another system), any other password is plain text
+    private static final Pattern BCRYPT = Pattern.compile("^\\{bcrypt}\\$2[aby]?\\$\\d{2}\\$[./A-Za-z0-9]{53}$");
+
+    private final UserAccountRepository userAccountRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final UserCache userCache;
+    private final int batchSize;
+
+    public UserService(UserAccountRepository userAccountRepository, DataSource dataSource,
+                       TransactionTemplate transactionTemplate, PasswordEncoder passwordEncoder, UserCache userCache,
+                       @Value("${darts.users.batch-size:1000}") int batchSize) {
+        this.userAccountRepository = userAccountRepository;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = transactionTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.userCache = userCache;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        UserAccount account = LeagueContext.call(LeagueContext.DEFAULT_LEAGUE,
+                () -> userAccountRepository.findById(username).orElse(null));
+        if (account == null) throw new UsernameNotFoundException(username);
+
+        return User.withUsername(account.getUsername())
+                .password(account.getPassword())
+                .roles(account.getRole().name())
+                .build();
+    }
+
+    /**
+     * This method replaces a password that was stored with an outdated encoder (e.g. {noop}) with its bcrypt hash,
+     * it is called after a successful login.
+     *
+     * @param user        - The user that logged in
+     * @param newPassword - The password hashed with bcrypt
+     * @return - The user with the new password
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        LeagueContext.run(LeagueContext.DEFAULT_LEAGUE,
+                () -> jdbcTemplate.update(UPDATE_PASSWORD, newPassword, user.getUsername()));
+        userCache.removeUserFromCache(user.getUsername());
+        return User.withUserDetails(user).password(newPassword).build();
+    }
+
+    /**
+     * This method inserts new users and updates existing users (password and role) in one transaction.
+     *
+     * @param users - The users
+     * @return - The ResponseEntity object (in this case the number of provisioned users as JSON)
+     */
+    public ResponseEntity<?> provisionUsers(List<NewUser> users) {
+        if (users == null || users.isEmpty()) {
+            return new ResponseEntity<>(new Result("No users!"), HttpStatus.BAD_REQUEST);
+        }
+        Set<String> usernames = new HashSet<>();
+        for (NewUser user : users) {
+            if (user == null || user.username() == null || user.username().isBlank() || user.password() == null
+                    || user.password().isEmpty() || user.role() == null) {
+                return new ResponseEntity<>(new Result("Invalid user!"), HttpStatus.BAD_REQUEST);
+            }
+            if (!usernames.add(user.username())) {
+                return new ResponseEntity<>(new Result("Duplicate user " + user.username() + "!"),
+                        HttpStatus.BAD_REQUEST);
+            }
+        }
+
+        long start = System.nanoTime();
+        List<Object[]> rows = users.parallelStream()
+                .map(user -> new Object[]{user.username(), encode(user.password()), user.role().name()})
+                .toList();
+        LeagueContext.run(LeagueContext.DEFAULT_LEAGUE, () -> transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(UPSERT, rows, batchSize, (statement, row) -> {
+                    statement.setString(1, (String) row[0]);
+                    statement.setString(2, (String) row[1]);
+                    statement.setString(3, (String) row[2]);
+                })));
+        usernames.forEach(userCache::removeUserFromCache);
+
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        LOGGER.info("Provisioned {} users in {} ms", users.size(), millis);
+        return new ResponseEntity<>(new Result("Provisioned " + users.size() + " users"), HttpStatus.OK);
+    }
+
+    /**
+     * This method creates the users that don't exist yet. Existing users are not changed.
+     *
+     * @param users - The users
+     */
+    public void createMissingUsers(List<NewUser> users) {
+        LeagueContext.run(LeagueContext.DEFAULT_LEAGUE, () -> {
+            for (NewUser user : users) {
+                if (userAccountRepository.existsById(user.username())) continue;
+                userAccountRepository.save(new UserAccount(user.username(), encode(user.password()), user.role()));
+            }
+        });
+    }
+
+    private String encode(String password) {
+        return BCRYPT.matcher(password).matches() ? password : passwordEncoder.encode(password);
+    }
+}
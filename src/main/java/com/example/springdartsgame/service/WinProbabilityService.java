@@ -0,0 +1,94 @@
+package com.example.springdartsgame.service;
+
+import com.example.springdartsgame.entity.Game;
+import com.example.springdartsgame.entity.Move;
+import com.example.springdartsgame.model.GameStatus;
+import com.example.springdartsgame.model.GameVariant;
+import com.example.springdartsgame.model.SkillModel;
+import com.example.springdartsgame.util.GameMapper;
+import com.example.springdartsgame.util.WinProbabilityTable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This service estimates the probability that player one wins a game, with a lookup in the {@link WinProbabilityTable}
+ * of the configured skill model. The players aren't rated, all players throw with the same skill model, so the
+ * probability only depends on the scores and on who throws next (the table is symmetric). The table is mapped from its
+ * file at startup, or computed (and saved) if the file is missing or was computed for another skill model.
+ */
+@Service
+@Lazy(false) // The table is built (or read) at startup, not by the first request
+public class WinProbabilityService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(WinProbabilityService.class);
+
+    private final WinProbabilityTable table;
+
+    public WinProbabilityService(
+            @Value("${darts.win-probability.all-players.treble-accuracy:0.25}") double trebleAccuracy,
+            @Value("${darts.win-probability.all-players.double-accuracy:0.3}") double doubleAccuracy,
+            @Value("${darts.win-probability.all-players.single-accuracy:0.7}") double singleAccuracy,
+            @Value("${darts.win-probability.file:}") String file) {
+        SkillModel skill = new SkillModel(trebleAccuracy, doubleAccuracy, singleAccuracy);
+        Path path = file.isBlank() ? null : Path.of(file);
+        try {
+            WinProbabilityTable loaded = path == null ? null : WinProbabilityTable.load(path, skill);
+            if (loaded == null) {
+                long start = System.nanoTime();
+                loaded = WinProbabilityTable.compute(skill);
+                LOGGER.info("Computed the win probabilities in {} ms",
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                if (path != null) loaded.save(path);
+            }
+            this.table = loaded;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load or save the win probabilities", e);
+        }
+    }
+
+    /**
+     * This method returns the probability that player one wins a game.
+     *
+     * @param game - The game
+     * @return - The probability (rounded to four decimals), or null if the game isn't started or nobody wins
+     */
+    public Double forGame(Game game) {
+        return switch (game.getGameStatus()) {
+            case CREATED, NOBODY_WINS -> null;
+            case USER_WINS -> game.getPlayerOne().equals(GameMapper.winner(game)) ? 1.0 : 0.0;
+            default -> lookup(game.getVariant(), game.getTargetScore(), game.getPlayerOneScores(),
+                    game.getPlayerTwoScores(), game.getPlayerOne().equals(game.getTurn()));
+        };
+    }
+
+    /**
+     * This method returns the probability that player one wins at a move of a game.
+     *
+     * @param move - The move
+     * @param game - The game of the move (for the rules)
+     * @return - The probability (rounded to four decimals), or null if the game isn't started or nobody wins
+     */
+    public Double forMove(Move move, Game game) {
+        String status = move.getGameStatus();
+        if (GameStatus.CREATED.status.equals(status) || GameStatus.NOBODY_WINS.status.equals(status)) return null;
+        if (status.endsWith(" wins!")) {
+            return status.equals(String.format(GameStatus.USER_WINS.status, move.getPlayerOne())) ? 1.0 : 0.0;
+        }
+        return lookup(game.getVariant(), game.getTargetScore(), move.getPlayerOneScores(), move.getPlayerTwoScores(),
+                move.getPlayerOne().equals(move.getTurn()));
+    }
+
+    private Double lookup(GameVariant variant, int targetScore, int playerOneScore, int playerTwoScore,
+                          boolean playerOneToThrow) {
+        double probability = table.playerOneWins(variant, targetScore, playerOneScore, playerTwoScore,
+                playerOneToThrow);
+        return probability < 0 ? null : Math.round(probability * 10_000) / 10_000.0;
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.springdartsgame.util;
+
+import com.example.springdartsgame.entity.Game;
+import com.example.springdartsgame.entity.Move;
+import com.example.springdartsgame.model.AuditMismatch;
+import com.example.springdartsgame.model.GameStatus;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * This utility class replays the moves of a game with the rules of its variant and compares them with the game. The
+ * moves are snapshots without the darts, so a move is valid if a single visit of the player whose turn it was can
+ * lead from the previous move to it.
+ */
+public class GameAuditor {
+
+    /**
+     * This method audits a game.
+     *
+     * @param game  - The game
+     * @param moves - The moves of the active branch of the game (not superseded), ordered by the move number
+     * @return - The mismatches, an empty list if the game is consistent
+     */
+    public static List<AuditMismatch> audit(Game game, List<Move> moves) {
+        List<AuditMismatch> mismatches = new ArrayList<>();
+        long gameId = game.getId();
+
+        if (moves.isEmpty()) {
+            if (game.getHeadMove() != -1) {
+                mismatches.add(new AuditMismatch(gameId, -1, "The head move " + game.getHeadMove() + " doesn't exist"));
+            } else if (game.getGameStatus() == GameStatus.STARTED || game.getGameStatus() == GameStatus.PLAYING) {
+                mismatches.add(new AuditMismatch(gameId, -1, "The game is " + game.getGameStatus().status
+                        + " but has no moves"));
+            }
+            return mismatches;
+        }
+
+        // The moves have to be numbered without gaps, otherwise they can't be replayed
+        for (int i = 0; i < moves.size(); i++) {
+            if (moves.get(i).getMove() != i) {
+                mismatches.add(new AuditMismatch(gameId, moves.get(i).getMove(), "Expected move " + i));
+                return mismatches;
+            }
+        }
+
+        // The first move is the start of the game
+        Move first = moves.get(0);
+        int targetScore = game.getTargetScore();
+        if (!GameStatus.STARTED.status.equals(first.getGameStatus())
+                || !Objects.equals(first.getTurn(), first.getPlayerOne())
+                || targetScore > 0 && (first.getPlayerOneScores() != targetScore
+                || first.getPlayerTwoScores() != targetScore)) {
+            mismatches.add(new AuditMismatch(gameId, 0, "The game doesn't start with " + targetScore + " points, "
+                    + "the first player to throw and the status " + GameStatus.STARTED.status));
+        }
+
+        // Replay the visits
+        RuleTable rules = RuleTable.of(game.getVariant());
+        for (int i = 1; i < moves.size(); i++) {
+            String problem = replayVisit(rules, targetScore, moves.get(i - 1), moves.get(i));
+            if (problem != null) mismatches.add(new AuditMismatch(gameId, i, problem));
+        }
+
+        // The game has to be at its head move
+        if (game.getLatestMove() != moves.size() - 1) {
+            mismatches.add(new AuditMismatch(gameId, -1, "The latest move is " + (moves.size() - 1)
+                    + ", not " + game.getLatestMove()));
+        }
+        if (game.getHeadMove() < 0 || game.getHeadMove() >= moves.size()) {
+            mismatches.add(new AuditMismatch(gameId, -1, "The head move " + game.getHeadMove() + " doesn't exist"));
+        } else {
+            String problem = compareWithHead(game, moves.get(game.getHeadMove()));
+            if (problem != null) mismatches.add(new AuditMismatch(gameId, -1, problem));
+        }
+        return mismatches;
+    }
+
+    private static String replayVisit(RuleTable rules, int targetScore, Move previous, Move move) {
+        if (!Objects.equals(previous.getPlayerOne(), move.getPlayerOne())
+                || !Objects.equals(previous.getPlayerTwo(), move.getPlayerTwo())) {
+            return "The players changed";
+        }
+        if (isWon(previous)) return "The game was already over";
+
+        boolean playerOne = Objects.equals(previous.getTurn(), previous.getPlayerOne());
+        int from = playerOne ? previous.getPlayerOneScores() : previous.getPlayerTwoScores();
+        int to = playerOne ? move.getPlayerOneScores() : move.getPlayerTwoScores();
+        int waiting = playerOne ? previous.getPlayerTwoScores() : previous.getPlayerOneScores();
+        String nextPlayer = playerOne ? previous.getPlayerTwo() : previous.getPlayerOne();
+        if (waiting != (playerOne ? move.getPlayerTwoScores() : move.getPlayerOneScores())) {
+            return "The score of " + nextPlayer + " changed out of turn";
+        }
+
+        BitSet outcomes = from < 0 || from > RuleTable.MAX_SCORE ? new BitSet()
+                : rules.visitOutcomes(rules.startState(from, targetScore));
+        if (isWon(move)) {
+            return to != 0 || !outcomes.get(RuleTable.VISIT_WIN) ? "A checkout from " + from + " isn't possible"
+                    : !Objects.equals(move.getTurn(), previous.getTurn()) ? "The turn changed after the checkout"
+                    : null;
+        }
+        return to < 0 || !outcomes.get(to) ? "The score can't go from " + from + " to " + to + " in one visit"
+                : !Objects.equals(move.getTurn(), nextPlayer) ? "The turn didn't pass to " + nextPlayer
+                : !GameStatus.PLAYING.status.equals(move.getGameStatus()) ? "The game isn't " + GameStatus.PLAYING.status
+                : null;
+    }
+
+    private static String compareWithHead(Game game, Move head) {
+        if (!Objects.equals(game.getPlayerOne(), head.getPlayerOne())
+                || !Objects.equals(game.getPlayerTwo(), head.getPlayerTwo())
+                || game.getPlayerOneScores() != head.getPlayerOneScores()
+                || game.getPlayerTwoScores() != head.getPlayerTwoScores()
+                || !Objects.equals(game.getTurn(), head.getTurn())) {
+            return String.format("The game (%d/%d, turn %s) doesn't match its head move %d (%d/%d, turn %s)",
+                    game.getPlayerOneScores(), game.getPlayerTwoScores(), game.getTurn(), head.getMove(),
+                    head.getPlayerOneScores(), head.getPlayerTwoScores(), head.getTurn());
+        }
+
+        // A referee can end a game without a move
+        GameStatus status = game.getGameStatus();
+        boolean cancelled = !isWon(head) && (status == GameStatus.NOBODY_WINS || status == GameStatus.USER_WINS);
+        boolean matches = isWon(head) ? status == GameStatus.USER_WINS : status.status.equals(head.getGameStatus());
+        return matches || cancelled ? null
+                : "The game is " + status.status + " but its head move " + head.getMove() + " is " + head.getGameStatus();
+    }
+
+    private static boolean isWon(Move move) {
+        return move.getGameStatus() != null && move.getGameStatus().endsWith(" wins!")
+                && !GameStatus.NOBODY_WINS.status.equals(move.getGameStatus());
+    }
+}
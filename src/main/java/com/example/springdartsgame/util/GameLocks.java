@@ -0,0 +1,98 @@
+package com.example.springdartsgame.util;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * This class serializes the changes of a player and of a game within the application. The locks are striped: a
+ * fixed number of locks is shared by all players (and all games), so no lock has to be created or removed.
+ * <p>
+ * A player lock has to be taken before a game lock, never the other way around, so that two operations can't wait
+ * for each other. The locks of several players (or games) are taken at once, in the order of their stripes.
+ */
+@Component
+public class GameLocks {
+    private static final int STRIPES = 1024; // A power of two
+
+    private final ReentrantLock[] playerLocks = newLocks();
+    private final ReentrantLock[] gameLocks = newLocks();
+
+    /**
+     * This method runs an action while holding the lock of a player.
+     *
+     * @param player - The name of the player
+     * @param action - The action
+     * @return - The result of the action
+     */
+    public <T> T withPlayer(String player, Supplier<T> action) {
+        return withLock(playerLocks[stripe(player.hashCode())], action);
+    }
+
+    /**
+     * This method runs an action while holding the locks of several players.
+     *
+     * @param players - The names of the players
+     * @param action  - The action
+     * @return - The result of the action
+     */
+    public <T> T withPlayers(Collection<String> players, Supplier<T> action) {
+        int[] stripes = players.stream().mapToInt(player -> stripe(player.hashCode())).sorted().distinct().toArray();
+        for (int stripe : stripes) playerLocks[stripe].lock();
+        try {
+            return action.get();
+        } finally {
+            for (int i = stripes.length - 1; i >= 0; i--) playerLocks[stripes[i]].unlock();
+        }
+    }
+
+    /**
+     * This method runs an action while holding the lock of a game.
+     *
+     * @param gameId - The id of the game
+     * @param action - The action
+     * @return - The result of the action
+     */
+    public <T> T withGame(long gameId, Supplier<T> action) {
+        return withLock(gameLocks[stripe(Long.hashCode(gameId))], action);
+    }
+
+    /**
+     * This method runs an action while holding the locks of several games.
+     *
+     * @param gameIds - The ids of the games
+     * @param action  - The action
+     * @return - The result of the action
+     */
+    public <T> T withGames(Collection<Long> gameIds, Supplier<T> action) {
+        int[] stripes = gameIds.stream().mapToInt(gameId -> stripe(Long.hashCode(gameId))).sorted().distinct()
+                .toArray();
+        for (int stripe : stripes) gameLocks[stripe].lock();
+        try {
+            return action.get();
+        } finally {
+            for (int i = stripes.length - 1; i >= 0; i--) gameLocks[stripes[i]].unlock();
+        }
+    }
+
+    private static <T> T withLock(ReentrantLock lock, Supplier<T> action) {
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static int stripe(int hash) {
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+
+    private static ReentrantLock[] newLocks() {
+        ReentrantLock[] locks = new ReentrantLock[STRIPES];
+        for (int i = 0; i < STRIPES; i++) locks[i] = new ReentrantLock();
+        return locks;
+    }
+}
@@ -3,8 +3,10 @@ package com.example.springdartsgame.util;
 import com.example.springdartsgame.entity.Game;
 import com.example.springdartsgame.entity.Move;
 import com.example.springdartsgame.model.GameStatus;
+import com.example.springdartsgame.model.GameVariant;
 import com.example.springdartsgame.model.dto.GameDTO;
 import com.example.springdartsgame.model.dto.MoveDTO;
+import com.example.springdartsgame.model.dto.PlayerGameDTO;
 
 import java.util.Arrays;
 
@@ -49,8 +51,7 @@ public class GameMapper {
     public static GameDTO mapToGameDTO(Game game) {
         // Validate the game's status
         String status = game.getGameStatus() == GameStatus.USER_WINS
-                ? String.format("%s wins!", game.getPlayerOneScores() == 0
-                ? game.getPlayerOne() : game.getPlayerTwo())
+                ? String.format("%s wins!", winner(game))
                 : game.getGameStatus().status;
 
         // Build a new GameDTO object and return it
@@ -62,32 +63,67 @@ public class GameMapper {
                 .playerOneScores(game.getPlayerOneScores())
                 .playerTwoScores(game.getPlayerTwoScores())
                 .turn(game.getTurn())
+                .variant((game.getVariant() == null ? GameVariant.DOUBLE_OUT : game.getVariant()).variant)
                 .build();
     }
 
     /**
-     * This method maps a certain move to a GameDTO for the response.
+     * This method maps a given Game to a PlayerGameDTO for the games of a player.
      *
-     * @param move - The Move object to be mapped
-     * @return - The GameDTO object built from the Move as api response
+     * @param game - The Game object to be mapped
+     * @return - The PlayerGameDTO object as api response
+     */
+    public static PlayerGameDTO mapToPlayerGameDTO(Game game) {
+        GameDTO dto = mapToGameDTO(game);
+        return PlayerGameDTO.builder()
+                .gameId(dto.getGameId())
+                .playerOne(dto.getPlayerOne())
+                .playerTwo(dto.getPlayerTwo())
+                .gameStatus(dto.getGameStatus())
+                .playerOneScores(dto.getPlayerOneScores())
+                .playerTwoScores(dto.getPlayerTwoScores())
+                .variant(dto.getVariant())
+                .targetScore(game.getTargetScore())
+                .createdAt(game.getCreatedAt())
+                .finishedAt(game.getFinishedAt())
+                .build();
+    }
+
+    /**
+     * This method returns the winner of a won game. Games saved before the winner was stored are won by the player
+     * without points left.
+     *
+     * @param game - The won game
+     * @return - The name of the winner
+     */
+    public static String winner(Game game) {
+        return game.getWinner() != null ? game.getWinner()
+                : game.getPlayerOneScores() == 0 ? game.getPlayerOne() : game.getPlayerTwo();
+    }
+
+    /**
+     * This method restores the state of a certain move on a game and moves the head of the game to this move.
+     *
+     * @param move - The Move object to be restored
+     * @param game - The Game object to be updated
+     * @return - The updated Game object
      */
-    public static Game mapMoveToGame(Move move) {
+    public static Game mapMoveToGame(Move move, Game game) {
         // Get the current game status based on the move's status
         GameStatus status = Arrays.stream(GameStatus.values())
                 .filter(value -> value.status.equals(move.getGameStatus()))
                 // If the move's status is not found, set the game status to USER_WINS
                 .findFirst().orElse(GameStatus.USER_WINS);
 
-        // Build a new Game object and return it
-        return Game.builder()
-                .id(move.getGameId())
-                .playerOne(move.getPlayerOne())
-                .playerTwo(move.getPlayerTwo())
-                .gameStatus(status)
-                .playerOneScores(move.getPlayerOneScores())
-                .playerTwoScores(move.getPlayerTwoScores())
-                .turn(move.getTurn())
-                .build();
+        // Update the Game object and return it
+        game.setPlayerOne(move.getPlayerOne());
+        game.setPlayerTwo(move.getPlayerTwo());
+        game.setGameStatus(status);
+        game.setPlayerOneScores(move.getPlayerOneScores());
+        game.setPlayerTwoScores(move.getPlayerTwoScores());
+        game.setTurn(move.getTurn());
+        game.setHeadMove(move.getMove());
+        return game;
     }
 
     /**
@@ -99,8 +135,7 @@ public class GameMapper {
     public static Move mapGameToMove(Game game) {
         // Get the current move status based on the game's status
         String status = game.getGameStatus() == GameStatus.USER_WINS
-                ? String.format("%s wins!", game.getPlayerOneScores() == 0
-                ? game.getPlayerOne() : game.getPlayerTwo())
+                ? String.format("%s wins!", winner(game))
                 : game.getGameStatus().status;
 
         // Build a new Move object and return it
@@ -3,6 +3,7 @@ package com.example.springdartsgame.util;
 import com.example.springdartsgame.entity.Game;
 import com.example.springdartsgame.entity.Move;
 import com.example.springdartsgame.model.GameStatus;
+import com.example.springdartsgame.model.GameVariant;
 import com.example.springdartsgame.model.Result;
 import com.example.springdartsgame.model.Throws;
 import com.example.springdartsgame.model.Update;
@@ -10,12 +11,17 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 
+import java.time.Instant;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
 @Component
 public class GameValidator {
+    private static final Pattern DART = Pattern.compile("(none)|([12]:25)|([1-3]:20)|([1-3]:1[0-9])|([1-3]:[0-9])");
+
     public ResponseEntity<?> validateGame(Game game, String user, List<Game> unfinishedGames) {
         return game == null ?
                 new ResponseEntity<>(new Result("Game not found!"), HttpStatus.NOT_FOUND)
@@ -51,8 +57,22 @@ public class GameValidator {
         }
     }
 
-    public ResponseEntity<?> validateGameHistory(List<Move> moveHistory) {
-        return moveHistory.isEmpty() ? new ResponseEntity<>(new Result("Game not found!"), HttpStatus.NOT_FOUND) : null;
+    public ResponseEntity<?> validateGameHistory(Game game) {
+        return game == null || game.getHeadMove() < 0 ?
+                new ResponseEntity<>(new Result("Game not found!"), HttpStatus.NOT_FOUND)
+                : null;
+    }
+
+    public ResponseEntity<?> validateHistoryRange(int from, Integer to, Integer limit) {
+        return from < 0 || to != null && to < from || limit != null && limit <= 0 ?
+                new ResponseEntity<>(new Result("Wrong request!"), HttpStatus.BAD_REQUEST)
+                : null;
+    }
+
+    public ResponseEntity<?> validatePlayerGamesPage(long before, int limit, int maxLimit, Instant from, Instant to) {
+        return before <= 0 || limit <= 0 || limit > maxLimit || from != null && to != null && !from.isBefore(to) ?
+                new ResponseEntity<>(new Result("Wrong request!"), HttpStatus.BAD_REQUEST)
+                : null;
     }
 
     public ResponseEntity<?> validateGameUpdate(Update gameUpdate, Game game) {
@@ -67,14 +87,24 @@ public class GameValidator {
                 : null;
     }
 
-    public ResponseEntity<?> validateGameRevert(Game oldGame, Move move, Move lastMove) {
-        return oldGame == null ?
+    public ResponseEntity<?> validateGameRevert(Game game, Move move) {
+        return game == null ?
                 new ResponseEntity<>(new Result("Game not found!"), HttpStatus.NOT_FOUND)
                 : move == null ?
                 new ResponseEntity<>(new Result("Move not found!"), HttpStatus.BAD_REQUEST)
-                : lastMove.equals(move) ?
+                : move.getMove() >= game.getHeadMove() ?
                 new ResponseEntity<>(new Result("There is nothing to revert!"), HttpStatus.BAD_REQUEST)
-                : oldGame.getGameStatus() == GameStatus.USER_WINS ?
+                : game.getGameStatus() == GameStatus.USER_WINS ?
+                new ResponseEntity<>(new Result("The game is over!"), HttpStatus.BAD_REQUEST)
+                : null;
+    }
+
+    public ResponseEntity<?> validateGameRedo(Game game, Move nextMove) {
+        return game == null ?
+                new ResponseEntity<>(new Result("Game not found!"), HttpStatus.NOT_FOUND)
+                : nextMove == null ?
+                new ResponseEntity<>(new Result("There is nothing to redo!"), HttpStatus.BAD_REQUEST)
+                : game.getGameStatus() == GameStatus.USER_WINS ?
                 new ResponseEntity<>(new Result("The game is over!"), HttpStatus.BAD_REQUEST)
                 : null;
     }
@@ -85,9 +115,53 @@ public class GameValidator {
                 : null;
     }
 
+    public ResponseEntity<?> validateVariant(String variant) {
+        return variant != null && GameVariant.fromVariant(variant) == null ?
+                new ResponseEntity<>(new Result("Wrong variant!"), HttpStatus.BAD_REQUEST)
+                : null;
+    }
+
+    public ResponseEntity<?> validateExportStatus(String status) {
+        return status != null && Arrays.stream(GameStatus.values()).noneMatch(s -> s.name().equals(status)) ?
+                new ResponseEntity<>(new Result("Wrong status!"), HttpStatus.BAD_REQUEST)
+                : null;
+    }
+
+    public ResponseEntity<?> validateEntrants(List<String> entrants) {
+        return entrants == null || entrants.size() < 2
+                || entrants.stream().anyMatch(entrant -> entrant == null || entrant.isBlank())
+                || entrants.stream().distinct().count() != entrants.size() ?
+                new ResponseEntity<>(new Result("Wrong entrants!"), HttpStatus.BAD_REQUEST)
+                : null;
+    }
+
+    public ResponseEntity<?> validateEntrantGames(List<Game> unfinishedGames) {
+        return !unfinishedGames.isEmpty() ?
+                new ResponseEntity<>(new Result("Entrants have unfinished games!"), HttpStatus.BAD_REQUEST)
+                : null;
+    }
+
+    public ResponseEntity<?> validateEntrantTournaments(boolean inTournament) {
+        return inTournament ?
+                new ResponseEntity<>(new Result("Entrants are in a running tournament!"), HttpStatus.BAD_REQUEST)
+                : null;
+    }
+
+    public ResponseEntity<?> validateNotInTournament(boolean inTournament) {
+        return inTournament ?
+                new ResponseEntity<>(new Result("You are in a running tournament!"), HttpStatus.BAD_REQUEST)
+                : null;
+    }
+
+    public ResponseEntity<?> validateDart(String dart) {
+        return dart == null || dart.equals("none") || !DART.matcher(dart).matches() ?
+                new ResponseEntity<>(new Result("Wrong dart!"), HttpStatus.BAD_REQUEST)
+                : null;
+    }
+
     public ResponseEntity<?> validateThrows(Throws dartThrows) {
         return !Stream.of(dartThrows.first(), dartThrows.second(), dartThrows.third())
-                .allMatch(t -> t.matches("(none)|([12]:25)|([1-3]:20)|([1-3]:1[0-9])|([1-3]:[0-9])")) ?
+                .allMatch(t -> t != null && DART.matcher(t).matches()) ?
                 new ResponseEntity<>(new Result("Wrong throws!"), HttpStatus.BAD_REQUEST)
                 : null;
     }
@@ -0,0 +1,65 @@
+package com.example.springdartsgame.util;
+
+import java.util.function.Supplier;
+
+/**
+ * This class holds the league of the current thread. The league selects the database the repositories work with (see
+ * {@link com.example.springdartsgame.config.LeagueRoutingDataSource}). It is set per request from the header or the
+ * player, work outside of a request (startup, timers, audits) runs in a league explicitly.
+ */
+public final class LeagueContext {
+    public static final String DEFAULT_LEAGUE = "default";
+
+    private static final ThreadLocal<String> LEAGUE = new ThreadLocal<>();
+
+    private LeagueContext() {
+    }
+
+    /**
+     * This method returns the league of the current thread.
+     *
+     * @return - The name of the league, the default league if none is set
+     */
+    public static String current() {
+        String league = LEAGUE.get();
+        return league == null ? DEFAULT_LEAGUE : league;
+    }
+
+    /**
+     * This method sets the league of the current thread until it is cleared.
+     *
+     * @param league - The name of the league
+     */
+    public static void set(String league) {
+        LEAGUE.set(league);
+    }
+
+    public static void clear() {
+        LEAGUE.remove();
+    }
+
+    /**
+     * This method runs an action in a league and restores the league of the current thread afterwards.
+     *
+     * @param league - The name of the league
+     * @param action - The action
+     * @return - The result of the action
+     */
+    public static <T> T call(String league, Supplier<T> action) {
+        String previous = LEAGUE.get();
+        LEAGUE.set(league);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) LEAGUE.remove();
+            else LEAGUE.set(previous);
+        }
+    }
+
+    public static void run(String league, Runnable action) {
+        call(league, () -> {
+            action.run();
+            return null;
+        });
+    }
+}
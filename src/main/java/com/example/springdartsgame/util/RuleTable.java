@@ -0,0 +1,153 @@
+package com.example.springdartsgame.util;
+
+import com.example.springdartsgame.model.GameVariant;
+
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * This class holds the rules of a game variant, compiled into a transition table over (state, dart). A state is the
+ * remaining score of a player, plus a flag if the player hasn't scored yet in a double-in game. A dart is encoded as
+ * a dart code (see {@link #dartCode(String)}). Scoring a throw is one table lookup per dart, there is no branching on
+ * the rules and no exception for a bust.
+ */
+public final class RuleTable {
+    public static final int MAX_SCORE = 501;
+    public static final int NONE = -1; // The dart code of a dart that wasn't thrown
+    public static final int WIN = -1; // The transition of a checkout
+    public static final int BUST = -2; // The transition of a bust
+    public static final int VISIT_WIN = MAX_SCORE + 1; // The outcome of a visit that checks out
+
+    private static final int SECTORS = 22; // 0 to 20 and the bull (25)
+    public static final int DART_CODES = 3 * SECTORS;
+    private static final int NOT_OPENED = MAX_SCORE + 1; // Offset of the states before the first double (double-in)
+    public static final int STATES = 2 * NOT_OPENED; // The states of all variants (only double-in has unopened states)
+
+    private static final Map<GameVariant, RuleTable> TABLES = new EnumMap<>(GameVariant.class);
+
+    static {
+        for (GameVariant variant : GameVariant.values()) TABLES.put(variant, new RuleTable(variant));
+    }
+
+    private final GameVariant variant;
+    private final short[] transitions = new short[STATES * DART_CODES];
+    private final AtomicReferenceArray<BitSet> visits = new AtomicReferenceArray<>(STATES); // Computed when needed
+
+    private RuleTable(GameVariant variant) {
+        this.variant = variant;
+        for (int score = 0; score <= MAX_SCORE; score++) {
+            for (int code = 0; code < DART_CODES; code++) {
+                transitions[score * DART_CODES + code] = (short) scoreDart(score, code);
+                // Before the first double the player doesn't score, the double is scored as usual
+                transitions[(NOT_OPENED + score) * DART_CODES + code] = (short) (variant.doubleIn && multiplier(code) != 2
+                        ? NOT_OPENED + score
+                        : scoreDart(score, code));
+            }
+        }
+    }
+
+    private int scoreDart(int score, int code) {
+        int remaining = score - points(code);
+        return remaining == 0 ? (variant.isCheckout(multiplier(code)) ? WIN : BUST)
+                : remaining < variant.minimumCheckout() ? BUST
+                : remaining;
+    }
+
+    /**
+     * This method returns the compiled rules of a game variant.
+     *
+     * @param variant - The game variant (null for the default variant)
+     * @return - The rule table
+     */
+    public static RuleTable of(GameVariant variant) {
+        return TABLES.get(variant == null ? GameVariant.DOUBLE_OUT : variant);
+    }
+
+    /**
+     * This method returns the state of a player at the start of a throw.
+     *
+     * @param score       - The remaining score of the player
+     * @param targetScore - The target score of the game
+     * @return - The state
+     */
+    public int startState(int score, int targetScore) {
+        return variant.doubleIn && score == targetScore ? NOT_OPENED + score : score;
+    }
+
+    /**
+     * This method returns the transition of a single dart.
+     *
+     * @param state - The current state
+     * @param code  - The dart code
+     * @return - The next state, or WIN or BUST
+     */
+    public int next(int state, int code) {
+        return transitions[state * DART_CODES + code];
+    }
+
+    /**
+     * This method returns the possible outcomes of a visit (up to three darts) from a state: every remaining score
+     * that can be reached, and VISIT_WIN if the player can check out. A bust keeps the score of the state.
+     *
+     * @param state - The state at the start of the visit
+     * @return - The outcomes (shared, must not be changed)
+     */
+    public BitSet visitOutcomes(int state) {
+        BitSet outcomes = visits.get(state);
+        if (outcomes == null) {
+            outcomes = computeVisitOutcomes(state);
+            visits.set(state, outcomes);
+        }
+        return outcomes;
+    }
+
+    private BitSet computeVisitOutcomes(int state) {
+        BitSet outcomes = new BitSet(VISIT_WIN + 1);
+        outcomes.set(score(state)); // No scoring dart or a bust
+        BitSet states = new BitSet(STATES);
+        states.set(state);
+        for (int dart = 0; dart < 3; dart++) {
+            BitSet nextStates = new BitSet(STATES);
+            for (int s = states.nextSetBit(0); s >= 0; s = states.nextSetBit(s + 1)) {
+                for (int code = 0; code < DART_CODES; code++) {
+                    int next = next(s, code);
+                    if (next == WIN) outcomes.set(VISIT_WIN);
+                    else if (next >= 0) nextStates.set(next);
+                }
+            }
+            for (int s = nextStates.nextSetBit(0); s >= 0; s = nextStates.nextSetBit(s + 1)) outcomes.set(score(s));
+            states = nextStates;
+        }
+        return outcomes;
+    }
+
+    // The remaining score of a state
+    public static int score(int state) {
+        return state >= NOT_OPENED ? state - NOT_OPENED : state;
+    }
+
+    /**
+     * This method encodes a dart ("multiplier:sector" or "none") as a dart code. The dart has to be validated before.
+     *
+     * @param dart - The dart
+     * @return - The dart code, or NONE
+     */
+    public static int dartCode(String dart) {
+        if (dart.charAt(0) == 'n') return NONE;
+        int multiplier = dart.charAt(0) - '0';
+        int sector = dart.charAt(2) - '0';
+        if (dart.length() == 4) sector = sector * 10 + dart.charAt(3) - '0';
+        return (multiplier - 1) * SECTORS + (sector == 25 ? SECTORS - 1 : sector);
+    }
+
+    public static int multiplier(int code) {
+        return code / SECTORS + 1;
+    }
+
+    public static int points(int code) {
+        int sector = code % SECTORS;
+        return multiplier(code) * (sector == SECTORS - 1 ? 25 : sector);
+    }
+}
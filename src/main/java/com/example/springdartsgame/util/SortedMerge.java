@@ -0,0 +1,60 @@
+package com.example.springdartsgame.util;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * This utility class merges sorted sequences (e.g. the games of several leagues) into one sorted sequence. The merge
+ * is lazy: a heap holds the next element of each sequence, so an element is read from its sequence only when it is
+ * the next one of the merged sequence.
+ */
+public class SortedMerge {
+
+    /**
+     * This method merges sorted iterators.
+     *
+     * @param iterators - The iterators, each sorted by the order
+     * @param order     - The order
+     * @return - An iterator over the elements of all iterators, sorted by the order
+     */
+    public static <T> Iterator<T> merge(List<? extends Iterator<? extends T>> iterators, Comparator<? super T> order) {
+        PriorityQueue<Head<T>> heads = new PriorityQueue<>(Math.max(1, iterators.size()),
+                (a, b) -> order.compare(a.element, b.element));
+        for (Iterator<? extends T> iterator : iterators) {
+            if (iterator.hasNext()) heads.add(new Head<>(iterator.next(), iterator));
+        }
+
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !heads.isEmpty();
+            }
+
+            @Override
+            public T next() {
+                Head<T> head = heads.poll();
+                if (head == null) throw new NoSuchElementException();
+                T element = head.element;
+                if (head.iterator.hasNext()) {
+                    head.element = head.iterator.next();
+                    heads.add(head);
+                }
+                return element;
+            }
+        };
+    }
+
+    // The next element of an iterator
+    private static final class Head<T> {
+        private T element;
+        private final Iterator<? extends T> iterator;
+
+        private Head(T element, Iterator<? extends T> iterator) {
+            this.element = element;
+            this.iterator = iterator;
+        }
+    }
+}
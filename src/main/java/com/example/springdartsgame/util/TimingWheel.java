@@ -0,0 +1,221 @@
+package com.example.springdartsgame.util;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * This class is a hashed timing wheel: a timer for a large number of timeouts that don't have to fire to the
+ * millisecond, such as the turn clocks of all running games. The wheel is a ring of buckets, one per tick. A timeout
+ * is linked into the bucket of its deadline, with the number of rounds of the wheel it still has to wait, and a single
+ * worker thread expires the timeouts of one bucket per tick.
+ * <p>
+ * Scheduling and cancelling don't lock and don't depend on the number of timeouts (they are handed to the worker with
+ * lock-free queues), a timeout is a single small object and fires at most one tick late. The tasks of the expired
+ * timeouts are run by an executor, so that a slow task doesn't delay the next ticks.
+ */
+public final class TimingWheel implements AutoCloseable {
+    private static final int INIT = 0;
+    private static final int CANCELLED = 1;
+    private static final int EXPIRED = 2;
+    private static final AtomicIntegerFieldUpdater<Timeout> STATE =
+            AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+    private static final int MAX_TRANSFERS_PER_TICK = 100_000; // So that a burst of timeouts doesn't stall a tick
+
+    private final long tickNanos;
+    private final Bucket[] buckets;
+    private final int mask;
+    private final Executor executor;
+    private final Queue<Timeout> scheduled = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+    private final AtomicLong pending = new AtomicLong();
+    private final long startTime = System.nanoTime();
+    private final Thread worker;
+    private volatile boolean running = true;
+    private long tick; // Only used by the worker
+
+    /**
+     * This constructor starts the worker thread of a timing wheel.
+     *
+     * @param name         - The name of the worker thread
+     * @param tickDuration - The duration of a tick (the precision of the timeouts)
+     * @param wheelSize    - The number of buckets, a power of two (one round of the wheel is wheelSize ticks)
+     * @param executor     - The executor that runs the tasks of the expired timeouts
+     */
+    public TimingWheel(String name, Duration tickDuration, int wheelSize, Executor executor) {
+        if (tickDuration.toNanos() <= 0) throw new IllegalArgumentException("The tick duration has to be positive");
+        if (Integer.bitCount(wheelSize) != 1) throw new IllegalArgumentException("The wheel size has to be a power of 2");
+        this.tickNanos = tickDuration.toNanos();
+        this.buckets = new Bucket[wheelSize];
+        for (int i = 0; i < wheelSize; i++) buckets[i] = new Bucket();
+        this.mask = wheelSize - 1;
+        this.executor = executor;
+        this.worker = new Thread(this::run, name);
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * This method schedules a task.
+     *
+     * @param task  - The task
+     * @param delay - The time after which the task is run
+     * @return - The timeout of the task, to cancel it
+     */
+    public Timeout schedule(Runnable task, Duration delay) {
+        if (!running) throw new IllegalStateException("The timing wheel is stopped");
+        Timeout timeout = new Timeout(task, System.nanoTime() - startTime + Math.max(0, delay.toNanos()));
+        pending.incrementAndGet();
+        scheduled.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * This method returns the number of timeouts that neither expired nor were cancelled.
+     *
+     * @return - The number of timeouts
+     */
+    public long pendingTimeouts() {
+        return pending.get();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(worker);
+        try {
+            worker.join(TimeUnit.NANOSECONDS.toMillis(tickNanos) + 1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        while (running) {
+            long deadline = (tick + 1) * tickNanos;
+            long sleep = deadline - (System.nanoTime() - startTime);
+            if (sleep > 0) {
+                LockSupport.parkNanos(this, sleep);
+                continue;
+            }
+            removeCancelled();
+            transferScheduled();
+            buckets[(int) (tick & mask)].expire();
+            tick++;
+        }
+    }
+
+    private void removeCancelled() {
+        for (Timeout timeout = cancelled.poll(); timeout != null; timeout = cancelled.poll()) {
+            if (timeout.bucket != null) timeout.bucket.remove(timeout);
+        }
+    }
+
+    private void transferScheduled() {
+        for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+            Timeout timeout = scheduled.poll();
+            if (timeout == null) return;
+            if (timeout.state != INIT) continue; // Cancelled before it reached the wheel
+
+            // A deadline in the past expires with the current tick
+            long expiryTick = Math.max(timeout.deadline / tickNanos, tick);
+            timeout.remainingRounds = (expiryTick - tick) / buckets.length;
+            buckets[(int) (expiryTick & mask)].add(timeout);
+        }
+    }
+
+    /**
+     * A scheduled task. The fields other than the state are only used by the worker.
+     */
+    public final class Timeout {
+        private final Runnable task;
+        private final long deadline; // Relative to the start of the wheel
+        private long remainingRounds;
+        private Timeout next;
+        private Timeout previous;
+        private Bucket bucket;
+        volatile int state;
+
+        private Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * This method cancels the timeout, unless it already expired.
+         *
+         * @return - Whether the timeout was cancelled
+         */
+        public boolean cancel() {
+            if (!STATE.compareAndSet(this, INIT, CANCELLED)) return false;
+            pending.decrementAndGet();
+            cancelled.add(this);
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return state == CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return state == EXPIRED;
+        }
+
+        private void expire() {
+            if (!STATE.compareAndSet(this, INIT, EXPIRED)) return;
+            pending.decrementAndGet();
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                // The executor was shut down, the application is stopping
+            }
+        }
+    }
+
+    // A doubly linked list of timeouts, only used by the worker
+    private static final class Bucket {
+        private Timeout head;
+        private Timeout tail;
+
+        private void add(Timeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.previous = tail;
+                tail = timeout;
+            }
+        }
+
+        private void expire() {
+            Timeout timeout = head;
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                if (timeout.remainingRounds <= 0 || timeout.state != INIT) {
+                    remove(timeout);
+                    timeout.expire();
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        private void remove(Timeout timeout) {
+            if (timeout.bucket != this) return; // Already removed (e.g. expired and then cancelled)
+            if (timeout.previous != null) timeout.previous.next = timeout.next;
+            else head = timeout.next;
+            if (timeout.next != null) timeout.next.previous = timeout.previous;
+            else tail = timeout.previous;
+            timeout.next = timeout.previous = null;
+            timeout.bucket = null;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.springdartsgame.util;
+
+/**
+ * This utility class holds the layout of a knockout bracket. The matches are numbered like a binary heap: match 1 is
+ * the final, and the winners of the matches 2 * m and 2 * m + 1 meet in match m. With a bracket size n (a power of
+ * two), the first round are the matches n / 2 to n - 1. So the next match of a winner, and the round of a match, is
+ * plain arithmetic.
+ */
+public class TournamentBracket {
+
+    /**
+     * This method returns the number of places in the first round: the smallest power of two that holds all entrants.
+     *
+     * @param entrants - The number of entrants (at least 2)
+     * @return - The bracket size
+     */
+    public static int size(int entrants) {
+        return Integer.highestOneBit(entrants - 1) << 1;
+    }
+
+    /**
+     * This method returns the number of rounds of a bracket.
+     *
+     * @param size - The bracket size
+     * @return - The number of rounds
+     */
+    public static int rounds(int size) {
+        return Integer.numberOfTrailingZeros(size);
+    }
+
+    /**
+     * This method returns the round of a match.
+     *
+     * @param match - The number of the match
+     * @param size  - The bracket size
+     * @return - The round, 1 is the first round
+     */
+    public static int round(int match, int size) {
+        return rounds(size) - (31 - Integer.numberOfLeadingZeros(match));
+    }
+
+    /**
+     * This method returns the seeds of the places in the first round (standard seeding). The best seeds meet as late
+     * as possible, and the places of missing seeds (byes) always face one of the best seeds.
+     *
+     * @param size - The bracket size
+     * @return - The seed (starting with 1) of every place, place 2 * i and 2 * i + 1 meet in the first round
+     */
+    public static int[] seedOrder(int size) {
+        int[] seeds = {1};
+        while (seeds.length < size) {
+            int[] next = new int[seeds.length * 2];
+            for (int i = 0; i < seeds.length; i++) {
+                next[2 * i] = seeds[i];
+                next[2 * i + 1] = 2 * seeds.length + 1 - seeds[i];
+            }
+            seeds = next;
+        }
+        return seeds;
+    }
+}
@@ -0,0 +1,344 @@
+package com.example.springdartsgame.util;
+
+import com.example.springdartsgame.model.GameVariant;
+import com.example.springdartsgame.model.SkillModel;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+/**
+ * This class holds the probability to win of the player to throw, for every pair of states (see {@link RuleTable}) of
+ * the player and the opponent, per game variant. It is computed once by dynamic programming over the visits of both
+ * players with the rules of the variant: a player aims at a checkout if there is one, otherwise at a segment that
+ * leaves a checkout or at the treble 20, and hits with the accuracy of the {@link SkillModel}. A bust or a visit
+ * without points keeps the state, so the two states of a pair are solved together.
+ * <p>
+ * The probabilities are kept in a flat float array per variant (row: the player to throw, column: the opponent), a
+ * lookup is one array access. The table can be saved to a file and mapped back, so a restart doesn't compute it.
+ */
+public final class WinProbabilityTable {
+    private static final int MAGIC = 0x44575031; // "DWP1"
+    private static final int FORMAT_VERSION = 1; // Increment when the rules or the strategy change
+    private static final int HEADER_BYTES = 4 + 4 + 3 * 8 + 4;
+
+    private final SkillModel skill;
+    private final Map<GameVariant, FloatBuffer> tables;
+
+    private WinProbabilityTable(SkillModel skill, Map<GameVariant, FloatBuffer> tables) {
+        this.skill = skill;
+        this.tables = tables;
+    }
+
+    /**
+     * This method computes the table of all variants. The states of a variant are solved in waves of the same total
+     * score (the states of a wave only depend on earlier waves), each wave in parallel.
+     *
+     * @param skill - The accuracy of the players
+     * @return - The table
+     */
+    public static WinProbabilityTable compute(SkillModel skill) {
+        Map<GameVariant, FloatBuffer> tables = new EnumMap<>(GameVariant.class);
+        for (GameVariant variant : GameVariant.values()) {
+            tables.put(variant, FloatBuffer.wrap(new VariantSolver(variant, skill).solve()));
+        }
+        return new WinProbabilityTable(skill, tables);
+    }
+
+    /**
+     * This method maps a table that was saved before.
+     *
+     * @param file  - The file
+     * @param skill - The accuracy of the players the table has to be computed for
+     * @return - The table, or null if there is no file or it was computed for other rules or players
+     */
+    public static WinProbabilityTable load(Path file, SkillModel skill) throws IOException {
+        if (!Files.isRegularFile(file)) return null;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION
+                    || buffer.getDouble(8) != skill.trebleAccuracy() || buffer.getDouble(16) != skill.doubleAccuracy()
+                    || buffer.getDouble(24) != skill.singleAccuracy()
+                    || buffer.getInt(32) != GameVariant.values().length) {
+                return null;
+            }
+
+            Map<GameVariant, FloatBuffer> tables = new EnumMap<>(GameVariant.class);
+            int offset = HEADER_BYTES;
+            for (GameVariant variant : GameVariant.values()) {
+                int size = states(variant) * states(variant) * Float.BYTES;
+                if (buffer.capacity() < offset + size) return null;
+                tables.put(variant, buffer.slice(offset, size).asFloatBuffer());
+                offset += size;
+            }
+            return new WinProbabilityTable(skill, tables);
+        }
+    }
+
+    /**
+     * This method writes the table to a file (replaced atomically).
+     *
+     * @param file - The file
+     */
+    public void save(Path file) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(FORMAT_VERSION)
+                    .putDouble(skill.trebleAccuracy()).putDouble(skill.doubleAccuracy())
+                    .putDouble(skill.singleAccuracy()).putInt(GameVariant.values().length);
+            write(channel, header.flip());
+            for (GameVariant variant : GameVariant.values()) {
+                FloatBuffer table = tables.get(variant);
+                ByteBuffer bytes = ByteBuffer.allocate(table.capacity() * Float.BYTES);
+                for (int i = 0; i < table.capacity(); i++) bytes.putFloat(table.get(i));
+                write(channel, bytes.flip());
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * This method returns the probability that the player to throw wins.
+     *
+     * @param variant       - The game variant (null for the default variant)
+     * @param throwerState  - The state of the player to throw
+     * @param opponentState - The state of the opponent
+     * @return - The probability
+     */
+    public double throwerWins(GameVariant variant, int throwerState, int opponentState) {
+        GameVariant rules = variant == null ? GameVariant.DOUBLE_OUT : variant;
+        return tables.get(rules).get(throwerState * states(rules) + opponentState);
+    }
+
+    /**
+     * This method returns the probability that player one wins a running game.
+     *
+     * @param variant          - The game variant (null for the default variant)
+     * @param targetScore      - The target score of the game
+     * @param playerOneScore   - The remaining score of player one
+     * @param playerTwoScore   - The remaining score of player two
+     * @param playerOneToThrow - Whether it is the turn of player one
+     * @return - The probability, or -1 if the scores are out of range
+     */
+    public double playerOneWins(GameVariant variant, int targetScore, int playerOneScore, int playerTwoScore,
+                                boolean playerOneToThrow) {
+        if (playerOneScore <= 0 || playerTwoScore <= 0
+                || playerOneScore > RuleTable.MAX_SCORE || playerTwoScore > RuleTable.MAX_SCORE) {
+            return -1;
+        }
+        RuleTable rules = RuleTable.of(variant);
+        int one = rules.startState(playerOneScore, targetScore);
+        int two = rules.startState(playerTwoScore, targetScore);
+        return playerOneToThrow ? throwerWins(variant, one, two) : 1 - throwerWins(variant, two, one);
+    }
+
+    private static int states(GameVariant variant) {
+        return variant.doubleIn ? RuleTable.STATES : RuleTable.MAX_SCORE + 1;
+    }
+
+    private static void write(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) channel.write(buffer);
+    }
+
+    // The outcomes of a visit that doesn't win: the states other than the start state and their probabilities
+    private record Visit(double win, double stay, int[] states, double[] probabilities) {
+    }
+
+    // The probabilities of the dart codes hit when a dart code is aimed at
+    private record Spread(int[] codes, double[] probabilities) {
+    }
+
+    private static final class VariantSolver {
+        private static final int[] BOARD = {20, 1, 18, 4, 13, 6, 10, 15, 2, 17, 3, 19, 7, 16, 8, 11, 14, 9, 12, 5};
+        private static final int TREBLE_20 = RuleTable.dartCode("3:20");
+        private static final int DOUBLE_20 = RuleTable.dartCode("2:20");
+
+        private final RuleTable rules;
+        private final SkillModel skill;
+        private final int states;
+        private final Spread[] spreads = new Spread[RuleTable.DART_CODES];
+        private final int[] checkouts; // The best single dart checkout of every state, or NONE
+        private final int[] aims;
+        private final Visit[] visits;
+
+        private VariantSolver(GameVariant variant, SkillModel skill) {
+            this.rules = RuleTable.of(variant);
+            this.skill = skill;
+            this.states = states(variant);
+            for (int code = 0; code < RuleTable.DART_CODES; code++) spreads[code] = spread(code);
+            this.checkouts = new int[states];
+            for (int state = 0; state < states; state++) checkouts[state] = checkout(state);
+            this.aims = new int[states];
+            for (int state = 0; state < states; state++) aims[state] = aim(state);
+            this.visits = new Visit[states];
+            IntStream.range(1, states).parallel().forEach(state -> visits[state] = visit(state));
+        }
+
+        private float[] solve() {
+            double[] p = new double[states * states];
+            for (int state = 1; state < states; state++) p[state] = 1; // The player to throw (state 0) has won
+
+            int maxLevel = level(states - 1);
+            for (int total = 2; total <= 2 * maxLevel; total++) {
+                int wave = total;
+                IntStream.rangeClosed(Math.max(1, wave - maxLevel), wave / 2).parallel().forEach(level -> {
+                    int a = state(level);
+                    int b = state(wave - level);
+                    if (a < states && b < states) solvePair(p, a, b);
+                });
+            }
+
+            float[] table = new float[p.length];
+            // Clamps the rounding drift of the unwinnable states (such as a score of 1 with double-out)
+            for (int i = 0; i < p.length; i++) table[i] = (float) Math.min(1, Math.max(0, p[i]));
+            return table;
+        }
+
+        // Solves P(a, b) and P(b, a) from the states with a lower total level
+        private void solvePair(double[] p, int a, int b) {
+            Visit visitA = visits[a];
+            Visit visitB = visits[b];
+            double c1 = visitA.win();
+            for (int i = 0; i < visitA.states().length; i++) {
+                c1 += visitA.probabilities()[i] * (1 - p[b * states + visitA.states()[i]]);
+            }
+            double c2 = visitB.win();
+            for (int i = 0; i < visitB.states().length; i++) {
+                c2 += visitB.probabilities()[i] * (1 - p[a * states + visitB.states()[i]]);
+            }
+
+            // x = c1 + stayA * (1 - y) and y = c2 + stayB * (1 - x)
+            double determinant = 1 - visitA.stay() * visitB.stay();
+            double x = determinant < 1e-12 ? 0.5 : (c1 + visitA.stay() * (1 - c2 - visitB.stay())) / determinant;
+            double y = determinant < 1e-12 ? 0.5 : c2 + visitB.stay() * (1 - x);
+            p[a * states + b] = x;
+            p[b * states + a] = y;
+        }
+
+        // Every transition goes to a lower level or stays (an unopened state is above the opened state of its score)
+        private static int level(int state) {
+            return 2 * RuleTable.score(state) + (state > RuleTable.MAX_SCORE ? 1 : 0);
+        }
+
+        private static int state(int level) {
+            return (level & 1) == 1 ? RuleTable.MAX_SCORE + 1 + level / 2 : level / 2;
+        }
+
+        private Visit visit(int start) {
+            double[] mass = new double[states];
+            mass[start] = 1;
+            double win = 0;
+            double bust = 0;
+            for (int dart = 0; dart < 3; dart++) {
+                double[] next = new double[states];
+                for (int state = 0; state < states; state++) {
+                    if (mass[state] == 0) continue;
+                    Spread spread = spreads[aims[state]];
+                    for (int i = 0; i < spread.codes().length; i++) {
+                        double probability = mass[state] * spread.probabilities()[i];
+                        int to = rules.next(state, spread.codes()[i]);
+                        if (to == RuleTable.WIN) win += probability;
+                        else if (to == RuleTable.BUST) bust += probability;
+                        else next[to] += probability;
+                    }
+                }
+                mass = next;
+            }
+
+            double[] end = mass;
+            int[] outcomes = IntStream.range(0, states).filter(state -> state != start && end[state] > 0).toArray();
+            double[] probabilities = new double[outcomes.length];
+            for (int i = 0; i < outcomes.length; i++) probabilities[i] = end[outcomes[i]];
+            return new Visit(win, end[start] + bust, outcomes, probabilities);
+        }
+
+        private int aim(int state) {
+            if (checkouts[state] != RuleTable.NONE) return checkouts[state];
+            if (state > RuleTable.MAX_SCORE) return DOUBLE_20; // Open with any double
+            if (state >= 100) return TREBLE_20;
+
+            // A single or treble that leaves the best checkout
+            int best = RuleTable.NONE;
+            double bestChance = 0;
+            for (int code = 0; code < RuleTable.DART_CODES; code++) {
+                if (RuleTable.multiplier(code) == 2 || RuleTable.points(code) == 0) continue;
+                int next = rules.next(state, code);
+                if (next <= 0 || checkouts[next] == RuleTable.NONE) continue;
+                double chance = skill.accuracy(RuleTable.multiplier(code))
+                        * skill.accuracy(RuleTable.multiplier(checkouts[next]));
+                if (chance > bestChance) {
+                    best = code;
+                    bestChance = chance;
+                }
+            }
+            if (best != RuleTable.NONE) return best;
+
+            // Otherwise as many points as possible without a bust
+            for (int code = 0; code < RuleTable.DART_CODES; code++) {
+                if (RuleTable.multiplier(code) == 2 || rules.next(state, code) < 0) continue;
+                if (best == RuleTable.NONE || RuleTable.points(code) > RuleTable.points(best)) best = code;
+            }
+            return best == RuleTable.NONE ? TREBLE_20 : best;
+        }
+
+        // The most accurate dart that checks out, or NONE
+        private int checkout(int state) {
+            int best = RuleTable.NONE;
+            for (int code = 0; code < RuleTable.DART_CODES; code++) {
+                if (rules.next(state, code) == RuleTable.WIN && (best == RuleTable.NONE
+                        || skill.accuracy(RuleTable.multiplier(code)) > skill.accuracy(RuleTable.multiplier(best)))) {
+                    best = code;
+                }
+            }
+            return best;
+        }
+
+        private Spread spread(int code) {
+            int multiplier = RuleTable.multiplier(code);
+            int sector = RuleTable.points(code) / Math.max(1, multiplier);
+            double hit = skill.accuracy(multiplier);
+            Map<Integer, Double> codes = new TreeMap<>();
+            codes.merge(code, hit, Double::sum);
+
+            double miss = 1 - hit;
+            if (sector == 0) {
+                codes.merge(code, miss, Double::sum);
+            } else if (sector == 25) {
+                // Around the bull: the single bull or any single
+                if (multiplier == 2) codes.merge(RuleTable.dartCode("1:25"), miss / 2, Double::sum);
+                double scattered = multiplier == 2 ? miss / 2 : miss;
+                for (int s : BOARD) codes.merge(RuleTable.dartCode("1:" + s), scattered / BOARD.length, Double::sum);
+            } else {
+                int position = IntStream.range(0, BOARD.length).filter(i -> BOARD[i] == sector).findFirst().orElse(0);
+                int left = RuleTable.dartCode("1:" + BOARD[(position + BOARD.length - 1) % BOARD.length]);
+                int right = RuleTable.dartCode("1:" + BOARD[(position + 1) % BOARD.length]);
+                int single = RuleTable.dartCode("1:" + sector);
+                if (multiplier == 3) {
+                    codes.merge(single, miss * 0.8, Double::sum);
+                    codes.merge(left, miss * 0.1, Double::sum);
+                    codes.merge(right, miss * 0.1, Double::sum);
+                } else if (multiplier == 2) {
+                    codes.merge(single, miss / 2, Double::sum);
+                    codes.merge(RuleTable.dartCode("1:0"), miss / 2, Double::sum); // Outside the board
+                } else {
+                    codes.merge(left, miss / 2, Double::sum);
+                    codes.merge(right, miss / 2, Double::sum);
+                }
+            }
+            return new Spread(codes.keySet().stream().mapToInt(Integer::intValue).toArray(),
+                    codes.values().stream().mapToDouble(Double::doubleValue).toArray());
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.springdartsgame.benchmark;
+
+import com.example.springdartsgame.entity.Move;
+import com.example.springdartsgame.model.GameStatus;
+import com.example.springdartsgame.persistence.MappedMoveStore;
+import com.example.springdartsgame.persistence.MoveStore;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * This benchmark compares the JPA move store (the in-memory H2 of the test profile) with the memory-mapped move store
+ * for each fsync policy: appending the moves of many games and reading the whole history of every game.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class MoveStoreBenchmark {
+    private static final String ONE = "ivanhoe@acme.com";
+    private static final String TWO = "robinhood@acme.com";
+    private static final int GAMES = 500;
+    private static final int MOVES_PER_GAME = 40;
+    private static final int HISTORY_ROUNDS = 5;
+
+    @Autowired
+    private MoveStore jpaMoveStore;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void jpaAgainstMappedStore() throws IOException {
+        System.out.printf("%n%-16s %14s %14s%n", "store", "appends/s", "histories/s");
+        run("jpa", jpaMoveStore, 1_000_000_000L);
+        for (MappedMoveStore.FsyncPolicy policy : MappedMoveStore.FsyncPolicy.values()) {
+            try (MappedMoveStore store = new MappedMoveStore(directory.resolve(policy.name()), DataSize.ofMegabytes(8),
+                    policy, Duration.ofSeconds(1))) {
+                run("mapped " + policy.name().toLowerCase(), store, 1_000_000_000L);
+            }
+        }
+    }
+
+    private static void run(String name, MoveStore store, long firstGameId) {
+        long start = System.nanoTime();
+        for (int move = 0; move < MOVES_PER_GAME; move++) {
+            for (int game = 0; game < GAMES; game++) store.append(move(firstGameId + game, move));
+        }
+        long appendNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int round = 0; round < HISTORY_ROUNDS; round++) {
+            for (int game = 0; game < GAMES; game++) {
+                assertEquals(MOVES_PER_GAME,
+                        store.findActiveHistory(firstGameId + game, 0, Integer.MAX_VALUE, null).size());
+            }
+        }
+        long historyNanos = System.nanoTime() - start;
+
+        System.out.printf("%-16s %14.0f %14.0f%n", name, GAMES * MOVES_PER_GAME / (appendNanos / 1e9),
+                GAMES * HISTORY_ROUNDS / (historyNanos / 1e9));
+    }
+
+    private static Move move(long gameId, int move) {
+        return Move.builder()
+                .gameId(gameId)
+                .move(move)
+                .playerOne(ONE)
+                .playerTwo(TWO)
+                .gameStatus(move == 0 ? GameStatus.STARTED.status : GameStatus.PLAYING.status)
+                .playerOneScores(501 - move * 6)
+                .playerTwoScores(501 - move * 5)
+                .turn(move % 2 == 0 ? ONE : TWO)
+                .build();
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.springdartsgame.benchmark;
+
+import com.example.springdartsgame.entity.Game;
+import com.example.springdartsgame.model.GameStatus;
+import com.example.springdartsgame.model.GameVariant;
+import com.example.springdartsgame.model.ThrowOutcome;
+import com.example.springdartsgame.model.ThrowPoints;
+import com.example.springdartsgame.model.Throws;
+import com.example.springdartsgame.service.GameProgressService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * This benchmark compares the table-driven rules of {@link GameProgressService} with the former implementation
+ * (double-out rules in branching code, bust signalled with an exception). Both are run on the same random throws,
+ * after checking that they agree on every one of them.
+ */
+@Tag("benchmark")
+class RulesEngineBenchmark {
+    private static final String ONE = "ivanhoe@acme.com";
+    private static final String TWO = "robinhood@acme.com";
+    private static final int THROWS = 100_000;
+    private static final int ROUNDS = 20;
+
+    private final GameProgressService gameProgressService = new GameProgressService();
+    private final Throws[] darts = new Throws[THROWS];
+    private final int[] scores = new int[THROWS];
+
+    @Test
+    void tableDrivenAgainstBranchingRules() {
+        generateThrows(new Random(42));
+
+        // Both implementations have to agree before they are compared
+        for (int i = 0; i < THROWS; i++) {
+            assertEquals(legacyResult(i), tableResult(i), "Different result for " + darts[i] + " at " + scores[i]);
+        }
+
+        for (int round = 0; round < ROUNDS; round++) {
+            long legacy = measure(this::legacyScore);
+            long table = measure(this::tableScore);
+            if (round == ROUNDS - 1) {
+                System.out.printf("%nScoring %d throws: branching %d ns/throw, table-driven %d ns/throw%n",
+                        THROWS, legacy / THROWS, table / THROWS);
+            }
+        }
+    }
+
+    private long measure(ThrowScorer scorer) {
+        Game game = game(0);
+        long checksum = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < THROWS; i++) {
+            game.setPlayerOneScores(scores[i]);
+            game.setTurn(ONE);
+            checksum += scorer.score(game, darts[i]);
+        }
+        long elapsed = System.nanoTime() - start;
+        if (checksum == 42) System.out.println(); // Keeps the results alive
+        return elapsed;
+    }
+
+    private int tableScore(Game game, Throws dartThrows) {
+        return gameProgressService.updatePoints(game, ONE, dartThrows).ordinal() + game.getPlayerOneScores();
+    }
+
+    private int legacyScore(Game game, Throws dartThrows) {
+        try {
+            legacyUpdatePoints(game, dartThrows);
+            return game.getPlayerOneScores();
+        } catch (RuntimeException e) {
+            return -1;
+        }
+    }
+
+    private String tableResult(int i) {
+        Game game = game(scores[i]);
+        ThrowOutcome outcome = gameProgressService.updatePoints(game, ONE, darts[i]);
+        return outcome == ThrowOutcome.INVALID ? "invalid" : describe(game);
+    }
+
+    private String legacyResult(int i) {
+        Game game = game(scores[i]);
+        try {
+            legacyUpdatePoints(game, darts[i]);
+            return describe(game);
+        } catch (RuntimeException e) {
+            return "invalid";
+        }
+    }
+
+    private static String describe(Game game) {
+        return game.getGameStatus() + " " + game.getPlayerOneScores() + " " + game.getTurn();
+    }
+
+    private void generateThrows(Random random) {
+        List<String> allDarts = new ArrayList<>(List.of("none", "1:25", "2:25"));
+        for (int multiplier = 1; multiplier <= 3; multiplier++) {
+            for (int sector = 0; sector <= 20; sector++) allDarts.add(multiplier + ":" + sector);
+        }
+        for (int i = 0; i < THROWS; i++) {
+            scores[i] = random.nextBoolean() ? 2 + random.nextInt(500) : 2 + random.nextInt(60);
+            darts[i] = new Throws(allDarts.get(random.nextInt(allDarts.size())),
+                    allDarts.get(random.nextInt(allDarts.size())), allDarts.get(random.nextInt(allDarts.size())));
+        }
+    }
+
+    private static Game game(int scores) {
+        return Game.builder()
+                .playerOne(ONE)
+                .playerTwo(TWO)
+                .gameStatus(GameStatus.PLAYING)
+                .playerOneScores(scores)
+                .playerTwoScores(501)
+                .turn(ONE)
+                .variant(GameVariant.DOUBLE_OUT)
+                .targetScore(501)
+                .build();
+    }
+
+    // The former implementation of GameProgressService.updatePoints for player one
+    private static void legacyUpdatePoints(Game game, Throws darts) {
+        int scores = game.getPlayerOneScores();
+        List<ThrowPoints> playerThrows = Stream.of(darts.first(), darts.second(), darts.third())
+                .filter(t -> !"none".equals(t))
+                .map(points -> Arrays.stream(points.split(":")).mapToInt(Integer::valueOf).toArray())
+                .map(a -> new ThrowPoints(a[0], a[1]))
+                .toList();
+        int throwsPoints = playerThrows.stream().mapToInt(s -> s.sector() * s.multiplier()).sum();
+        int scoreRemains = scores - throwsPoints;
+        game.setGameStatus(GameStatus.PLAYING);
+        if (legacyCheckVictory(playerThrows, scores)) {
+            game.setGameStatus(GameStatus.USER_WINS);
+        } else {
+            game.setTurn(TWO);
+            if (scoreRemains == 0) scoreRemains = scores;
+        }
+        if (scoreRemains >= 0 && scoreRemains != 1) game.setPlayerOneScores(scoreRemains);
+        if (legacyCheckBust(playerThrows, scores)) throw new RuntimeException();
+    }
+
+    private static boolean legacyCheckVictory(List<ThrowPoints> playerThrows, int score) {
+        for (var s : playerThrows) {
+            score -= s.sector() * s.multiplier();
+            if (score == 0 && s.multiplier() == 2) return true;
+        }
+        return false;
+    }
+
+    private static boolean legacyCheckBust(List<ThrowPoints> playerThrows, int score) {
+        for (int i = 0; i <= playerThrows.size() - 1; i++) {
+            ThrowPoints shot = playerThrows.get(i);
+            score -= shot.sector() * shot.multiplier();
+            if (score <= 1 && i != playerThrows.size() - 1) return true;
+        }
+        return false;
+    }
+
+    @FunctionalInterface
+    private interface ThrowScorer {
+        int score(Game game, Throws dartThrows);
+    }
+}
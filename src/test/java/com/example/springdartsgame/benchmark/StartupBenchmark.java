@@ -0,0 +1,141 @@
+package com.example.springdartsgame.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * This benchmark starts the application in separate JVMs and reports the time from the process start to the first
+ * served request ({@code /actuator/health}) and to the first successful {@code /api/game/status} request (token, game
+ * and status), which includes the work a lazily initialized bean does on first use. It compares the default start, the
+ * fast start profile and, if {@code ./gradlew cdsArchive} was run before, the fast start profile with the AppCDS
+ * archive.
+ */
+@Tag("benchmark")
+class StartupBenchmark {
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+    private static final Pattern ACCESS_TOKEN = Pattern.compile("\"access_token\"\\s*:\\s*\"([^\"]+)\"");
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+    @Test
+    void timeToFirstStatus() throws Exception {
+        Path database = Files.createTempDirectory("startup").resolve("service_db");
+        String classpath = System.getProperty("java.class.path");
+        String mainClass = "com.example.springdartsgame.SpringDartsGameApplication";
+
+        // The default start creates the schema, the fast start profile only validates it
+        report("default", List.of("-cp", classpath, mainClass), database);
+        report("faststart", List.of("-cp", classpath, mainClass, "--spring.profiles.active=faststart"), database);
+
+        File archive = new File("build/cds/app.jsa");
+        File argsFile = new File("build/cds/app.args");
+        if (archive.exists() && argsFile.exists()) {
+            report("faststart+cds", List.of("-XX:SharedArchiveFile=" + archive.getPath(), "@" + argsFile.getPath(),
+                    "--spring.profiles.active=faststart"), database);
+        } else {
+            System.out.println("No AppCDS archive found, run ./gradlew cdsArchive to include it");
+        }
+    }
+
+    private void report(String name, List<String> arguments, Path database) throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(arguments);
+        command.add("--server.port=" + port);
+        command.add("--spring.datasource.url=jdbc:h2:file:" + database);
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(new File("build/startup-" + name + ".log"))
+                .start();
+        try {
+            long served = Duration.ofNanos(timeToFirstResponse(port, start, process)).toMillis();
+            long status = Duration.ofNanos(timeToFirstStatus(port, start, process)).toMillis();
+            System.out.printf("%-14s first served request after %5d ms, first successful /api/game/status after "
+                    + "%5d ms%n", name, served, status);
+        } finally {
+            process.destroy(); // Graceful shutdown, so that the database file is released for the next run
+            process.waitFor();
+        }
+    }
+
+    private long timeToFirstResponse(int port, long start, Process process) throws Exception {
+        URI health = URI.create("http://localhost:" + port + "/actuator/health");
+        while (System.nanoTime() - start < TIMEOUT.toNanos()) {
+            if (!process.isAlive()) throw new IllegalStateException("The application stopped, see build/startup-*.log");
+            try {
+                client.send(HttpRequest.newBuilder(health).build(), HttpResponse.BodyHandlers.discarding());
+                return System.nanoTime() - start; // Any response, the application is up but maybe not healthy yet
+            } catch (ConnectException e) {
+                // Not listening yet
+            }
+            Thread.sleep(10);
+        }
+        throw new IllegalStateException("No request served within " + TIMEOUT);
+    }
+
+    private long timeToFirstStatus(int port, long start, Process process) throws Exception {
+        String base = "http://localhost:" + port;
+        String token = null;
+        while (System.nanoTime() - start < TIMEOUT.toNanos()) {
+            if (!process.isAlive()) throw new IllegalStateException("The application stopped, see build/startup-*.log");
+            try {
+                if (token == null) token = requestToken(base);
+                if (token != null) {
+                    send(base + "/api/game/create", token, "{\"targetScore\":101}"); // Fails if there is one already
+                    if (send(base + "/api/game/status", token, null).statusCode() == 200) {
+                        return System.nanoTime() - start;
+                    }
+                }
+            } catch (ConnectException e) {
+                // Not listening yet
+            }
+            Thread.sleep(10);
+        }
+        throw new IllegalStateException("No successful status request within " + TIMEOUT);
+    }
+
+    private String requestToken(String base) throws IOException, InterruptedException {
+        String client = Base64.getEncoder().encodeToString("hyperdarts:secret".getBytes(StandardCharsets.UTF_8));
+        HttpResponse<String> response = this.client.send(HttpRequest.newBuilder(URI.create(base + "/oauth/token"))
+                .header("Authorization", "Basic " + client)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "grant_type=password&username=ivanhoe@acme.com&password=oMoa3VvqnLxW"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        Matcher matcher = ACCESS_TOKEN.matcher(response.body());
+        return response.statusCode() == 200 && matcher.find() ? matcher.group(1) : null;
+    }
+
+    private HttpResponse<String> send(String uri, String token, String body) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(uri)).header("Authorization", "Bearer " + token);
+        if (body != null) {
+            request.header("Content-Type", "application/json").POST(HttpRequest.BodyPublishers.ofString(body));
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
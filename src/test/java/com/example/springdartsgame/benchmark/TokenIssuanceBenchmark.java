@@ -0,0 +1,107 @@
+package com.example.springdartsgame.benchmark;
+
+import com.example.springdartsgame.model.NewUser;
+import com.example.springdartsgame.model.Role;
+import com.example.springdartsgame.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * This benchmark measures the password grant of the token endpoint with users provisioned in the database and bcrypt
+ * hashed passwords (the default cost of 10 rounds). Every user logs in twice: the first round reads the users from
+ * the database, the second round from the user cache. The bcrypt check of every login stays, so the cache saves the
+ * database round trips, not the hashing.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class TokenIssuanceBenchmark {
+    private static final int USERS = 2_000;
+    private static final int THREADS = Runtime.getRuntime().availableProcessors() * 2;
+    private static final String CLIENT = "Basic " + Base64.getEncoder()
+            .encodeToString("hyperdarts:secret".getBytes(StandardCharsets.UTF_8));
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void passwordGrantThroughput() throws Exception {
+        List<NewUser> users = IntStream.range(0, USERS)
+                .mapToObj(i -> new NewUser("benchmark-" + i + "@acme.com", "password-" + i, Role.GAMER))
+                .toList();
+        long start = System.nanoTime();
+        assertEquals(200, userService.provisionUsers(users).getStatusCodeValue());
+        System.out.printf("%nProvisioned %d users in %d ms%n", USERS,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+        System.out.printf("%-8s %8s %12s %12s %12s %10s%n", "round", "tokens", "tokens/s", "p50 ms", "p99 ms",
+                "cache hits");
+        round("cold", users);
+        round("cached", users);
+    }
+
+    private void round(String name, List<NewUser> users) throws Exception {
+        double hitsBefore = cacheHits();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            long start = System.nanoTime();
+            List<Future<Long>> logins = new ArrayList<>();
+            for (NewUser user : users) logins.add(executor.submit(() -> requestToken(user)));
+            long[] nanos = new long[users.size()];
+            for (int i = 0; i < nanos.length; i++) nanos[i] = logins.get(i).get();
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            Arrays.sort(nanos);
+            System.out.printf("%-8s %8d %12.0f %12.1f %12.1f %10.0f%n", name, nanos.length, nanos.length / seconds,
+                    nanos[nanos.length / 2] / 1e6, nanos[nanos.length * 99 / 100] / 1e6, cacheHits() - hitsBefore);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private long requestToken(NewUser user) throws Exception {
+        String form = "grant_type=password&username=" + user.username() + "&password=" + user.password();
+        long start = System.nanoTime();
+        HttpResponse<String> response = client.send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/oauth/token"))
+                        .header("Authorization", CLIENT)
+                        .header("Content-Type", "application/x-www-form-urlencoded")
+                        .POST(HttpRequest.BodyPublishers.ofString(form))
+                        .build(), HttpResponse.BodyHandlers.ofString());
+        long nanos = System.nanoTime() - start;
+        assertEquals(200, response.statusCode(), response.body());
+        return nanos;
+    }
+
+    private double cacheHits() {
+        return meterRegistry.get("cache.gets").tag("cache", "users").tag("result", "hit").functionCounter().count();
+    }
+}
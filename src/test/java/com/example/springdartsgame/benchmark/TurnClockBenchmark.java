@@ -0,0 +1,112 @@
+package com.example.springdartsgame.benchmark;
+
+import com.example.springdartsgame.util.TimingWheel;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * This benchmark compares the timing wheel of the turn clock with a ScheduledThreadPoolExecutor for large numbers of
+ * running games: the time to start (and restart) the clocks, the heap used per clock and how late the clocks expire.
+ */
+@Tag("benchmark")
+class TurnClockBenchmark {
+    private static final int[] GAMES = {10_000, 100_000, 1_000_000};
+    private static final long DELAY_MILLIS = 2_000;
+    private static final int SPREAD_MILLIS = 1_000; // The turns start within a second
+
+    @Test
+    void timingWheelAgainstScheduledExecutor() throws InterruptedException {
+        System.out.printf("%n%-10s %10s %14s %14s %12s %12s %12s%n", "timer", "games", "arms/s", "bytes/clock",
+                "p50 late ms", "p99 late ms", "max late ms");
+        for (int games : GAMES) {
+            ExecutorService executor = Executors.newFixedThreadPool(2);
+            try (TimingWheel wheel = new TimingWheel("benchmark-wheel", Duration.ofMillis(100), 512, executor)) {
+                run("wheel", games, new Timer() {
+                    @Override
+                    public Object schedule(Runnable task, long delayMillis) {
+                        return wheel.schedule(task, Duration.ofMillis(delayMillis));
+                    }
+
+                    @Override
+                    public void cancel(Object timeout) {
+                        ((TimingWheel.Timeout) timeout).cancel();
+                    }
+                });
+            } finally {
+                executor.shutdownNow();
+            }
+
+            ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(2);
+            scheduler.setRemoveOnCancelPolicy(true);
+            try {
+                run("scheduled", games, new Timer() {
+                    @Override
+                    public Object schedule(Runnable task, long delayMillis) {
+                        return scheduler.schedule(task, delayMillis, TimeUnit.MILLISECONDS);
+                    }
+
+                    @Override
+                    public void cancel(Object timeout) {
+                        ((ScheduledFuture<?>) timeout).cancel(false);
+                    }
+                });
+            } finally {
+                scheduler.shutdownNow();
+            }
+        }
+    }
+
+    private static void run(String name, int games, Timer timer) throws InterruptedException {
+        long[] late = new long[games];
+        Object[] clocks = new Object[games];
+        CountDownLatch expired = new CountDownLatch(games);
+        long usedBefore = usedHeap();
+
+        // Every clock is restarted once (a throw), so half of the arms are cancelled
+        long start = System.nanoTime();
+        for (int round = 0; round < 2; round++) {
+            for (int game = 0; game < games; game++) {
+                int index = game;
+                long delayMillis = DELAY_MILLIS + game % SPREAD_MILLIS;
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis);
+                if (clocks[game] != null) timer.cancel(clocks[game]);
+                clocks[game] = timer.schedule(() -> {
+                    late[index] = System.nanoTime() - deadline;
+                    expired.countDown();
+                }, delayMillis);
+            }
+        }
+        long armNanos = System.nanoTime() - start;
+        long usedAfter = usedHeap();
+
+        assertTrue(expired.await(DELAY_MILLIS + SPREAD_MILLIS + 30_000, TimeUnit.MILLISECONDS));
+        Arrays.sort(late);
+        System.out.printf("%-10s %10d %14.0f %14d %12.1f %12.1f %12.1f%n", name, games, 2 * games / (armNanos / 1e9),
+                (usedAfter - usedBefore) / games, late[games / 2] / 1e6, late[games * 99 / 100] / 1e6,
+                late[games - 1] / 1e6);
+    }
+
+    // The live clocks (and the arrays of the benchmark), after a garbage collection
+    private static long usedHeap() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private interface Timer {
+        Object schedule(Runnable task, long delayMillis);
+
+        void cancel(Object timeout);
+    }
+}
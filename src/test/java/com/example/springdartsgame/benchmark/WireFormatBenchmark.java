@@ -0,0 +1,89 @@
+package com.example.springdartsgame.benchmark;
+
+import com.example.springdartsgame.model.dto.GameDTO;
+import com.example.springdartsgame.model.dto.MoveDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * This benchmark compares the bytes on the wire and the serialization CPU time of the response formats for
+ * {@code /api/history/{gameId}} and {@code /api/game/list}.
+ */
+@Tag("benchmark")
+class WireFormatBenchmark {
+    private static final int WARMUP_ITERATIONS = 2_000;
+    private static final int MEASURED_ITERATIONS = 5_000;
+
+    private final ObjectWriter indentedJson = new ObjectMapper().writerWithDefaultPrettyPrinter();
+    private final ObjectWriter compactJson = new ObjectMapper().writer();
+    private final ObjectWriter cbor = new ObjectMapper(new CBORFactory()).writer();
+
+    @Test
+    void history() throws IOException {
+        List<MoveDTO> history = IntStream.range(0, 60)
+                .mapToObj(i -> new MoveDTO(42L, i, "ivanhoe@acme.com", "robinhood@acme.com", "playing",
+                        501 - i * 4, 501 - i * 3, i % 2 == 0 ? "ivanhoe@acme.com" : "robinhood@acme.com", 0.5))
+                .toList();
+        report("/api/history/{gameId} (60 moves)", history);
+    }
+
+    @Test
+    void gameList() throws IOException {
+        List<GameDTO> games = IntStream.range(0, 1_000)
+                .mapToObj(i -> new GameDTO(i, "player" + i + "@acme.com", "player" + (i + 1) + "@acme.com",
+                        "playing", 301 - i % 300, 301 - i % 250, "player" + i + "@acme.com", "double-out", 0.5))
+                .toList();
+        report("/api/game/list (1000 games)", games);
+    }
+
+    private void report(String endpoint, Object payload) throws IOException {
+        System.out.printf("%n%s%n", endpoint);
+        System.out.printf("%-14s %10s %10s %10s %14s%n", "format", "raw", "gzip", "deflate", "serialize ns");
+
+        long indented = measure("json indented", indentedJson, payload);
+        long compact = measure("json compact", compactJson, payload);
+        measure("cbor", cbor, payload);
+
+        assertTrue(compact < indented, "Compact JSON must be smaller than indented JSON");
+    }
+
+    private long measure(String format, ObjectWriter writer, Object payload) throws IOException {
+        byte[] raw = writer.writeValueAsBytes(payload);
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) writer.writeValueAsBytes(payload);
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) writer.writeValueAsBytes(payload);
+        long nanosPerOp = (System.nanoTime() - start) / MEASURED_ITERATIONS;
+
+        System.out.printf("%-14s %10d %10d %10d %14d%n", format, raw.length, gzip(raw), deflate(raw), nanosPerOp);
+        return raw.length;
+    }
+
+    private static int gzip(byte[] raw) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(raw);
+        }
+        return out.size();
+    }
+
+    private static int deflate(byte[] raw) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (DeflaterOutputStream deflate = new DeflaterOutputStream(out)) {
+            deflate.write(raw);
+        }
+        return out.size();
+    }
+}
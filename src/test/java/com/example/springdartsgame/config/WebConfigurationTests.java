@@ -0,0 +1,48 @@
+package com.example.springdartsgame.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class WebConfigurationTests {
+    @Autowired
+    private RequestMappingHandlerAdapter handlerAdapter;
+
+    @Test
+    void cborReplacesTheDefaultConverter() throws Exception {
+        List<HttpMessageConverter<?>> converters = handlerAdapter.getMessageConverters();
+        List<MappingJackson2CborHttpMessageConverter> cbor = converters.stream()
+                .filter(MappingJackson2CborHttpMessageConverter.class::isInstance)
+                .map(MappingJackson2CborHttpMessageConverter.class::cast)
+                .toList();
+        assertEquals(1, cbor.size());
+        // After JSON, clients accepting */* get JSON
+        int json = converters.indexOf(converters.stream()
+                .filter(MappingJackson2HttpMessageConverter.class::isInstance)
+                .findFirst().orElseThrow());
+        assertTrue(json < converters.indexOf(cbor.get(0)));
+
+        // The mapper of Spring Boot writes times as ISO strings, the default mapper of Spring MVC as numbers
+        byte[] bytes = cbor.get(0).getObjectMapper().writeValueAsBytes(Map.of("createdAt", Instant.EPOCH));
+        JsonNode createdAt = new ObjectMapper(new CBORFactory()).readTree(bytes).get("createdAt");
+        assertEquals("1970-01-01T00:00:00Z", createdAt.asText());
+        assertTrue(createdAt.isTextual());
+    }
+}
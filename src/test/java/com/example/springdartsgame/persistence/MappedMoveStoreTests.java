@@ -0,0 +1,210 @@
+package com.example.springdartsgame.persistence;
+
+import com.example.springdartsgame.entity.Move;
+import com.example.springdartsgame.model.GameStatus;
+import com.example.springdartsgame.model.MoveStoreStatistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MappedMoveStoreTests {
+    private static final String ONE = "ivanhoe@acme.com";
+    private static final String TWO = "robinhood@acme.com";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsActiveBranchAfterRevert() throws IOException {
+        try (MappedMoveStore store = open()) {
+            for (int i = 0; i < 5; i++) store.append(move(1, i, 0, 501 - i));
+            store.append(move(2, 0, 0, 301));
+
+            // Revert to move 2 and throw again
+            store.supersedeMovesAfter(1, 2);
+            store.append(move(1, 3, 1, 400));
+
+            assertEquals(List.of(0, 1, 2, 3), moveNumbers(store.findActiveHistory(1, 0, Integer.MAX_VALUE, null)));
+            assertEquals(400, store.findActiveMove(1, 3).getPlayerOneScores());
+            assertNull(store.findActiveMove(1, 4));
+            assertEquals(List.of(1, 2), moveNumbers(store.findActiveHistory(1, 1, 3, 2)));
+
+            List<Move> all = new ArrayList<>();
+            store.forEachMove(1, 2, true, all::add);
+            assertEquals(List.of(0, 1, 2, 3, 3, 4, 0), moveNumbers(all));
+            assertTrue(all.get(3).isSuperseded());
+            assertFalse(all.get(4).isSuperseded());
+            assertTrue(all.get(5).isSuperseded());
+            assertEquals(ONE + " wins!", all.get(2).getGameStatus());
+            assertEquals(TWO, all.get(1).getTurn());
+        }
+    }
+
+    @Test
+    void recoversIndexOnRestart() throws IOException {
+        try (MappedMoveStore store = open()) {
+            for (int i = 0; i < 10; i++) store.append(move(7, i, 0, 501 - i));
+            store.supersedeMovesAfter(7, 5);
+        }
+        try (MappedMoveStore store = open()) {
+            assertEquals(6, store.findActiveHistory(7, 0, Integer.MAX_VALUE, null).size());
+            store.append(move(7, 6, 1, 100));
+            assertEquals(1, store.findActiveMove(7, 6).getRevision());
+        }
+    }
+
+    @Test
+    void clearsTornTail() throws IOException {
+        try (MappedMoveStore store = open()) {
+            for (int i = 0; i < 3; i++) store.append(move(3, i, 0, 501 - i));
+        }
+        // A crash in the middle of the last record
+        try (RandomAccessFile segment = new RandomAccessFile(segments().get(0).toFile(), "rw")) {
+            segment.seek(2L * MappedMoveStore.RECORD_SIZE + 30);
+            segment.write(0x55);
+        }
+
+        try (MappedMoveStore store = open()) {
+            assertEquals(2, store.findActiveHistory(3, 0, Integer.MAX_VALUE, null).size());
+            assertEquals(2, store.statistics().records());
+            store.append(move(3, 2, 0, 420));
+        }
+        try (MappedMoveStore store = open()) {
+            assertEquals(420, store.findActiveMove(3, 2).getPlayerOneScores());
+        }
+    }
+
+    @Test
+    void compactionDropsSupersededMoves() throws IOException {
+        try (MappedMoveStore store = open()) {
+            for (int i = 0; i < 10; i++) store.append(move(5, i, 0, 501 - i));
+            store.supersedeMovesAfter(5, 3);
+            store.append(move(5, 4, 1, 300));
+
+            MoveStoreStatistics statistics = store.compact();
+            assertEquals(1, statistics.generation());
+            assertEquals(5, statistics.records());
+            assertEquals(5, statistics.activeMoves());
+            assertEquals(300, store.findActiveMove(5, 4).getPlayerOneScores());
+            store.append(move(5, 5, 1, 200));
+        }
+        assertTrue(segments().stream().allMatch(path -> path.getFileName().toString().startsWith("moves-1-")));
+        try (MappedMoveStore store = open()) {
+            assertEquals(List.of(0, 1, 2, 3, 4, 5),
+                    moveNumbers(store.findActiveHistory(5, 0, Integer.MAX_VALUE, null)));
+        }
+    }
+
+    @Test
+    void compactionRunsWhileMovesAreStreamed() throws IOException {
+        try (MappedMoveStore store = open()) {
+            for (int i = 0; i < 4; i++) store.append(move(8, i, 0, 501 - i));
+            store.supersedeMovesAfter(8, 1);
+            for (int i = 0; i < 3; i++) store.append(move(9, i, 0, 301 - i));
+
+            // The reader of the stream compacts the store (it would wait for itself if the stream held the lock)
+            List<Move> streamed = new ArrayList<>();
+            store.forEachMove(8, 9, false, move -> {
+                if (streamed.isEmpty()) assertEquals(5, store.compact().records());
+                streamed.add(move);
+            });
+            assertEquals(List.of(0, 1, 0, 1, 2), moveNumbers(streamed));
+            assertEquals(299, streamed.get(4).getPlayerOneScores());
+        }
+    }
+
+    @Test
+    void rolledBackTransactionLeavesNoRecords() throws IOException {
+        TransactionTemplate transactions = new TransactionTemplate(new SynchronizingTransactionManager());
+        try (MappedMoveStore store = open()) {
+            for (int i = 0; i < 3; i++) store.append(move(4, i, 0, 501 - i));
+            store.supersedeMovesAfter(4, 0); // Reverted to move 0
+
+            // A throw after the revert whose transaction is rolled back (e.g. an optimistic lock failure)
+            transactions.executeWithoutResult(status -> {
+                store.supersedeMovesAfter(4, 0);
+                store.append(move(4, 1, 1, 441));
+                assertNull(store.findActiveMove(4, 1)); // Written after the commit
+                status.setRollbackOnly();
+            });
+            assertNull(store.findActiveMove(4, 1));
+            assertEquals(4, store.statistics().records());
+
+            // The retry writes the move once
+            transactions.executeWithoutResult(status -> store.append(move(4, 1, 1, 441)));
+            assertEquals(441, store.findActiveMove(4, 1).getPlayerOneScores());
+            List<Move> all = new ArrayList<>();
+            store.forEachMove(4, 4, true, all::add);
+            assertEquals(List.of(0, 1, 1, 2), moveNumbers(all));
+            assertEquals(List.of(false, true, false, true), all.stream().map(Move::isSuperseded).toList());
+        }
+    }
+
+    // Segments of four records, so that the tests roll over to new segments
+    private MappedMoveStore open() throws IOException {
+        return new MappedMoveStore(directory, DataSize.ofBytes(4 * MappedMoveStore.RECORD_SIZE),
+                MappedMoveStore.FsyncPolicy.ALWAYS, Duration.ofSeconds(1));
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".seg")).sorted().toList();
+        }
+    }
+
+    private static Move move(long gameId, int move, int revision, int playerOneScores) {
+        return Move.builder()
+                .gameId(gameId)
+                .move(move)
+                .revision(revision)
+                .playerOne(ONE)
+                .playerTwo(TWO)
+                .gameStatus(move == 2 ? String.format(GameStatus.USER_WINS.status, ONE) : GameStatus.PLAYING.status)
+                .playerOneScores(playerOneScores)
+                .playerTwoScores(501)
+                .turn(move % 2 == 0 ? ONE : TWO)
+                .build();
+    }
+
+    private static List<Integer> moveNumbers(List<Move> moves) {
+        return moves.stream().map(Move::getMove).toList();
+    }
+
+    // A transaction manager without a resource, it only runs the synchronizations of the store
+    private static final class SynchronizingTransactionManager extends AbstractPlatformTransactionManager {
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.springdartsgame.service;
+
+import com.example.springdartsgame.entity.Game;
+import com.example.springdartsgame.model.DartProgress;
+import com.example.springdartsgame.model.GameStatus;
+import com.example.springdartsgame.model.TurnExpiredEvent;
+import com.example.springdartsgame.model.TurnPenalty;
+import com.example.springdartsgame.model.dto.GameView;
+import com.example.springdartsgame.persistence.GameRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.example.springdartsgame.service.GameFixtures.player;
+import static com.example.springdartsgame.service.GameFixtures.startGame;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class DartServiceTests {
+    @Autowired
+    private DartService dartService;
+    @Autowired
+    private GameService gameService;
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Test
+    void visitIsCommittedAfterThirdDart() {
+        String playerOne = player();
+        String playerTwo = player();
+        long gameId = startGame(gameService, playerOne, playerTwo, 501);
+
+        assertEquals(new DartProgress(gameId, List.of("3:20"), 441), progress(playerOne, "3:20"));
+        assertEquals(new DartProgress(gameId, List.of("3:20", "1:5"), 436), progress(playerOne, "1:5"));
+        // Nothing is written before the visit is complete
+        assertEquals(1, gameRepository.findById(gameId).orElseThrow().getHeadMove());
+
+        GameView view = commit(playerOne, "3:19");
+        assertEquals(379, view.game().getPlayerOneScores());
+        assertEquals(playerTwo, view.game().getTurn());
+        assertEquals(2, gameRepository.findById(gameId).orElseThrow().getHeadMove());
+    }
+
+    @Test
+    void bustEndsVisit() {
+        String playerOne = player();
+        String playerTwo = player();
+        startGame(gameService, playerOne, playerTwo, 101);
+
+        progress(playerOne, "3:20");
+        GameView view = commit(playerOne, "3:20");
+        assertEquals(101, view.game().getPlayerOneScores());
+        assertEquals(playerTwo, view.game().getTurn());
+    }
+
+    @Test
+    void checkoutEndsVisit() {
+        String playerOne = player();
+        long gameId = startGame(gameService, playerOne, player(), 101);
+
+        progress(playerOne, "3:17");
+        GameView view = commit(playerOne, "2:25");
+        assertEquals(GameStatus.USER_WINS, view.status());
+        assertEquals(playerOne, view.winner());
+        assertEquals(GameStatus.USER_WINS, gameRepository.findById(gameId).orElseThrow().getGameStatus());
+    }
+
+    @Test
+    void invalidDartsAreRejected() {
+        String playerOne = player();
+        String playerTwo = player();
+        startGame(gameService, playerOne, playerTwo, 501);
+
+        assertEquals(400, dartService.throwDart(playerOne, "none").getStatusCodeValue());
+        assertEquals(400, dartService.throwDart(playerOne, "4:20").getStatusCodeValue());
+        assertEquals(400, dartService.throwDart(playerTwo, "3:20").getStatusCodeValue()); // Wrong turn
+        assertEquals(404, dartService.throwDart(player(), "3:20").getStatusCodeValue());
+    }
+
+    @Test
+    void visitIsDroppedWhenGameChanges() {
+        String playerOne = player();
+        String playerTwo = player();
+        startGame(gameService, playerOne, playerTwo, 501);
+        progress(playerOne, "3:20");
+
+        // The turn is skipped and the opponent throws, the buffered dart is from the previous turn
+        Game game = gameRepository.findAllUnfinishedPlayerGames(playerOne).get(0);
+        gameService.onTurnExpired(new TurnExpiredEvent(game.getId(), playerOne, game.getVersion(), TurnPenalty.SKIP));
+        progress(playerTwo, "1:1");
+        progress(playerTwo, "1:1");
+        commit(playerTwo, "1:1");
+
+        assertEquals(new DartProgress(game.getId(), List.of("1:20"), 481), progress(playerOne, "1:20"));
+    }
+
+    @Test
+    void concurrentVisitsAreCommitted() throws Exception {
+        int games = 50;
+        List<String> players = new ArrayList<>();
+        for (int i = 0; i < games; i++) {
+            String player = player();
+            startGame(gameService, player, player(), 501);
+            players.add(player);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<ResponseEntity<?>>> visits = new ArrayList<>();
+            for (String player : players) {
+                visits.add(executor.submit(() -> {
+                    dartService.throwDart(player, "3:20");
+                    dartService.throwDart(player, "3:20");
+                    return dartService.throwDart(player, "3:20");
+                }));
+            }
+            for (Future<ResponseEntity<?>> visit : visits) {
+                ResponseEntity<?> response = visit.get();
+                assertEquals(200, response.getStatusCodeValue());
+                assertEquals(321, ((GameView) response.getBody()).game().getPlayerOneScores());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private DartProgress progress(String player, String dart) {
+        ResponseEntity<?> response = dartService.throwDart(player, dart);
+        assertEquals(202, response.getStatusCodeValue());
+        return (DartProgress) response.getBody();
+    }
+
+    private GameView commit(String player, String dart) {
+        ResponseEntity<?> response = dartService.throwDart(player, dart);
+        assertEquals(200, response.getStatusCodeValue());
+        return (GameView) response.getBody();
+    }
+}
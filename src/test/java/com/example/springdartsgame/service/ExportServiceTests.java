@@ -0,0 +1,48 @@
+package com.example.springdartsgame.service;
+
+import com.example.springdartsgame.model.GameStatus;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.springdartsgame.service.GameFixtures.playAndWin;
+import static com.example.springdartsgame.service.GameFixtures.player;
+import static com.example.springdartsgame.service.GameFixtures.startGame;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ExportServiceTests {
+    @Autowired
+    private ExportService exportService;
+    @Autowired
+    private GameService gameService;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void movesAreFilteredByTheStatusOfTheirGames() throws IOException {
+        long first = playAndWin(gameService, player(), player(), 501);
+        startGame(gameService, player(), player(), 501);
+        long second = playAndWin(gameService, player(), player(), 501);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportMoves(first, second, GameStatus.USER_WINS, out);
+        List<Long> gameIds = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            JsonNode move = objectMapper.readTree(line);
+            gameIds.add(move.get("gameId").asLong());
+        }
+        // The game in between is skipped
+        assertEquals(List.of(first, second), gameIds.stream().distinct().toList());
+    }
+}
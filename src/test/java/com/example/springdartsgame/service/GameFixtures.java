@@ -0,0 +1,41 @@
+package com.example.springdartsgame.service;
+
+import com.example.springdartsgame.model.Update;
+import com.example.springdartsgame.model.dto.GameView;
+import org.springframework.http.ResponseEntity;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The fixtures of the service tests: players with unique names (the tests share the database of a context) and games
+ * that are created through the game service.
+ */
+final class GameFixtures {
+    private GameFixtures() {
+    }
+
+    static String player() {
+        return UUID.randomUUID() + "@acme.com";
+    }
+
+    static long createGame(GameService gameService, String player, int targetScore) {
+        ResponseEntity<?> response = gameService.createGame(player, targetScore, null);
+        assertEquals(200, response.getStatusCodeValue());
+        return ((GameView) response.getBody()).game().getGameId();
+    }
+
+    static long startGame(GameService gameService, String playerOne, String playerTwo, int targetScore) {
+        long gameId = createGame(gameService, playerOne, targetScore);
+        assertEquals(200, gameService.joinGame(playerTwo, gameId).getStatusCodeValue());
+        return gameId;
+    }
+
+    // The game is won by the player (decided by a referee), so the player can start the next game
+    static long playAndWin(GameService gameService, String player, String opponent, int targetScore) {
+        long gameId = startGame(gameService, player, opponent, targetScore);
+        assertEquals(200, gameService.cancelGame(new Update((int) gameId, player + " wins!")).getStatusCodeValue());
+        return gameId;
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.springdartsgame.service;
+
+import com.example.springdartsgame.entity.Game;
+import com.example.springdartsgame.model.GameStatus;
+import com.example.springdartsgame.model.GameVariant;
+import com.example.springdartsgame.model.ThrowOutcome;
+import com.example.springdartsgame.model.Throws;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GameProgressServiceTests {
+    private static final String ONE = "ivanhoe@acme.com";
+    private static final String TWO = "robinhood@acme.com";
+
+    private final GameProgressService gameProgressService = new GameProgressService();
+
+    @Test
+    void scoresThrowAndPassesTurn() {
+        Game game = game(GameVariant.DOUBLE_OUT, 101);
+        assertEquals(ThrowOutcome.SCORED, play(game, "3:20", "1:1", "none"));
+        assertEquals(40, game.getPlayerOneScores());
+        assertEquals(TWO, game.getTurn());
+        assertEquals(GameStatus.PLAYING, game.getGameStatus());
+    }
+
+    @Test
+    void checksOutWithDouble() {
+        Game game = game(GameVariant.DOUBLE_OUT, 40);
+        assertEquals(ThrowOutcome.WIN, play(game, "2:20", "none", "none"));
+        assertEquals(0, game.getPlayerOneScores());
+        assertEquals(ONE, game.getTurn());
+        assertEquals(GameStatus.USER_WINS, game.getGameStatus());
+    }
+
+    @Test
+    void bustsWithoutDoubleAndOnOne() {
+        Game game = game(GameVariant.DOUBLE_OUT, 40);
+        assertEquals(ThrowOutcome.BUST, play(game, "1:20", "1:20", "none"));
+        assertEquals(40, game.getPlayerOneScores());
+        assertEquals(TWO, game.getTurn());
+
+        game = game(GameVariant.DOUBLE_OUT, 21);
+        assertEquals(ThrowOutcome.BUST, play(game, "1:20", "none", "none"));
+        assertEquals(21, game.getPlayerOneScores());
+    }
+
+    @Test
+    void rejectsDartsAfterCheckoutOrBust() {
+        Game game = game(GameVariant.DOUBLE_OUT, 40);
+        assertEquals(ThrowOutcome.INVALID, play(game, "2:20", "1:1", "none"));
+        assertEquals(40, game.getPlayerOneScores());
+        assertEquals(ONE, game.getTurn());
+        assertEquals(GameStatus.STARTED, game.getGameStatus());
+
+        assertEquals(ThrowOutcome.INVALID, play(game(GameVariant.DOUBLE_OUT, 21), "1:20", "1:1", "none"));
+    }
+
+    @Test
+    void checksOutWithVariantRules() {
+        assertEquals(ThrowOutcome.WIN, play(game(GameVariant.STRAIGHT_OUT, 40), "1:20", "1:20", "none"));
+        assertEquals(ThrowOutcome.SCORED, play(game(GameVariant.STRAIGHT_OUT, 21), "1:20", "none", "none"));
+        assertEquals(ThrowOutcome.WIN, play(game(GameVariant.MASTER_OUT, 60), "3:20", "none", "none"));
+        assertEquals(ThrowOutcome.BUST, play(game(GameVariant.MASTER_OUT, 20), "1:20", "none", "none"));
+    }
+
+    @Test
+    void scoresOnlyAfterDoubleIn() {
+        Game game = game(GameVariant.DOUBLE_IN, 101);
+        assertEquals(ThrowOutcome.SCORED, play(game, "3:20", "none", "none"));
+        assertEquals(101, game.getPlayerOneScores());
+
+        game = game(GameVariant.DOUBLE_IN, 101);
+        assertEquals(ThrowOutcome.SCORED, play(game, "3:20", "2:10", "1:5"));
+        assertEquals(76, game.getPlayerOneScores());
+    }
+
+    private ThrowOutcome play(Game game, String first, String second, String third) {
+        return gameProgressService.updatePoints(game, ONE, new Throws(first, second, third));
+    }
+
+    private static Game game(GameVariant variant, int scores) {
+        return Game.builder()
+                .playerOne(ONE)
+                .playerTwo(TWO)
+                .gameStatus(GameStatus.STARTED)
+                .playerOneScores(scores)
+                .playerTwoScores(101)
+                .turn(ONE)
+                .variant(variant)
+                .targetScore(101)
+                .build();
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.springdartsgame.service;
+
+import com.example.springdartsgame.config.SqlStatementStatistics;
+import com.example.springdartsgame.model.Update;
+import com.example.springdartsgame.model.dto.GameView;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static com.example.springdartsgame.service.GameFixtures.createGame;
+import static com.example.springdartsgame.service.GameFixtures.playAndWin;
+import static com.example.springdartsgame.service.GameFixtures.player;
+import static com.example.springdartsgame.service.GameFixtures.startGame;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "darts.read-model.recent-games=2")
+@ActiveProfiles("test")
+class GameReadModelTests {
+    @Autowired
+    private GameService gameService;
+    @Autowired
+    private SqlStatementStatistics statistics;
+
+    @Test
+    void olderWonGamesAreListedFromTheDatabase() {
+        String player = player();
+        List<Long> gameIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) gameIds.add(playAndWin(gameService, player, player(), 501));
+        gameIds.add(createGame(gameService, player, 501));
+        Collections.reverse(gameIds);
+
+        // The three oldest won games are no longer in the read model
+        List<Long> listed = ((List<?>) gameService.listAllGames().getBody()).stream()
+                .map(view -> ((GameView) view).game().getGameId())
+                .filter(gameIds::contains)
+                .toList();
+        assertEquals(gameIds, listed);
+    }
+
+    @Test
+    void gamesThatNobodyWonAreDroppedAsWell() {
+        String player = player();
+        long cancelled = startGame(gameService, player, player(), 501);
+        gameService.cancelGame(new Update((int) cancelled, "Nobody wins!"));
+        List<Long> gameIds = new ArrayList<>(List.of(cancelled));
+        for (int i = 0; i < 3; i++) gameIds.add(playAndWin(gameService, player(), player(), 501));
+        Collections.reverse(gameIds);
+
+        // The game that nobody won is below the window, it is listed from the database
+        List<Long> listed = ((List<?>) gameService.listAllGames().getBody()).stream()
+                .map(view -> ((GameView) view).game().getGameId())
+                .filter(gameIds::contains)
+                .toList();
+        assertEquals(gameIds, listed);
+        // It is still the game of its players
+        assertEquals(cancelled, ((GameView) gameService.getGameStatus(player).getBody()).game().getGameId());
+    }
+
+    @Test
+    void latestWonGameIsServedFromTheReadModel() {
+        String player = player();
+        long latest = 0;
+        for (int i = 0; i < 4; i++) latest = playAndWin(gameService, player, player(), 501);
+
+        statistics.startCounting();
+        GameView view = (GameView) gameService.getGameStatus(player).getBody();
+        assertEquals(0, statistics.currentStatements());
+        assertEquals(latest, view.game().getGameId());
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.springdartsgame.service;
+
+import com.example.springdartsgame.config.SqlStatementStatistics;
+import com.example.springdartsgame.model.Redo;
+import com.example.springdartsgame.model.Revert;
+import com.example.springdartsgame.model.Throws;
+import com.example.springdartsgame.model.Update;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.function.Supplier;
+
+import static com.example.springdartsgame.service.GameFixtures.player;
+import static com.example.springdartsgame.service.GameFixtures.startGame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * These tests pin the number of SQL statements of each game operation. An operation that needs more statements than
+ * its budget (e.g. an N+1 query or an extra round trip) fails the build. Lower a budget when an operation gets
+ * cheaper.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class GameServiceStatementBudgetTests {
+    @Autowired
+    private GameService gameService;
+    @Autowired
+    private SqlStatementStatistics statistics;
+
+    @Test
+    void createGame() {
+        // Unfinished games, sequence, insert, participation
+        assertBudget(4, () -> gameService.createGame(player(), 501, null));
+    }
+
+    @Test
+    void joinGame() {
+        long gameId = GameFixtures.createGame(gameService, player(), 501);
+        // Game, unfinished games, participations (one batch), move (sequence and insert), game (merge and update)
+        assertBudget(7, () -> gameService.joinGame(player(), gameId));
+    }
+
+    @Test
+    void setThrows() {
+        String playerOne = player();
+        startGame(gameService, playerOne, player(), 501);
+        // Unfinished games, move (sequence and insert), participations (the first throw changes the status), game
+        // (merge and update)
+        assertBudget(6, () -> gameService.setThrows(playerOne, new Throws("3:20", "3:20", "3:20")));
+    }
+
+    @Test
+    void setThrowsAfterRevert() {
+        String playerOne = player();
+        String playerTwo = player();
+        long gameId = GameFixtures.createGame(gameService, playerOne, 501);
+        gameService.joinGame(playerTwo, gameId);
+        gameService.setThrows(playerOne, new Throws("3:20", "3:20", "3:20"));
+        gameService.setThrows(playerTwo, new Throws("1:1", "none", "none"));
+        gameService.revertGame(new Revert(gameId, 1));
+        // The same as above plus superseding the reverted move, the status stays the same
+        assertBudget(6, () -> gameService.setThrows(playerTwo, new Throws("1:1", "none", "none")));
+    }
+
+    @Test
+    void revertAndRedoGame() {
+        String playerOne = player();
+        long gameId = startGame(gameService, playerOne, player(), 501);
+        gameService.setThrows(playerOne, new Throws("3:20", "3:20", "3:20"));
+        // Game, move, participations (back to started and playing again), game (merge and update)
+        assertBudget(5, () -> gameService.revertGame(new Revert(gameId, 0)));
+        assertBudget(5, () -> gameService.redoGame(new Redo(gameId)));
+    }
+
+    @Test
+    void cancelGame() {
+        long gameId = startGame(gameService, player(), player(), 501);
+        // Game, participations, game (merge and update)
+        assertBudget(4, () -> gameService.cancelGame(new Update((int) gameId, "Nobody wins!")));
+    }
+
+    @Test
+    void getGameHistory() {
+        long gameId = startGame(gameService, player(), player(), 501);
+        // Game, moves
+        assertBudget(2, () -> gameService.getGameHistory(String.valueOf(gameId), 0, null, null));
+    }
+
+    @Test
+    void readsFromReadModel() {
+        String playerOne = player();
+        startGame(gameService, playerOne, player(), 501);
+        assertBudget(0, () -> gameService.getGameStatus(playerOne));
+        assertBudget(0, () -> gameService.listAllGames());
+    }
+
+    private void assertBudget(int budget, Supplier<ResponseEntity<?>> operation) {
+        statistics.startCounting();
+        ResponseEntity<?> response = operation.get();
+        long statements = statistics.currentStatements();
+
+        assertTrue(response.getStatusCode().is2xxSuccessful(), () -> "Unexpected response " + response);
+        assertTrue(statements <= budget, () -> statements + " statements, the budget is " + budget);
+    }
+}
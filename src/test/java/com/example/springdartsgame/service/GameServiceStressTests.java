@@ -0,0 +1,251 @@
+package com.example.springdartsgame.service;
+
+import com.example.springdartsgame.entity.Game;
+import com.example.springdartsgame.entity.Move;
+import com.example.springdartsgame.model.GameStatus;
+import com.example.springdartsgame.model.Redo;
+import com.example.springdartsgame.model.Revert;
+import com.example.springdartsgame.model.Throws;
+import com.example.springdartsgame.model.Update;
+import com.example.springdartsgame.model.dto.GameView;
+import com.example.springdartsgame.persistence.GameRepository;
+import com.example.springdartsgame.persistence.MoveStore;
+import com.example.springdartsgame.util.GameAuditor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+
+import static com.example.springdartsgame.service.GameFixtures.createGame;
+import static com.example.springdartsgame.service.GameFixtures.player;
+import static com.example.springdartsgame.service.GameFixtures.startGame;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * These tests call the game service from many threads at once and check the invariants of the games afterwards. They
+ * print the operations per second of every scenario, so that changes to the concurrency control can be compared.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class GameServiceStressTests {
+    // Single darts only, so that nobody checks out and the games go on (a bust keeps the score)
+    private static final String[] DARTS = {"1:1", "1:2", "1:5", "1:20", "none"};
+
+    @Autowired
+    private GameService gameService;
+    @Autowired
+    private GameRepository gameRepository;
+    @Autowired
+    private MoveStore moveStore;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void concurrentCreatesBySamePlayer() throws Exception {
+        String player = player();
+        AtomicInteger created = new AtomicInteger();
+        hammer("Creates by one player", 32, 1, thread -> {
+            if (gameService.createGame(player, 501, null).getStatusCode().is2xxSuccessful()) created.incrementAndGet();
+        });
+
+        assertEquals(1, created.get());
+        assertEquals(1, unfinishedGames(player));
+    }
+
+    @Test
+    void manyPlayersJoinOneGame() throws Exception {
+        String playerOne = player();
+        long gameId = createGame(gameService, playerOne, 501);
+        List<String> players = new ArrayList<>();
+        for (int i = 0; i < 32; i++) players.add(player());
+
+        AtomicInteger joined = new AtomicInteger();
+        hammer("Joins of one game", players.size(), 1, thread -> {
+            if (gameService.joinGame(players.get(thread), gameId).getStatusCode().is2xxSuccessful()) {
+                joined.incrementAndGet();
+            }
+        });
+
+        assertEquals(1, joined.get());
+        Game game = gameRepository.findById(gameId).orElseThrow();
+        assertEquals(GameStatus.STARTED, game.getGameStatus());
+        assertTrue(players.contains(game.getPlayerTwo()));
+        assertNotEquals(game.getPlayerOne(), game.getPlayerTwo());
+        assertEquals(1, activeMoves(gameId).size());
+        for (String player : players) assertTrue(unfinishedGames(player) <= 1);
+    }
+
+    @Test
+    void throwsWithRefereeOnSameGame() throws Exception {
+        String playerOne = player();
+        String playerTwo = player();
+        long gameId = startGame(gameService, playerOne, playerTwo, 501);
+        String[] players = {playerOne, playerTwo};
+
+        // Thread 0 is the referee, the others throw for both players
+        hammer("Throws, reverts and redos", 5, 200, thread -> {
+            if (thread > 0) {
+                gameService.setThrows(players[thread % 2], randomThrows());
+                return;
+            }
+            int headMove = gameRepository.findById(gameId).orElseThrow().getHeadMove();
+            if (ThreadLocalRandom.current().nextInt(4) == 0) gameService.redoGame(new Redo(gameId));
+            else if (headMove > 0) {
+                gameService.revertGame(new Revert(gameId, ThreadLocalRandom.current().nextInt(headMove)));
+            }
+        });
+        assertConsistent(gameId);
+
+        // The referee ends the game while the players go on throwing
+        hammer("Throws and a cancel", 5, 50, thread -> {
+            if (thread == 0) gameService.cancelGame(new Update((int) gameId, playerTwo + " wins!"));
+            else gameService.setThrows(players[thread % 2], randomThrows());
+        });
+        assertEquals(GameStatus.USER_WINS, gameRepository.findById(gameId).orElseThrow().getGameStatus());
+        assertConsistent(gameId);
+        assertEquals(0, unfinishedGames(playerOne));
+        assertEquals(0, unfinishedGames(playerTwo));
+    }
+
+    @Test
+    void throwsWithStatusPolling() throws Exception {
+        int games = 8;
+        List<String> players = new ArrayList<>();
+        List<Long> gameIds = new ArrayList<>();
+        for (int i = 0; i < games; i++) {
+            String playerOne = player();
+            String playerTwo = player();
+            gameIds.add(startGame(gameService, playerOne, playerTwo, 501));
+            players.add(playerOne);
+            players.add(playerTwo);
+        }
+
+        // The first threads throw for one player each, the others poll the status and the list of games
+        AtomicLong wrongStatus = new AtomicLong();
+        hammer("Throws and status polls", players.size() * 2, 100, thread -> {
+            if (thread < players.size()) {
+                gameService.setThrows(players.get(thread), randomThrows());
+                return;
+            }
+            String player = players.get(ThreadLocalRandom.current().nextInt(players.size()));
+            ResponseEntity<?> status = gameService.getGameStatus(player);
+            if (!(status.getBody() instanceof GameView view) || !player.equals(view.game().getPlayerOne())
+                    && !player.equals(view.game().getPlayerTwo())) {
+                wrongStatus.incrementAndGet();
+            }
+            assertTrue(gameService.listAllGames().getStatusCode().is2xxSuccessful());
+        });
+
+        assertEquals(0, wrongStatus.get());
+        for (String player : players) assertEquals(1, unfinishedGames(player));
+        // The games of this test have to match their history, the other tests share the database
+        for (long gameId : gameIds) assertConsistent(gameId);
+    }
+
+    @Test
+    void spectatorsReadHistoryWhilePlayersThrow() throws Exception {
+        String playerOne = player();
+        String playerTwo = player();
+        long gameId = startGame(gameService, playerOne, playerTwo, 501);
+        String[] players = {playerOne, playerTwo};
+        String history = String.valueOf(gameId);
+
+        // Threads 0 and 1 throw, the others are spectators of the game
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long statements = statistics.getPrepareStatementCount();
+        long cacheHits = statistics.getSecondLevelCacheHitCount();
+        long queryCacheHits = statistics.getQueryCacheHitCount();
+        long queryCacheMisses = statistics.getQueryCacheMissCount();
+        AtomicInteger reads = new AtomicInteger();
+        AtomicInteger throwAttempts = new AtomicInteger();
+        hammer("History reads and throws", 10, 200, thread -> {
+            if (thread > 1) {
+                assertTrue(gameService.getGameHistory(history, 0, null, null).getStatusCode().is2xxSuccessful());
+                reads.incrementAndGet();
+            } else if (ThreadLocalRandom.current().nextInt(4) == 0) {
+                gameService.setThrows(players[thread], randomThrows());
+                throwAttempts.incrementAndGet();
+            }
+        });
+        statements = statistics.getPrepareStatementCount() - statements;
+        long queryHits = statistics.getQueryCacheHitCount() - queryCacheHits;
+        long queryMisses = statistics.getQueryCacheMissCount() - queryCacheMisses;
+        System.out.printf("%d statements, %d entity cache hits, query cache %d hits and %d misses%n", statements,
+                statistics.getSecondLevelCacheHitCount() - cacheHits, queryHits, queryMisses);
+
+        // Without the cache every read needs two statements (game and moves) and every throw up to five
+        assertTrue(queryHits > 0);
+        assertTrue(statements < reads.get() + 5L * throwAttempts.get(), "Too many statements for the reads");
+        assertConsistent(gameId);
+    }
+
+    // Runs an operation on many threads at once and prints the throughput
+    private static void hammer(String scenario, int threads, int operationsPerThread, IntConsumer operation)
+            throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            int thread = i;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int n = 0; n < operationsPerThread; n++) operation.accept(thread);
+                return null;
+            }));
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        try {
+            for (Future<?> future : futures) future.get(2, TimeUnit.MINUTES); // Rethrows failures of the threads
+        } finally {
+            executor.shutdownNow();
+        }
+        long nanos = System.nanoTime() - begin;
+        long operations = (long) threads * operationsPerThread;
+        System.out.printf("%s: %d operations on %d threads in %d ms (%.0f operations/s)%n", scenario, operations,
+                threads, TimeUnit.NANOSECONDS.toMillis(nanos), operations / (nanos / 1e9));
+    }
+
+    // The moves have to be numbered without gaps and the scores have to be reachable with the rules of the game
+    private void assertConsistent(long gameId) {
+        Game game = gameRepository.findById(gameId).orElseThrow();
+        List<Move> moves = activeMoves(gameId);
+        for (int i = 0; i < moves.size(); i++) assertEquals(i, moves.get(i).getMove());
+        assertEquals(List.of(), GameAuditor.audit(game, moves));
+    }
+
+    private List<Move> activeMoves(long gameId) {
+        return moveStore.findActiveHistory(gameId, 0, Integer.MAX_VALUE, null);
+    }
+
+    private long unfinishedGames(String player) {
+        return gameRepository.findAllUnfinishedPlayerGames(player).stream()
+                .filter(g -> g.getGameStatus() != GameStatus.USER_WINS)
+                .count();
+    }
+
+    private static Throws randomThrows() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return new Throws(DARTS[random.nextInt(DARTS.length)], DARTS[random.nextInt(DARTS.length)],
+                DARTS[random.nextInt(DARTS.length)]);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.springdartsgame.service;
+
+import com.example.springdartsgame.model.Revert;
+import com.example.springdartsgame.model.Throws;
+import com.example.springdartsgame.model.dto.MoveDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static com.example.springdartsgame.service.GameFixtures.player;
+import static com.example.springdartsgame.service.GameFixtures.startGame;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class GameServiceTests {
+    @Autowired
+    private GameService gameService;
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void olderGamesContinueAtTheirLastMove() {
+        String playerOne = player();
+        String playerTwo = player();
+        long gameId = startGame(gameService, playerOne, playerTwo, 501);
+        assertEquals(200, gameService.setThrows(playerOne, new Throws("3:20", "3:20", "3:20")).getStatusCodeValue());
+        // A game saved before the head was recorded (the columns were added with their default)
+        new JdbcTemplate(dataSource).update("update game set head_move = -1, latest_move = -1 where id = ?", gameId);
+
+        gameService.restoreHeadMoves();
+        assertEquals(2, history(gameId).size());
+        assertEquals(200, gameService.setThrows(playerTwo, new Throws("1:1", "none", "none")).getStatusCodeValue());
+        assertEquals(3, history(gameId).size());
+        assertEquals(200, gameService.revertGame(new Revert(gameId, 1)).getStatusCodeValue());
+        assertEquals(2, history(gameId).size());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<MoveDTO> history(long gameId) {
+        ResponseEntity<?> response = gameService.getGameHistory(String.valueOf(gameId), 0, null, null);
+        assertEquals(200, response.getStatusCodeValue());
+        return (List<MoveDTO>) response.getBody();
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.springdartsgame.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class IdempotencyServiceTests {
+    @Test
+    void requestsInFlightAreNotEvicted() throws Exception {
+        IdempotencyService service = new IdempotencyService(new SimpleMeterRegistry(), 1, Duration.ofMinutes(10));
+        CompletableFuture<Void> started = new CompletableFuture<>();
+        CompletableFuture<Void> release = new CompletableFuture<>();
+        AtomicInteger executions = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<ResponseEntity<?>> first = executor.submit(() -> service.execute("a", "test", 1, () -> {
+                executions.incrementAndGet();
+                started.complete(null);
+                release.join();
+                return ResponseEntity.ok("first");
+            }));
+            started.join();
+
+            // More responses than the service remembers, while the first request is still running
+            service.execute("b", "test", 1, () -> ResponseEntity.ok("b"));
+            service.execute("c", "test", 1, () -> ResponseEntity.ok("c"));
+            Future<ResponseEntity<?>> retry = executor.submit(() -> service.execute("a", "test", 1, () -> {
+                executions.incrementAndGet();
+                return ResponseEntity.ok("retry");
+            }));
+            release.complete(null);
+
+            assertEquals("first", first.get().getBody());
+            assertEquals("first", retry.get().getBody());
+            assertEquals(1, executions.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void keyOfAnotherRequestIsRejected() {
+        IdempotencyService service = new IdempotencyService(new SimpleMeterRegistry(), 10, Duration.ofMinutes(10));
+        service.execute("a", "test", 1, () -> ResponseEntity.ok("first"));
+
+        AtomicInteger executions = new AtomicInteger();
+        ResponseEntity<?> response = service.execute("a", "test", 2, () -> {
+            executions.incrementAndGet();
+            return ResponseEntity.ok("second");
+        });
+        assertEquals(422, response.getStatusCodeValue());
+        assertEquals(0, executions.get());
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.springdartsgame.service;
+
+import com.example.springdartsgame.config.Leagues;
+import com.example.springdartsgame.model.dto.GameView;
+import com.example.springdartsgame.util.LeagueContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static com.example.springdartsgame.service.GameFixtures.player;
+import static com.example.springdartsgame.service.GameFixtures.startGame;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {"darts.leagues.names=north,south",
+        "darts.leagues.url-template=jdbc:h2:mem:darts-test-${random.uuid}-{league};DB_CLOSE_DELAY=-1"})
+@ActiveProfiles("test")
+class LeagueShardingTests {
+    @Autowired
+    private GameService gameService;
+    @Autowired
+    private Leagues leagues;
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void gamesAreStoredInTheDatabaseOfTheirLeague() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        for (String league : leagues.names()) {
+            long gameId = createGame(league, player());
+            assertTrue(gameId >= leagues.firstId(league) && gameId <= leagues.lastId(league), league + " " + gameId);
+
+            for (String other : leagues.names()) {
+                Integer count = LeagueContext.call(other, () -> jdbcTemplate.queryForObject(
+                        "select count(*) from game where id = ?", Integer.class, gameId));
+                assertEquals(other.equals(league) ? 1 : 0, count, league + " in " + other);
+            }
+        }
+    }
+
+    @Test
+    void gameListMergesLeagues() {
+        long north = createGame("north", player());
+        long south = createGame("south", player());
+        long latest = createGame(LeagueContext.DEFAULT_LEAGUE, player());
+
+        List<GameView> views = ((List<?>) gameService.listAllGames().getBody()).stream()
+                .map(view -> (GameView) view)
+                .toList();
+        List<Long> gameIds = views.stream().map(view -> view.game().getGameId()).toList();
+        // Newest first across the leagues, although the id of the default league is the smallest
+        assertTrue(gameIds.indexOf(latest) < gameIds.indexOf(south), "Not sorted: " + gameIds);
+        assertTrue(gameIds.indexOf(south) < gameIds.indexOf(north), "Not sorted: " + gameIds);
+        assertTrue(gameIds.indexOf(north) >= 0);
+        for (int i = 1; i < views.size(); i++) {
+            assertFalse(views.get(i - 1).createdAt().isBefore(views.get(i).createdAt()), "Not sorted: " + gameIds);
+        }
+    }
+
+    @Test
+    void gameStatusIsPerLeague() {
+        String player = player();
+        long north = createGame("north", player);
+        long south = createGame("south", player);
+
+        assertEquals(north, status("north", player));
+        assertEquals(south, status("south", player));
+    }
+
+    @Test
+    void gamesOfOtherLeaguesAreNotFound() {
+        long north = LeagueContext.call("north", () -> startGame(gameService, player(), player(), 501));
+        // Read in its own league first, so that the game is in the game cache (keyed by the id only)
+        assertEquals(200, history("north", north));
+
+        assertEquals(404, history("south", north));
+        assertEquals(404, join("south", north));
+        assertEquals(400, join("north", north)); // Found, but it is already running
+    }
+
+    private int join(String league, long gameId) {
+        return LeagueContext.call(league, () -> gameService.joinGame(player(), gameId)).getStatusCodeValue();
+    }
+
+    private int history(String league, long gameId) {
+        return LeagueContext.call(league, () -> gameService.getGameHistory(String.valueOf(gameId), 0, null, null))
+                .getStatusCodeValue();
+    }
+
+    private long status(String league, String player) {
+        ResponseEntity<?> response = LeagueContext.call(league, () -> gameService.getGameStatus(player));
+        assertEquals(200, response.getStatusCodeValue());
+        return ((GameView) response.getBody()).game().getGameId();
+    }
+
+    private long createGame(String league, String player) {
+        return LeagueContext.call(league, () -> GameFixtures.createGame(gameService, player, 501));
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.springdartsgame.service;
+
+import com.example.springdartsgame.model.Throws;
+import com.example.springdartsgame.model.Update;
+import com.example.springdartsgame.model.dto.PlayerGameDTO;
+import com.example.springdartsgame.model.dto.PlayerGamesDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static com.example.springdartsgame.service.GameFixtures.createGame;
+import static com.example.springdartsgame.service.GameFixtures.playAndWin;
+import static com.example.springdartsgame.service.GameFixtures.player;
+import static com.example.springdartsgame.service.GameFixtures.startGame;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PlayerGameServiceTests {
+    @Autowired
+    private PlayerGameService playerGameService;
+    @Autowired
+    private GameService gameService;
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void gamesArePagedNewestFirst() {
+        String player = player();
+        List<Long> gameIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) gameIds.add(playAndWin(gameService, player, player(), 501));
+
+        List<Long> pagedIds = new ArrayList<>();
+        long before = Long.MAX_VALUE;
+        for (int expected : new int[]{2, 2, 1}) {
+            PlayerGamesDTO page = page(player, before, 2, null, null, null, null, null);
+            assertEquals(expected, page.getGames().size());
+            page.getGames().forEach(game -> pagedIds.add(game.getGameId()));
+            if (page.getNextBefore() != null) before = page.getNextBefore();
+            else assertEquals(1, expected);
+        }
+        Collections.reverse(gameIds);
+        assertEquals(gameIds, pagedIds);
+    }
+
+    @Test
+    void gamesAreFiltered() {
+        String player = player();
+        String rival = player();
+        long first = playAndWin(gameService, player, rival, 301);
+        Instant between = Instant.now();
+        long second = playAndWin(gameService, player, player(), 501);
+        long current = createGame(gameService, player, 501);
+
+        assertEquals(List.of(first), ids(page(player, Long.MAX_VALUE, 20, rival, null, null, null, null)));
+        assertEquals(List.of(second, first),
+                ids(page(player, Long.MAX_VALUE, 20, null, "USER_WINS", null, null, null)));
+        assertEquals(List.of(current), ids(page(player, Long.MAX_VALUE, 20, null, "CREATED", null, null, null)));
+        assertEquals(List.of(first), ids(page(player, Long.MAX_VALUE, 20, null, null, 301, null, null)));
+        assertEquals(List.of(current, second), ids(page(player, Long.MAX_VALUE, 20, null, null, null, between, null)));
+        assertEquals(List.of(first), ids(page(player, Long.MAX_VALUE, 20, null, null, null, null, between)));
+        // The opponent sees the game as well
+        assertEquals(List.of(first), ids(page(rival, Long.MAX_VALUE, 20, player, null, null, null, null)));
+    }
+
+    @Test
+    void filteredPagesAtDepth() {
+        String player = player();
+        List<Long> gameIds = new ArrayList<>();
+        Instant from = null;
+        Instant to = null;
+        for (int i = 0; i < 30; i++) {
+            if (i == 5) from = Instant.now();
+            if (i == 10) to = Instant.now();
+            gameIds.add(playAndWin(gameService, player, player(), i % 3 == 0 ? 301 : 501));
+        }
+
+        // Every filter continues below the previous page, deep in the games of the player
+        assertEquals(List.of(gameIds.get(9), gameIds.get(6)),
+                ids(page(player, gameIds.get(12), 2, null, null, 301, null, null)));
+        assertEquals(List.of(gameIds.get(3), gameIds.get(0)),
+                ids(page(player, gameIds.get(6), 5, null, null, 301, null, null)));
+        assertEquals(List.of(gameIds.get(19), gameIds.get(18)),
+                ids(page(player, gameIds.get(20), 2, null, "USER_WINS", null, null, null)));
+        assertEquals(List.of(), ids(page(player, gameIds.get(20), 2, null, "PLAYING", null, null, null)));
+        assertEquals(List.of(gameIds.get(9), gameIds.get(8)),
+                ids(page(player, Long.MAX_VALUE, 2, null, null, null, from, to)));
+        assertEquals(List.of(gameIds.get(7), gameIds.get(6), gameIds.get(5)),
+                ids(page(player, gameIds.get(8), 5, null, null, null, from, to)));
+        assertEquals(List.of(gameIds.get(9), gameIds.get(6)),
+                ids(page(player, Long.MAX_VALUE, 5, null, "USER_WINS", 301, from, to)));
+        assertEquals(List.of(gameIds.get(4), gameIds.get(3)),
+                ids(page(player, gameIds.get(5), 2, null, null, null, null, from)));
+    }
+
+    @Test
+    void statusesFollowTheGames() {
+        String player = player();
+        String rival = player();
+        long cancelled = startGame(gameService, player, player(), 501);
+        gameService.cancelGame(new Update((int) cancelled, "Nobody wins!"));
+        long playing = startGame(gameService, rival, player(), 501);
+        gameService.setThrows(rival, new Throws("3:20", "3:20", "3:20"));
+
+        assertEquals(List.of(cancelled), ids(page(player, Long.MAX_VALUE, 20, null, "NOBODY_WINS", null, null, null)));
+        assertEquals(List.of(), ids(page(player, Long.MAX_VALUE, 20, null, "USER_WINS", null, null, null)));
+        assertEquals(List.of(playing), ids(page(rival, Long.MAX_VALUE, 20, null, "PLAYING", null, null, null)));
+        assertEquals(List.of(), ids(page(rival, Long.MAX_VALUE, 20, null, "STARTED", null, null, null)));
+
+        // The participations indexed before the status get it at the next start
+        new JdbcTemplate(dataSource).update("update game_player set status = null where game_id = ?", cancelled);
+        playerGameService.indexMissingGames();
+        assertEquals(List.of(cancelled), ids(page(player, Long.MAX_VALUE, 20, null, "NOBODY_WINS", null, null, null)));
+    }
+
+    @Test
+    void gamesHaveTimestamps() {
+        String player = player();
+        playAndWin(gameService, player, player(), 501);
+        createGame(gameService, player, 101);
+
+        List<PlayerGameDTO> games = page(player, Long.MAX_VALUE, 20, null, null, null, null, null).getGames();
+        assertEquals(101, games.get(0).getTargetScore());
+        assertNotNull(games.get(0).getCreatedAt());
+        assertNull(games.get(0).getFinishedAt());
+        assertNotNull(games.get(1).getFinishedAt());
+        assertEquals(player + " wins!", games.get(1).getGameStatus());
+    }
+
+    @Test
+    void olderGamesAreIndexed() {
+        String player = player();
+        long gameId = playAndWin(gameService, player, player(), 501);
+        new JdbcTemplate(dataSource).update("delete from game_player where game_id = ?", gameId);
+        assertEquals(List.of(), ids(page(player, Long.MAX_VALUE, 20, null, null, null, null, null)));
+
+        playerGameService.indexMissingGames();
+        assertEquals(List.of(gameId), ids(page(player, Long.MAX_VALUE, 20, null, null, null, null, null)));
+    }
+
+    @Test
+    void invalidRequestsAreRejected() {
+        String player = player();
+        Instant now = Instant.now();
+        assertEquals(400, search(player, Long.MAX_VALUE, 0, null, null, null, null, null).getStatusCodeValue());
+        assertEquals(400, search(player, Long.MAX_VALUE, 101, null, null, null, null, null).getStatusCodeValue());
+        assertEquals(400, search(player, 0, 20, null, null, null, null, null).getStatusCodeValue());
+        assertEquals(400, search(player, Long.MAX_VALUE, 20, null, "WON", null, null, null).getStatusCodeValue());
+        assertEquals(400, search(player, Long.MAX_VALUE, 20, null, null, null, now, now).getStatusCodeValue());
+    }
+
+    private ResponseEntity<?> search(String player, long before, int limit, String opponent, String status,
+                                     Integer targetScore, Instant from, Instant to) {
+        return playerGameService.getPlayerGames(player, before, limit, opponent, status, targetScore, from, to);
+    }
+
+    private PlayerGamesDTO page(String player, long before, int limit, String opponent, String status,
+                                Integer targetScore, Instant from, Instant to) {
+        ResponseEntity<?> response = search(player, before, limit, opponent, status, targetScore, from, to);
+        assertEquals(200, response.getStatusCodeValue());
+        return (PlayerGamesDTO) response.getBody();
+    }
+
+    private static List<Long> ids(PlayerGamesDTO page) {
+        return page.getGames().stream().map(PlayerGameDTO::getGameId).toList();
+    }
+}
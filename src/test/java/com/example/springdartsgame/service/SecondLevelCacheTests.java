@@ -0,0 +1,69 @@
+package com.example.springdartsgame.service;
+
+import com.example.springdartsgame.config.SqlStatementStatistics;
+import com.example.springdartsgame.model.Revert;
+import com.example.springdartsgame.model.Throws;
+import com.example.springdartsgame.model.dto.MoveDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static com.example.springdartsgame.service.GameFixtures.player;
+import static com.example.springdartsgame.service.GameFixtures.startGame;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * These tests check that the second-level cache saves the database round trips of repeated reads and that the cached
+ * games and moves don't outlive a change (including the bulk update that supersedes the moves after a revert).
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SecondLevelCacheTests {
+    @Autowired
+    private GameService gameService;
+    @Autowired
+    private SqlStatementStatistics statistics;
+
+    @Test
+    void repeatedHistoryReadIsServedFromCache() {
+        String playerOne = player();
+        long gameId = startGame(gameService, playerOne, player(), 501);
+        gameService.setThrows(playerOne, new Throws("3:20", "3:20", "3:20"));
+        List<MoveDTO> history = history(gameId);
+
+        // The game and the moves of the first read are cached
+        statistics.startCounting();
+        assertEquals(history, history(gameId));
+        assertEquals(0, statistics.currentStatements());
+    }
+
+    @Test
+    void historyIsFreshAfterRevertAndNewBranch() {
+        String playerOne = player();
+        String playerTwo = player();
+        long gameId = startGame(gameService, playerOne, playerTwo, 501);
+        gameService.setThrows(playerOne, new Throws("3:20", "3:20", "3:20"));
+        gameService.setThrows(playerTwo, new Throws("3:20", "none", "none"));
+        assertEquals(441, history(gameId).get(2).getPlayerTwoScores());
+
+        gameService.revertGame(new Revert(gameId, 1));
+        assertEquals(2, history(gameId).size());
+
+        // Supersedes the cached move 2 with a bulk update
+        gameService.setThrows(playerTwo, new Throws("1:1", "none", "none"));
+        List<MoveDTO> history = history(gameId);
+        assertEquals(3, history.size());
+        assertEquals(500, history.get(2).getPlayerTwoScores());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<MoveDTO> history(long gameId) {
+        ResponseEntity<?> response = gameService.getGameHistory(String.valueOf(gameId), 0, null, null);
+        assertEquals(200, response.getStatusCodeValue());
+        return (List<MoveDTO>) response.getBody();
+    }
+}
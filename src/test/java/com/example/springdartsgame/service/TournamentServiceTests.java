@@ -0,0 +1,131 @@
+package com.example.springdartsgame.service;
+
+import com.example.springdartsgame.model.NewTournament;
+import com.example.springdartsgame.model.Update;
+import com.example.springdartsgame.model.dto.GameView;
+import com.example.springdartsgame.model.dto.MatchDTO;
+import com.example.springdartsgame.model.dto.TournamentDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static com.example.springdartsgame.service.GameFixtures.player;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TournamentServiceTests {
+    @Autowired
+    private TournamentService tournamentService;
+    @Autowired
+    private GameService gameService;
+
+    @Test
+    void advancesWinnersToTheFinal() {
+        List<String> seeds = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) seeds.add("seed" + i + "-" + UUID.randomUUID() + "@acme.com");
+        ResponseEntity<?> response = tournamentService.createTournament(new NewTournament("Open", seeds, 301, null));
+        assertEquals(200, response.getStatusCodeValue());
+        long tournamentId = ((TournamentDTO) response.getBody()).getTournamentId();
+
+        // 8 places: the seeds 1, 2 and 3 get a bye, so 4 - 5 and 2 - 3 are played first
+        assertEquals(seeds.get(0), match(tournamentId, 4).getWinner());
+        assertPlayers(tournamentId, 5, seeds.get(3), seeds.get(4));
+        assertPlayers(tournamentId, 3, seeds.get(1), seeds.get(2));
+        assertNull(match(tournamentId, 2).getGameId());
+
+        win(tournamentId, 5, seeds.get(4));
+        assertPlayers(tournamentId, 2, seeds.get(0), seeds.get(4));
+        win(tournamentId, 3, seeds.get(1));
+        win(tournamentId, 2, seeds.get(0));
+        assertPlayers(tournamentId, 1, seeds.get(0), seeds.get(1));
+        win(tournamentId, 1, seeds.get(1));
+
+        TournamentDTO tournament = (TournamentDTO) tournamentService.getTournament(tournamentId).getBody();
+        assertEquals("finished", tournament.getStatus());
+        assertEquals(seeds.get(1), tournament.getWinner());
+        assertEquals(3, tournament.getRounds());
+    }
+
+    @Test
+    void rejectsEntrantsWithUnfinishedGames() {
+        String player = "busy-" + UUID.randomUUID() + "@acme.com";
+        gameService.createGame(player, 501, null);
+        ResponseEntity<?> response = tournamentService.createTournament(
+                new NewTournament("Open", List.of(player, "free-" + UUID.randomUUID() + "@acme.com"), 501, null));
+        assertEquals(400, response.getStatusCodeValue());
+    }
+
+    @Test
+    void entrantsOnlyPlayTheTournament() {
+        List<String> seeds = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) seeds.add("seed" + i + "-" + UUID.randomUUID() + "@acme.com");
+        ResponseEntity<?> response = tournamentService.createTournament(new NewTournament("Open", seeds, 301, null));
+        assertEquals(200, response.getStatusCodeValue());
+        long tournamentId = ((TournamentDTO) response.getBody()).getTournamentId();
+
+        // The seed with a bye waits for the next match, it can't start another game or tournament in the meantime
+        assertEquals(400, gameService.createGame(seeds.get(0), 501, null).getStatusCodeValue());
+        long otherGame = ((GameView) gameService.createGame(player(), 501, null).getBody()).game().getGameId();
+        assertEquals(400, gameService.joinGame(seeds.get(0), otherGame).getStatusCodeValue());
+        assertEquals(400, tournamentService.createTournament(
+                new NewTournament("Other", List.of(seeds.get(0), player()), 501, null)).getStatusCodeValue());
+
+        // The loser is free to play again, the winner of the final as well
+        win(tournamentId, 3, seeds.get(1));
+        assertEquals(200, gameService.joinGame(seeds.get(2), otherGame).getStatusCodeValue());
+        assertEquals(400, gameService.createGame(seeds.get(1), 501, null).getStatusCodeValue());
+        win(tournamentId, 1, seeds.get(0));
+        assertEquals(200, gameService.createGame(seeds.get(0), 501, null).getStatusCodeValue());
+        assertEquals(200, gameService.createGame(seeds.get(1), 501, null).getStatusCodeValue());
+    }
+
+    @Test
+    void replaysMatchesThatNobodyWins() {
+        List<String> seeds = new ArrayList<>();
+        for (int i = 1; i <= 2; i++) seeds.add("seed" + i + "-" + UUID.randomUUID() + "@acme.com");
+        ResponseEntity<?> response = tournamentService.createTournament(new NewTournament("Open", seeds, 301, null));
+        assertEquals(200, response.getStatusCodeValue());
+        long tournamentId = ((TournamentDTO) response.getBody()).getTournamentId();
+
+        // The final is played again with a new game, the entrants stay in the tournament
+        long cancelledGame = match(tournamentId, 1).getGameId();
+        assertEquals(200, gameService.cancelGame(new Update((int) cancelledGame, "Nobody wins!")).getStatusCodeValue());
+        assertPlayers(tournamentId, 1, seeds.get(0), seeds.get(1));
+        assertNotEquals(cancelledGame, match(tournamentId, 1).getGameId());
+        assertNull(match(tournamentId, 1).getWinner());
+        assertEquals(400, gameService.createGame(seeds.get(0), 501, null).getStatusCodeValue());
+
+        win(tournamentId, 1, seeds.get(1));
+        assertEquals("finished", ((TournamentDTO) tournamentService.getTournament(tournamentId).getBody()).getStatus());
+        assertEquals(200, gameService.createGame(seeds.get(0), 501, null).getStatusCodeValue());
+    }
+
+    // A referee declares the winner of the game of a match
+    private void win(long tournamentId, int match, String winner) {
+        Long gameId = match(tournamentId, match).getGameId();
+        assertNotNull(gameId);
+        assertEquals(200, gameService.cancelGame(new Update(gameId.intValue(), winner + " wins!")).getStatusCodeValue());
+        assertEquals(winner, match(tournamentId, match).getWinner());
+    }
+
+    private void assertPlayers(long tournamentId, int match, String playerOne, String playerTwo) {
+        MatchDTO dto = match(tournamentId, match);
+        assertEquals(playerOne, dto.getPlayerOne());
+        assertEquals(playerTwo, dto.getPlayerTwo());
+        assertNotNull(dto.getGameId());
+    }
+
+    private MatchDTO match(long tournamentId, int match) {
+        return (MatchDTO) tournamentService.getMatch(tournamentId, match).getBody();
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.springdartsgame.service;
+
+import com.example.springdartsgame.entity.Game;
+import com.example.springdartsgame.model.GameStatus;
+import com.example.springdartsgame.model.NewTournament;
+import com.example.springdartsgame.model.Revert;
+import com.example.springdartsgame.model.Throws;
+import com.example.springdartsgame.model.TurnExpiredEvent;
+import com.example.springdartsgame.model.TurnPenalty;
+import com.example.springdartsgame.model.dto.TournamentDTO;
+import com.example.springdartsgame.persistence.GameRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import static com.example.springdartsgame.service.GameFixtures.player;
+import static com.example.springdartsgame.service.GameFixtures.startGame;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+@SpringBootTest(properties = {"darts.turn-clock.turn-limit=500ms", "darts.turn-clock.tick=10ms",
+        "darts.turn-clock.max-skipped-turns=2"})
+@ActiveProfiles("test")
+class TurnClockTests {
+    @Autowired
+    private GameService gameService;
+    @Autowired
+    private GameRepository gameRepository;
+    @Autowired
+    private TournamentService tournamentService;
+
+    @Test
+    void expiredTurnIsSkipped() throws InterruptedException {
+        String playerOne = player();
+        String playerTwo = player();
+        long gameId = startGame(gameService, playerOne, playerTwo, 501);
+
+        Game game = await(gameId, g -> playerTwo.equals(g.getTurn()));
+        assertEquals(GameStatus.PLAYING, game.getGameStatus());
+        assertEquals(501, game.getPlayerOneScores());
+        assertEquals(1, game.getHeadMove());
+
+        // The clock of the opponent started with the skip
+        await(gameId, g -> playerOne.equals(g.getTurn()));
+    }
+
+    @Test
+    void abandonedGameIsForfeited() throws InterruptedException {
+        String playerOne = player();
+        String playerTwo = player();
+        long gameId = startGame(gameService, playerOne, playerTwo, 501);
+
+        // Both turns are skipped once, player one doesn't throw in the next turn either
+        Game game = await(gameId, g -> g.getGameStatus() == GameStatus.USER_WINS);
+        assertEquals(playerTwo, game.getWinner());
+        assertEquals(2, game.getHeadMove());
+    }
+
+    @Test
+    void tournamentGameIsClocked() throws InterruptedException {
+        String playerOne = player();
+        String playerTwo = player();
+        ResponseEntity<?> response = tournamentService.createTournament(
+                new NewTournament("Clocked", List.of(playerOne, playerTwo), 501, null));
+        assertEquals(200, response.getStatusCodeValue());
+        long gameId = ((TournamentDTO) response.getBody()).getMatches().get(0).getGameId();
+
+        await(gameId, g -> playerTwo.equals(g.getTurn()));
+    }
+
+    @Test
+    void throwRestartsClock() throws InterruptedException {
+        String playerOne = player();
+        String playerTwo = player();
+        long gameId = startGame(gameService, playerOne, playerTwo, 501);
+        assertEquals(200, gameService.setThrows(playerOne, new Throws("3:20", "none", "none")).getStatusCodeValue());
+        long thrown = System.nanoTime();
+
+        // Only the turn of player two expired, a full turn after the throw
+        Game game = await(gameId, g -> playerOne.equals(g.getTurn()));
+        assertTrue(System.nanoTime() - thrown >= TimeUnit.MILLISECONDS.toNanos(450));
+        assertEquals(2, game.getHeadMove());
+        assertEquals(441, game.getPlayerOneScores());
+        assertEquals(501, game.getPlayerTwoScores());
+    }
+
+    @Test
+    void revertStopsClock() throws InterruptedException {
+        String playerOne = player();
+        long gameId = startGame(gameService, playerOne, player(), 501);
+        assertEquals(200, gameService.setThrows(playerOne, new Throws("3:20", "none", "none")).getStatusCodeValue());
+        assertEquals(200, gameService.revertGame(new Revert(gameId, 0)).getStatusCodeValue());
+
+        Thread.sleep(1000);
+        Game game = gameRepository.findById(gameId).orElseThrow();
+        assertEquals(playerOne, game.getTurn());
+        assertEquals(0, game.getHeadMove());
+    }
+
+    @Test
+    void forfeitWinsGameForOpponent() {
+        String playerOne = player();
+        String playerTwo = player();
+        long gameId = startGame(gameService, playerOne, playerTwo, 501);
+        Game game = gameRepository.findById(gameId).orElseThrow();
+
+        // A turn that is already over is ignored
+        gameService.onTurnExpired(new TurnExpiredEvent(gameId, playerTwo, game.getVersion(), TurnPenalty.FORFEIT));
+        gameService.onTurnExpired(new TurnExpiredEvent(gameId, playerOne, game.getVersion() - 1,
+                TurnPenalty.FORFEIT));
+        assertNotEquals(GameStatus.USER_WINS, gameRepository.findById(gameId).orElseThrow().getGameStatus());
+
+        gameService.onTurnExpired(new TurnExpiredEvent(gameId, playerOne, game.getVersion(), TurnPenalty.FORFEIT));
+        game = gameRepository.findById(gameId).orElseThrow();
+        assertEquals(GameStatus.USER_WINS, game.getGameStatus());
+        assertEquals(playerTwo, game.getWinner());
+    }
+
+    private Game await(long gameId, Predicate<Game> condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (System.currentTimeMillis() < deadline) {
+            Game game = gameRepository.findById(gameId).orElseThrow();
+            if (condition.test(game)) return game;
+            Thread.sleep(20);
+        }
+        return fail("The turn of game " + gameId + " didn't expire");
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.springdartsgame.service;
+
+import com.example.springdartsgame.config.SqlStatementStatistics;
+import com.example.springdartsgame.model.NewUser;
+import com.example.springdartsgame.model.Role;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static com.example.springdartsgame.service.GameFixtures.player;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class UserServiceTests {
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private DaoAuthenticationProvider authenticationProvider;
+    @Autowired
+    private SqlStatementStatistics statistics;
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void defaultUsersAreCreated() {
+        UserDetails referee = userService.loadUserByUsername("judgedredd@acme.com");
+        assertEquals(List.of("ROLE_REFEREE"), referee.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority).toList());
+    }
+
+    @Test
+    void provisionedUsersLogInWithHashedPasswords() {
+        String gamer = player();
+        String referee = player();
+        String admin = player();
+        String hash = "{bcrypt}" + new BCryptPasswordEncoder().encode("bullseye");
+        assertEquals(200, userService.provisionUsers(List.of(new NewUser(gamer, "darts", Role.GAMER),
+                new NewUser(referee, hash, Role.REFEREE), new NewUser(admin, "{noop}bullseye", Role.ADMIN)))
+                .getStatusCodeValue());
+
+        assertTrue(userService.loadUserByUsername(gamer).getPassword().startsWith("{bcrypt}"));
+        // Only a bcrypt hash is taken as it is, any other prefix is part of a plain text password
+        assertEquals(hash, userService.loadUserByUsername(referee).getPassword());
+        assertTrue(userService.loadUserByUsername(admin).getPassword().startsWith("{bcrypt}"));
+        assertTrue(login(referee, "bullseye").isAuthenticated());
+        assertTrue(login(admin, "{noop}bullseye").isAuthenticated());
+        assertThrows(BadCredentialsException.class, () -> login(admin, "bullseye"));
+        assertTrue(login(gamer, "darts").isAuthenticated());
+        assertThrows(BadCredentialsException.class, () -> login(gamer, "bullseye"));
+
+        // Provisioning again changes the password and role
+        assertEquals(200, userService.provisionUsers(List.of(new NewUser(gamer, "treble", Role.ADMIN)))
+                .getStatusCodeValue());
+        assertThrows(BadCredentialsException.class, () -> login(gamer, "darts"));
+        assertEquals("ROLE_ADMIN", login(gamer, "treble").getAuthorities().iterator().next().getAuthority());
+    }
+
+    @Test
+    void outdatedPasswordsAreHashedAtLogin() {
+        String gamer = player();
+        userService.provisionUsers(List.of(new NewUser(gamer, "darts", Role.GAMER)));
+        // A password stored by an older version
+        new JdbcTemplate(dataSource).update("update user_account set password = ? where username = ?",
+                "{noop}darts", gamer);
+
+        assertTrue(login(gamer, "darts").isAuthenticated());
+        assertTrue(userService.loadUserByUsername(gamer).getPassword().startsWith("{bcrypt}"));
+        assertTrue(login(gamer, "darts").isAuthenticated());
+    }
+
+    @Test
+    void repeatedLoginIsServedFromCache() {
+        String gamer = player();
+        userService.provisionUsers(List.of(new NewUser(gamer, "darts", Role.GAMER)));
+        login(gamer, "darts");
+
+        // The login erased the password of its user, the cached user still has it
+        statistics.startCounting();
+        assertTrue(login(gamer, "darts").isAuthenticated());
+        assertEquals(0, statistics.currentStatements());
+    }
+
+    @Test
+    void invalidUsersAreRejected() {
+        String gamer = player();
+        assertEquals(400, userService.provisionUsers(List.of()).getStatusCodeValue());
+        assertEquals(400, userService.provisionUsers(List.of(new NewUser(gamer, "", Role.GAMER)))
+                .getStatusCodeValue());
+        assertEquals(400, userService.provisionUsers(List.of(new NewUser(gamer, "darts", Role.GAMER),
+                new NewUser(gamer, "darts", Role.REFEREE))).getStatusCodeValue());
+    }
+
+    // Authenticates like the password grant of the token endpoint, including erasing the credentials
+    private Authentication login(String username, String password) {
+        Authentication authentication = authenticationProvider.authenticate(
+                new UsernamePasswordAuthenticationToken(username, password));
+        ((UsernamePasswordAuthenticationToken) authentication).eraseCredentials();
+        return authentication;
+    }
+}
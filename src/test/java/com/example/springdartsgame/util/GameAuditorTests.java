@@ -0,0 +1,107 @@
+package com.example.springdartsgame.util;
+
+import com.example.springdartsgame.entity.Game;
+import com.example.springdartsgame.entity.Move;
+import com.example.springdartsgame.model.AuditMismatch;
+import com.example.springdartsgame.model.GameStatus;
+import com.example.springdartsgame.model.GameVariant;
+import com.example.springdartsgame.model.Throws;
+import com.example.springdartsgame.service.GameProgressService;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameAuditorTests {
+    private static final String ONE = "ivanhoe@acme.com";
+    private static final String TWO = "robinhood@acme.com";
+
+    private final GameProgressService gameProgressService = new GameProgressService();
+
+    @Test
+    void acceptsPlayedGame() {
+        Game game = game(GameVariant.DOUBLE_OUT);
+        List<Move> moves = play(game, new Throws("3:20", "3:20", "3:20"), new Throws("3:20", "3:19", "none"),
+                new Throws("1:1", "1:1", "1:1"));
+        assertTrue(GameAuditor.audit(game, moves).isEmpty());
+    }
+
+    @Test
+    void acceptsBustAndCheckout() {
+        Game game = game(GameVariant.DOUBLE_OUT);
+        game.setPlayerOneScores(40);
+        game.setPlayerTwoScores(40);
+        List<Move> moves = play(game, new Throws("3:20", "none", "none"), new Throws("2:20", "none", "none"));
+        game.setTargetScore(40);
+        assertEquals(GameStatus.USER_WINS, game.getGameStatus());
+        assertTrue(GameAuditor.audit(game, moves).isEmpty());
+    }
+
+    @Test
+    void reportsUnreachableScore() {
+        Game game = game(GameVariant.DOUBLE_OUT);
+        List<Move> moves = play(game, new Throws("3:20", "3:20", "3:20"));
+        moves.get(1).setPlayerOneScores(100); // More than 180 points in one visit
+        game.setPlayerOneScores(100);
+        List<AuditMismatch> mismatches = GameAuditor.audit(game, moves);
+        assertEquals(1, mismatches.size());
+        assertEquals(1, mismatches.get(0).move());
+    }
+
+    @Test
+    void reportsGameThatDriftedFromItsHead() {
+        Game game = game(GameVariant.DOUBLE_OUT);
+        List<Move> moves = play(game, new Throws("3:20", "none", "none"));
+        game.setPlayerOneScores(381); // Saved without its move
+        List<AuditMismatch> mismatches = GameAuditor.audit(game, moves);
+        assertEquals(1, mismatches.size());
+        assertEquals(-1, mismatches.get(0).move());
+    }
+
+    @Test
+    void reportsScoreBeforeDoubleIn() {
+        Game game = game(GameVariant.DOUBLE_IN);
+        List<Move> moves = play(game, new Throws("3:20", "none", "none"));
+        moves.get(1).setPlayerOneScores(330); // 171 points, at most 170 if the visit opens with a double
+        game.setPlayerOneScores(330);
+        assertEquals(1, GameAuditor.audit(game, moves).size());
+    }
+
+    private static Game game(GameVariant variant) {
+        return Game.builder()
+                .id(1L)
+                .gameStatus(GameStatus.STARTED)
+                .playerOne(ONE)
+                .playerTwo(TWO)
+                .playerOneScores(501)
+                .playerTwoScores(501)
+                .turn(ONE)
+                .variant(variant)
+                .targetScore(501)
+                .headMove(-1)
+                .latestMove(-1)
+                .build();
+    }
+
+    // Plays the throws in turn and records a move after joining and after every throw, like the game service
+    private List<Move> play(Game game, Throws... visits) {
+        List<Move> moves = new ArrayList<>();
+        record(game, moves);
+        for (Throws visit : visits) {
+            gameProgressService.updatePoints(game, game.getTurn(), visit);
+            record(game, moves);
+        }
+        return moves;
+    }
+
+    private static void record(Game game, List<Move> moves) {
+        Move move = GameMapper.mapGameToMove(game);
+        move.setMove(moves.size());
+        moves.add(move);
+        game.setHeadMove(move.getMove());
+        game.setLatestMove(move.getMove());
+    }
+}
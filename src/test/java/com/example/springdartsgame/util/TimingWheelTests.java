@@ -0,0 +1,75 @@
+package com.example.springdartsgame.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimingWheelTests {
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    // 8 buckets of 10ms, so that the longer timeouts take several rounds of the wheel
+    private final TimingWheel wheel = new TimingWheel("test-wheel", Duration.ofMillis(10), 8, executor);
+
+    @AfterEach
+    void close() {
+        wheel.close();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void expiresAfterDelay() throws InterruptedException {
+        CountDownLatch expired = new CountDownLatch(1);
+        long start = System.nanoTime();
+        TimingWheel.Timeout timeout = wheel.schedule(expired::countDown, Duration.ofMillis(250));
+
+        assertTrue(expired.await(2, TimeUnit.SECONDS));
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(elapsed >= 250 && elapsed < 1000, elapsed + " ms");
+        assertTrue(timeout.isExpired());
+        assertFalse(timeout.cancel());
+        assertEquals(0, wheel.pendingTimeouts());
+    }
+
+    @Test
+    void cancelledTimeoutDoesNotExpire() throws InterruptedException {
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch later = new CountDownLatch(1);
+        TimingWheel.Timeout cancelled = wheel.schedule(runs::incrementAndGet, Duration.ofMillis(50));
+        wheel.schedule(later::countDown, Duration.ofMillis(200));
+
+        assertTrue(cancelled.cancel());
+        assertTrue(cancelled.isCancelled());
+        assertTrue(later.await(2, TimeUnit.SECONDS));
+        assertEquals(0, runs.get());
+        assertEquals(0, wheel.pendingTimeouts());
+    }
+
+    @Test
+    void expiresInDeadlineOrder() throws InterruptedException {
+        int timeouts = 1_000;
+        CountDownLatch expired = new CountDownLatch(timeouts);
+        long[] expiredAt = new long[timeouts];
+        for (int i = 0; i < timeouts; i++) {
+            int timeout = i;
+            wheel.schedule(() -> {
+                expiredAt[timeout] = System.nanoTime();
+                expired.countDown();
+            }, Duration.ofMillis(20 + (i % 10) * 30L));
+        }
+
+        assertTrue(expired.await(5, TimeUnit.SECONDS));
+        // The timeouts are 30ms apart, three ticks
+        for (int i = 10; i < timeouts; i++) {
+            if (i % 10 > 0) assertTrue(expiredAt[i - 1] < expiredAt[i]);
+        }
+    }
+}
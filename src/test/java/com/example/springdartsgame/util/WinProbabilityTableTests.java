@@ -0,0 +1,68 @@
+package com.example.springdartsgame.util;
+
+import com.example.springdartsgame.model.GameVariant;
+import com.example.springdartsgame.model.SkillModel;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WinProbabilityTableTests {
+    private static final SkillModel SKILL = new SkillModel(0.25, 0.3, 0.7);
+    private static final WinProbabilityTable TABLE = WinProbabilityTable.compute(SKILL);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void probabilitiesAreInRange() {
+        for (GameVariant variant : GameVariant.values()) {
+            for (int one = 1; one <= 501; one += 10) {
+                for (int two = 1; two <= 501; two += 10) {
+                    double probability = TABLE.playerOneWins(variant, 501, one, two, true);
+                    assertTrue(probability >= 0 && probability <= 1, variant + " " + one + "/" + two);
+                }
+            }
+        }
+    }
+
+    @Test
+    void favoursPlayerToThrowAndLowerScore() {
+        for (GameVariant variant : GameVariant.values()) {
+            double start = TABLE.playerOneWins(variant, 501, 501, 501, true);
+            assertTrue(start > 0.5 && start < 0.7, variant + " " + start);
+            assertEquals(1 - start, TABLE.playerOneWins(variant, 501, 501, 501, false), 1e-6);
+            assertTrue(TABLE.playerOneWins(variant, 501, 40, 501, true) > 0.9);
+            assertTrue(TABLE.playerOneWins(variant, 501, 501, 40, true) < 0.1);
+        }
+    }
+
+    @Test
+    void rejectsScoresOutOfRange() {
+        assertEquals(-1, TABLE.playerOneWins(GameVariant.DOUBLE_OUT, 501, 0, 501, true));
+        assertEquals(-1, TABLE.playerOneWins(GameVariant.DOUBLE_OUT, 501, 502, 501, true));
+    }
+
+    @Test
+    void savedTableIsMappedBack() throws IOException {
+        Path file = directory.resolve("win_probability.bin");
+        TABLE.save(file);
+
+        WinProbabilityTable loaded = WinProbabilityTable.load(file, SKILL);
+        for (GameVariant variant : GameVariant.values()) {
+            for (int one = 1; one <= 501; one += 25) {
+                for (int two = 1; two <= 501; two += 25) {
+                    assertEquals(TABLE.playerOneWins(variant, 301, one, two, false),
+                            loaded.playerOneWins(variant, 301, one, two, false));
+                }
+            }
+        }
+        assertNull(WinProbabilityTable.load(file, new SkillModel(0.2, 0.3, 0.7)));
+        assertNull(WinProbabilityTable.load(directory.resolve("missing.bin"), SKILL));
+    }
+}